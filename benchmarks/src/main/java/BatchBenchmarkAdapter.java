@@ -0,0 +1,21 @@
+/**
+ * Connects bench.BatchBenchmark to the BatchEngine, which it cannot refer to from its named package.
+ */
+public class BatchBenchmarkAdapter implements bench.BatchOps {
+    private BatchEngine engine;
+
+    @Override
+    public void reset(int players) {
+        engine = new BatchEngine(RuleSet.DEFAULT, players);
+    }
+
+    @Override
+    public long playBatch(long games, long seed) {
+        return engine.play(games, seed).getWins(0);
+    }
+
+    @Override
+    public long playScalar(long games, long seed) {
+        return engine.playScalar(games, seed).getWins(0);
+    }
+}
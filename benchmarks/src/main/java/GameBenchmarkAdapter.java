@@ -0,0 +1,20 @@
+import java.util.SplittableRandom;
+/**
+ * Connects bench.GameBenchmark to the HeadlessEngine, which it cannot refer to from its named package.
+ */
+public class GameBenchmarkAdapter implements bench.GameOps {
+    private HeadlessEngine engine;
+    private PlayerTable table;
+
+    @Override
+    public void reset(int players, boolean oneDraw, long seed) {
+        engine = new HeadlessEngine(new SplittableRandom(seed),
+                oneDraw ? TurnEvaluator.Mode.ONE_DRAW : TurnEvaluator.Mode.PER_DIE);
+        table = new PlayerTable(players);
+    }
+
+    @Override
+    public int play() {
+        return engine.play(table).getWinner();
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Connects bench.ListBenchmark to the circular lists, which it cannot refer to from its named package.
+ */
+public class ListBenchmarkAdapter implements bench.ListOps {
+    private CircularLinkedListInterface<Integer> list;
+    private Integer[] values = new Integer[0];
+
+    /**
+     * Creates an empty list of the named implementation.
+     *
+     * @param implementation the simple class name of the list
+     * @return a new, empty list
+     */
+    static CircularLinkedListInterface<Integer> create(String implementation) {
+        return switch (implementation) {
+            case "CircularLinkedList" -> new CircularLinkedList<>();
+            case "IndexedCircularLinkedList" -> new CircularLinkedList<>(CircularLinkedList.IndexMode.EQUALITY);
+            case "CircularArrayList" -> new CircularArrayList<>();
+            case "ConcurrentCircularList" -> new ConcurrentCircularList<>();
+            case "SkipCircularList" -> new SkipCircularList<>();
+            default -> throw new IllegalArgumentException("Unknown list implementation: " + implementation);
+        };
+    }
+
+    @Override
+    public void reset(String implementation, int capacity) {
+        list = create(implementation);
+        if (values.length < capacity) {
+            values = new Integer[capacity];
+            for (int i = 0; i < capacity; i++) {
+                values[i] = i;
+            }
+        }
+    }
+
+    @Override
+    public void add(int value) {
+        list.add(values[value]);
+    }
+
+    @Override
+    public Object get(int position) {
+        return list.get(position);
+    }
+
+    @Override
+    public boolean remove(Object value) {
+        return list.remove((Integer) value);
+    }
+
+    @Override
+    public void removeAt(int position) {
+        list.remove(position);
+    }
+
+    @Override
+    public int iterate() {
+        int sum = 0;
+        java.util.Iterator<Integer> iterator = list.iterator();
+        while (iterator.hasNext()) {
+            sum += iterator.next();
+        }
+        return sum;
+    }
+
+    @Override
+    public int size() {
+        return list.getSize();
+    }
+}
@@ -0,0 +1,42 @@
+import java.util.SplittableRandom;
+/**
+ * Connects bench.TurnBenchmark to TurnEvaluator, which it cannot refer to from its named package.
+ */
+public class TurnBenchmarkAdapter implements bench.TurnOps {
+    private SplittableRandom random;
+    private final Player player = new Player("Benchmark");
+
+    @Override
+    public void reset(long seed) {
+        random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public int rollWithArray() {
+        player.resetStuckDice();
+        int turnScore = 0;
+        int[] diceRolls = new int[RuleSet.DEFAULT.getNumDice()];
+        for (int i = 0; i < diceRolls.length; i++) {
+            diceRolls[i] = random.nextInt(6) + 1;
+            if (player.isDiceStuck(i)) {
+                continue;
+            }
+            if (diceRolls[i] == 2 || diceRolls[i] == 5) {
+                player.checkIfStuck(diceRolls);
+            } else {
+                turnScore += diceRolls[i];
+            }
+        }
+        return turnScore;
+    }
+
+    @Override
+    public long rollPerDie() {
+        return TurnEvaluator.rollPerDie(RuleSet.DEFAULT, random);
+    }
+
+    @Override
+    public long rollOneDraw() {
+        return TurnEvaluator.rollOneDraw(RuleSet.DEFAULT, random);
+    }
+}
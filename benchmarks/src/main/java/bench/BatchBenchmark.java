@@ -0,0 +1,53 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks games played in lockstep lanes by the BatchEngine against the same games played one at a time,
+ * reported per game.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@OperationsPerInvocation(BatchBenchmark.GAMES)
+public class BatchBenchmark {
+    static final int GAMES = 4096;
+
+    @Param({"2", "8"})
+    public int players;
+
+    private BatchOps batch;
+    private long seed;
+
+    @Setup
+    public void setUp() {
+        batch = Fixtures.create(BatchOps.class, "BatchBenchmarkAdapter");
+        batch.reset(players);
+    }
+
+    @Benchmark
+    public long playBatch() {
+        return batch.playBatch(GAMES, seed++);
+    }
+
+    @Benchmark
+    public long playScalar() {
+        return batch.playScalar(GAMES, seed++);
+    }
+}
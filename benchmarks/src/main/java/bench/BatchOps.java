@@ -0,0 +1,32 @@
+package bench;
+
+/**
+ * Plays many headless games of Stuck in the Mud at once.
+ */
+public interface BatchOps {
+
+    /**
+     * Sets up the engine for the following games.
+     *
+     * @param players the number of players in each game
+     */
+    void reset(int players);
+
+    /**
+     * Plays games in lockstep lanes.
+     *
+     * @param games the number of games to play
+     * @param seed  the seed of the games
+     * @return the number of games won by seat 0
+     */
+    long playBatch(long games, long seed);
+
+    /**
+     * Plays the same games one at a time with the scalar reference.
+     *
+     * @param games the number of games to play
+     * @param seed  the seed of the games
+     * @return the number of games won by seat 0
+     */
+    long playScalar(long games, long seed);
+}
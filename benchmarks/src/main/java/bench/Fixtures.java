@@ -0,0 +1,30 @@
+package bench;
+
+/**
+ * Loads the adapters that connect the benchmarks to the project classes.
+ * JMH only accepts benchmarks in a named package, while the project classes live in the unnamed package,
+ * which code in a named package cannot refer to. Each benchmark therefore drives the project through one of
+ * the small interfaces in this package, implemented by an adapter class in the unnamed package that is
+ * loaded here by name. The calls go through a single implementation, so the JIT inlines them.
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    /**
+     * Creates an instance of the named adapter class.
+     *
+     * @param type      the interface the adapter implements
+     * @param className the name of the adapter class in the unnamed package
+     * @param <T>       the interface type
+     * @return a new adapter
+     */
+    static <T> T create(Class<T> type, String className) {
+        try {
+            return type.cast(Class.forName(className).getDeclaredConstructor().newInstance());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot load benchmark adapter " + className, e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks complete headless games at tables of different sizes, with both ways of rolling a turn.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameBenchmark {
+
+    @Param({"2", "8", "100", "10000"})
+    public int players;
+
+    @Param({"false", "true"})
+    public boolean oneDraw;
+
+    private GameOps game;
+
+    @Setup
+    public void setUp() {
+        game = Fixtures.create(GameOps.class, "GameBenchmarkAdapter");
+        game.reset(players, oneDraw, 42L);
+    }
+
+    @Benchmark
+    public int playGame() {
+        return game.play();
+    }
+}
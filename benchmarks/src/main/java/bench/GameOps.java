@@ -0,0 +1,23 @@
+package bench;
+
+/**
+ * Plays headless games of Stuck in the Mud.
+ */
+public interface GameOps {
+
+    /**
+     * Sets up the engine for the following games.
+     *
+     * @param players the number of players at the table
+     * @param oneDraw true to roll each turn with a single draw, false to draw each die separately
+     * @param seed    the seed for the engine's random number generator
+     */
+    void reset(int players, boolean oneDraw, long seed);
+
+    /**
+     * Plays one complete game.
+     *
+     * @return the winning seat
+     */
+    int play();
+}
@@ -0,0 +1,103 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the operations of CircularLinkedListInterface on lists of different sizes.
+ * Position 0 is the most recently added element, so get at "tail" walks the whole list in CircularLinkedList,
+ * while get at "head" takes a single step.
+ * The remove benchmarks add an element back after removing one, so that the list keeps its size.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ListBenchmark {
+
+    @Param({"CircularLinkedList", "IndexedCircularLinkedList", "CircularArrayList", "ConcurrentCircularList",
+            "SkipCircularList"})
+    public String implementation;
+
+    @Param({"16", "1024", "65536"})
+    public int size;
+
+    private ListOps list;
+
+    @Setup
+    public void setUp() {
+        list = Fixtures.create(ListOps.class, "ListBenchmarkAdapter");
+        fill();
+    }
+
+    private void fill() {
+        list.reset(implementation, size);
+        for (int i = 0; i < size; i++) {
+            list.add(i);
+        }
+    }
+
+    /**
+     * Builds a whole list of the given size from empty, one add at a time.
+     */
+    @Benchmark
+    public int addAll() {
+        fill();
+        return list.size();
+    }
+
+    @Benchmark
+    public Object getHead() {
+        return list.get(size - 1);
+    }
+
+    @Benchmark
+    public Object getMiddle() {
+        return list.get(size / 2);
+    }
+
+    @Benchmark
+    public Object getTail() {
+        return list.get(0);
+    }
+
+    /**
+     * Removes the most recently added element by value, which is found last, and adds it back.
+     */
+    @Benchmark
+    public boolean removeValue() {
+        Object value = list.get(0);
+        boolean removed = list.remove(value);
+        list.add((Integer) value);
+        return removed;
+    }
+
+    /**
+     * Removes the element in the middle by position and adds it back as the most recently added element.
+     */
+    @Benchmark
+    public int removeAtMiddle() {
+        Object value = list.get(size / 2);
+        list.removeAt(size / 2);
+        list.add((Integer) value);
+        return list.size();
+    }
+
+    @Benchmark
+    public int iterate() {
+        return list.iterate();
+    }
+}
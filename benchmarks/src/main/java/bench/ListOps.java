@@ -0,0 +1,33 @@
+package bench;
+
+/**
+ * Operations on one of the project's circular lists, holding the boxed integers 0 to size - 1.
+ * Values are passed as ints and boxed from a cache by the adapter, so the benchmarks measure the list alone.
+ */
+public interface ListOps {
+
+    /**
+     * Replaces the list with a new, empty list of the given implementation.
+     *
+     * @param implementation the simple class name of the list, such as "CircularLinkedList"
+     * @param capacity       the largest value that will be added, plus one
+     */
+    void reset(String implementation, int capacity);
+
+    void add(int value);
+
+    Object get(int position);
+
+    boolean remove(Object value);
+
+    void removeAt(int position);
+
+    /**
+     * Iterates over the whole list with its iterator.
+     *
+     * @return a value computed from every element, to keep the loop from being optimized away
+     */
+    int iterate();
+
+    int size();
+}
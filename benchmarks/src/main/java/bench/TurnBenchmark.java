@@ -0,0 +1,50 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks rolling a single turn: the old way with an int array per turn, and TurnEvaluator's bitmask
+ * evaluation with one draw per die or one draw for the whole turn.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TurnBenchmark {
+
+    private TurnOps turns;
+
+    @Setup
+    public void setUp() {
+        turns = Fixtures.create(TurnOps.class, "TurnBenchmarkAdapter");
+        turns.reset(42L);
+    }
+
+    @Benchmark
+    public int rollWithArray() {
+        return turns.rollWithArray();
+    }
+
+    @Benchmark
+    public long rollPerDie() {
+        return turns.rollPerDie();
+    }
+
+    @Benchmark
+    public long rollOneDraw() {
+        return turns.rollOneDraw();
+    }
+}
@@ -0,0 +1,20 @@
+package bench;
+
+/**
+ * Rolls and scores single turns of Stuck in the Mud.
+ */
+public interface TurnOps {
+
+    void reset(long seed);
+
+    /**
+     * Rolls a turn the way StuckInTheMud.takeTurn did before TurnEvaluator, with an int array for the dice.
+     *
+     * @return the turn score
+     */
+    int rollWithArray();
+
+    long rollPerDie();
+
+    long rollOneDraw();
+}
@@ -0,0 +1,117 @@
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+/**
+ * This class contains unit tests for the BatchEngine class, checking the games it plays in lockstep
+ * against the same games played one at a time by playScalar.
+ */
+public class BatchEngineTest {
+    /**
+     * Asserts that two sets of statistics count exactly the same games.
+     */
+    static void assertSameStats(TournamentStats expected, TournamentStats actual) {
+        assertEquals(expected.getPlayerCount(), actual.getPlayerCount());
+        assertEquals(expected.getGames(), actual.getGames());
+        assertEquals(expected.getTotalTurns(), actual.getTotalTurns());
+        for (int seat = 0; seat < expected.getPlayerCount(); seat++) {
+            assertEquals(expected.getWins(seat), actual.getWins(seat));
+        }
+        assertEquals(expected.getScoreRange(), actual.getScoreRange());
+        for (int score = 0; score < expected.getScoreRange(); score++) {
+            assertEquals("Count of final score " + score, expected.getScoreCount(score), actual.getScoreCount(score));
+        }
+    }
+
+    /**
+     * Tests batches where the number of lanes does not divide the number of games.
+     * Validates that the batched games are exactly the scalar ones, whatever the number of lanes.
+     */
+    @Test
+    public void testPlayMatchesScalarForAnyLanes() {
+        TournamentStats expected = new BatchEngine(RuleSet.DEFAULT, 3).playScalar(1000, 99L);
+        for (int lanes : new int[]{1, 7, 64, 333, BatchEngine.DEFAULT_LANES, 1001, 4096}) {
+            assertSameStats(expected, new BatchEngine(RuleSet.DEFAULT, 3, lanes).play(1000, 99L));
+        }
+    }
+
+    /**
+     * Tests rule sets that use the lanes differently: an odd number of dice, which leaves half of the last
+     * random number unused, other stuck faces, and one or many players.
+     * Validates that the batched games are exactly the scalar ones.
+     */
+    @Test
+    public void testPlayMatchesScalarForOtherRules() {
+        RuleSet[] rules = {new RuleSet(50, 5, 2, 5), new RuleSet(80, 1, 6), new RuleSet(300, 16, 1, 2, 3),
+                new RuleSet(40, 3)};
+        int[] playerCounts = {1, 2, 5};
+        for (RuleSet rule : rules) {
+            for (int numPlayers : playerCounts) {
+                BatchEngine engine = new BatchEngine(rule, numPlayers, 10);
+                assertSameStats(engine.playScalar(257, 5L), engine.play(257, 5L));
+            }
+        }
+    }
+
+    /**
+     * Tests playing a range of games in two parts, as a sweep splits a cell into chunks.
+     * Validates that the merged parts are the same as the whole range, and that an engine
+     * can be used again.
+     */
+    @Test
+    public void testPlayRangesMerge() {
+        BatchEngine engine = new BatchEngine(RuleSet.DEFAULT, 2, 32);
+        TournamentStats whole = engine.play(500, 17L);
+        TournamentStats parts = new TournamentStats(2, RuleSet.DEFAULT);
+        engine.play(0, 123, 17L, parts);
+        engine.play(123, 377, 17L, parts);
+        assertSameStats(whole, parts);
+        assertSameStats(whole, engine.play(500, 17L));
+    }
+
+    /**
+     * Tests a single game against the scalar statistics it is part of.
+     * Validates that playGame gives the same game whether it is played alone or in a batch.
+     */
+    @Test
+    public void testPlayGameMatchesBatch() {
+        BatchEngine engine = new BatchEngine(RuleSet.DEFAULT, 4, 16);
+        for (long game = 0; game < 40; game++) {
+            TournamentStats alone = new TournamentStats(4, RuleSet.DEFAULT);
+            alone.record(engine.playGame(game, 3L));
+            TournamentStats batched = new TournamentStats(4, RuleSet.DEFAULT);
+            engine.play(game, 1, 3L, batched);
+            assertSameStats(alone, batched);
+        }
+    }
+
+    /**
+     * Tests playing no games.
+     * Validates that the statistics stay empty.
+     */
+    @Test
+    public void testPlayNoGames() {
+        TournamentStats stats = new BatchEngine(RuleSet.DEFAULT, 2).play(0, 1L);
+        assertEquals(0, stats.getGames());
+        assertEquals(0, stats.getTotalTurns());
+    }
+
+    /**
+     * Tests creating an engine with invalid sizes.
+     * Validates that no players or no lanes are rejected.
+     */
+    @Test
+    public void testInvalidSizes() {
+        try {
+            new BatchEngine(RuleSet.DEFAULT, 0);
+            fail("An engine with no players was created");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            new BatchEngine(RuleSet.DEFAULT, 2, 0);
+            fail("An engine with no lanes was created");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,327 @@
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+/**
+ * Represents a circular list backed by a growable array used as a ring buffer, instead of one node per element.
+ * It keeps the same positions as CircularLinkedList, where position 0 is the most recently added element,
+ * but any position can be read directly without walking the list.
+ * Like CircularLinkedList, its iterators are fail-fast.
+ *
+ * @param <E> the type of elements held in this list
+ */
+public class CircularArrayList<E> implements CircularLinkedListInterface<E> {
+    private static final int DEFAULT_CAPACITY = 8;
+    private Object[] elements;
+    // index of the first (oldest) element; the capacity is always a power of two so indices wrap with a mask
+    private int head;
+    private int size;
+    // the number of times the list has been changed, so that iterators and snapshots can tell
+    private int modCount;
+    private List<E> snapshot;
+    private int snapshotModCount;
+    /**
+     * Constructs an empty CircularArrayList.
+     */
+    public CircularArrayList() {
+        this(DEFAULT_CAPACITY);
+    }
+    /**
+     * Constructs an empty CircularArrayList with room for the given number of elements before it has to grow.
+     *
+     * @param initialCapacity the number of elements the list can hold before growing; must not be negative
+     */
+    public CircularArrayList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Invalid capacity: " + initialCapacity);
+        }
+        int capacity = Integer.highestOneBit(Math.max(initialCapacity - 1, 1)) << 1;
+        elements = new Object[capacity];
+        head = 0;
+        size = 0;
+    }
+    /**
+     * Retrieves a count of elements being maintained by the list.
+     *
+     * @return the size of the list (count of elements)
+     */
+    @Override
+    public int getSize() {
+        return size;
+    }
+    /**
+     * Retrieves the data at the specified position in the list in constant time
+     *
+     * @param position 0-based index for the list; must be in the range 0 to size - 1
+     * @return the data in the specified position in the list
+     */
+    @Override
+    public E get(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Invalid position: " + position);
+        }
+        return elementAt(size - position - 1);
+    }
+
+    /**
+     * Adds a new element to the end of the list, growing the array when it is full
+     *
+     * @param value the element to add to the list
+     */
+    @Override
+    public void add(E value) {
+        if (size == elements.length) {
+            grow();
+        }
+        elements[slot(size)] = value;
+        size++;
+        modCount++;
+    }
+    /**
+     * Removes the specified item from the list, if it exists there.  The elements on the shorter side
+     * of the removed one are shifted over to close the gap.
+     *
+     * @param value the element to remove from the list
+     * @return true, if the element was found and removed; false, if not found or list is empty
+     */
+    @Override
+    public boolean remove(E value) {
+        for (int i = 0; i < size; i++) {
+            if (elementAt(i).equals(value)) {
+                removeAt(i);
+                return true;
+            }
+        }
+        return false;
+    }
+    /**
+     * Checks whether the list holds the specified item.
+     *
+     * @param value the element to look for
+     * @return true, if the element is in the list; false, if not
+     */
+    @Override
+    public boolean contains(E value) {
+        for (int i = 0; i < size; i++) {
+            if (elementAt(i).equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    /**
+     * Removes the element at the specified position in the list.  The elements on the shorter side
+     * of the removed one are shifted over to close the gap.
+     *
+     * @param position position in the list; must be in range 0 to size - 1
+     */
+    @Override
+    public void remove(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Invalid position: " + position);
+        }
+        removeAt(size - position - 1);
+    }
+    /**
+     * Retrieves a fail-fast iterator over the list's elements.  Its remove method shifts the elements
+     * on the shorter side of the removed one; changing the list in any other way during iteration makes
+     * the iterator throw a ConcurrentModificationException
+     *
+     * @return a strongly typed iterator over elements in the list
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new CircularArrayIterator();
+    }
+    /**
+     * Retrieves a read-only copy of the list's elements, in iteration order.  The copy is made only if
+     * the list has changed since the last snapshot; otherwise the last snapshot is returned again
+     *
+     * @return an unmodifiable list of the elements
+     */
+    @Override
+    public List<E> snapshot() {
+        if (snapshot == null || snapshotModCount != modCount) {
+            Object[] copy = new Object[size];
+            int firstPart = Math.min(size, elements.length - head);
+            System.arraycopy(elements, head, copy, 0, firstPart);
+            System.arraycopy(elements, 0, copy, firstPart, size - firstPart);
+            @SuppressWarnings("unchecked")
+            List<E> view = (List<E>) Collections.unmodifiableList(Arrays.asList(copy));
+            snapshot = view;
+            snapshotModCount = modCount;
+        }
+        return snapshot;
+    }
+    /**
+     * Retrieves a cursor positioned on the first element of the list.  Moving the cursor takes constant time;
+     * removing or inserting at its position shifts the elements on the shorter side
+     *
+     * @return a strongly typed cursor over elements in the list
+     */
+    @Override
+    public Cursor<E> cursor() {
+        return new CircularArrayCursor();
+    }
+
+    /**
+     * Converts an index counted from the oldest element into a slot in the array.
+     */
+    private int slot(int index) {
+        return (head + index) & (elements.length - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private E elementAt(int index) {
+        return (E) elements[slot(index)];
+    }
+
+    /**
+     * Doubles the array, copying the elements so that the oldest one is back in slot 0.
+     */
+    private void grow() {
+        Object[] larger = new Object[elements.length << 1];
+        int firstPart = Math.min(size, elements.length - head);
+        System.arraycopy(elements, head, larger, 0, firstPart);
+        System.arraycopy(elements, 0, larger, firstPart, size - firstPart);
+        elements = larger;
+        head = 0;
+    }
+
+    /**
+     * Removes the element at the given index counted from the oldest element, compacting the array by moving
+     * whichever side of the gap holds fewer elements.
+     *
+     * @param index the index of the element, counted from the oldest element
+     * @return the removed element
+     */
+    private E removeAt(int index) {
+        E removed = elementAt(index);
+        if (index < size - index - 1) {
+            for (int i = index; i > 0; i--) {
+                elements[slot(i)] = elements[slot(i - 1)];
+            }
+            elements[head] = null;
+            head = slot(1);
+        } else {
+            for (int i = index; i < size - 1; i++) {
+                elements[slot(i)] = elements[slot(i + 1)];
+            }
+            elements[slot(size - 1)] = null;
+        }
+        size--;
+        modCount++;
+        return removed;
+    }
+
+    /**
+     * Inserts an element at the given index counted from the oldest element, moving whichever side
+     * holds fewer elements to make room.
+     *
+     * @param index the index the new element will have, counted from the oldest element
+     * @param value the element to insert
+     */
+    private void insertAt(int index, E value) {
+        if (size == elements.length) {
+            grow();
+        }
+        if (index < size - index) {
+            head = slot(elements.length - 1);
+            for (int i = 0; i < index; i++) {
+                elements[slot(i)] = elements[slot(i + 1)];
+            }
+        } else {
+            for (int i = size; i > index; i--) {
+                elements[slot(i)] = elements[slot(i - 1)];
+            }
+        }
+        elements[slot(index)] = value;
+        size++;
+        modCount++;
+    }
+
+    private class CircularArrayIterator implements Iterator<E> {
+        private int index = 0;
+        // index of the element returned last, or -1 if there is nothing to remove
+        private int lastIndex = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        @Override
+        public E next() {
+            checkForComodification();
+            if (index >= size) {
+                throw new NoSuchElementException();
+            }
+            lastIndex = index;
+            return elementAt(index++);
+        }
+
+        @Override
+        public void remove() {
+            if (lastIndex < 0) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            removeAt(lastIndex);
+            index = lastIndex;
+            lastIndex = -1;
+            expectedModCount = modCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    private class CircularArrayCursor implements Cursor<E> {
+        // index of the current element, counted from the oldest element
+        private int index = 0;
+
+        private void checkNotEmpty() {
+            if (size == 0) {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public E current() {
+            checkNotEmpty();
+            return elementAt(index);
+        }
+
+        @Override
+        public void advance() {
+            checkNotEmpty();
+            index = index + 1 == size ? 0 : index + 1;
+        }
+
+        @Override
+        public E removeCurrent() {
+            checkNotEmpty();
+            E removed = removeAt(index);
+            if (index == size) {
+                index = 0;
+            }
+            return removed;
+        }
+
+        @Override
+        public void insertAfterCurrent(E value) {
+            if (size == 0) {
+                add(value);
+                index = 0;
+                return;
+            }
+            insertAt(index + 1, value);
+        }
+    }
+}
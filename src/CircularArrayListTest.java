@@ -0,0 +1,61 @@
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+/**
+ * This class runs the CircularLinkedList unit tests against the array-backed CircularArrayList,
+ * and adds tests for growing the array and closing gaps after removals.
+ */
+public class CircularArrayListTest extends CircularLinkedListTest {
+
+    /**
+     * Creates an empty CircularArrayList with a small capacity, so that the tests also exercise growing.
+     *
+     * @return a new, empty list
+     */
+    @Override
+    protected CircularLinkedListInterface<String> createList() {
+        return new CircularArrayList<>(2);
+    }
+    /**
+     * Tests adding more elements than the initial capacity after the ring has wrapped around the array.
+     * Validates that every element keeps its position.
+     */
+    @Test
+    public void testGrowAfterWrapping() {
+        CircularArrayList<String> list = new CircularArrayList<>(4);
+        list.add("A");
+        list.add("B");
+        list.add("C");
+        list.remove("A");
+        list.remove("B");
+        list.add("D");
+        list.add("E");
+        list.add("F"); // wraps around the end of the array
+        list.add("G"); // grows the array
+
+        assertEquals(5, list.getSize());
+        String[] expected = {"G", "F", "E", "D", "C"};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], list.get(i));
+        }
+    }
+    /**
+     * Tests removing elements from both halves of the list.
+     * Validates that the remaining elements close the gap in order.
+     */
+    @Test
+    public void testRemoveCompacts() {
+        CircularArrayList<String> list = new CircularArrayList<>();
+        for (String value : new String[]{"A", "B", "C", "D", "E", "F"}) {
+            list.add(value);
+        }
+        assertTrue(list.remove("B")); // near the oldest end
+        list.remove(1); // "E", near the newest end
+
+        String[] expected = {"F", "D", "C", "A"};
+        assertEquals(expected.length, list.getSize());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], list.get(i));
+        }
+    }
+}
@@ -1,14 +1,62 @@
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 /**
  * Represents a circular linked list where the last element is connected back to the first element.
  * This implementation provides basic operations such as add, remove, and get on the circular linked list.
+ * Its iterators are fail-fast: every change to the list counts as a modification, and an iterator throws
+ * ConcurrentModificationException if the list was modified other than through its own remove method.
+ * The list can keep an index from each value to the node before it, so that remove(E) and contains(E) take
+ * constant time instead of scanning the list; it costs a hash map entry per element, so it is off by default.
+ * When GameMetrics are enabled, the number of nodes each search by position or value goes through is recorded.
  *
  * @param <E> the type of elements held in this list
  */
 public class CircularLinkedList<E> implements CircularLinkedListInterface<E> {
     private Node<E> tail;
     private int size;
+    // the number of times the list has been changed, so that iterators and snapshots can tell
+    private int modCount;
+    private List<E> snapshot;
+    private int snapshotModCount;
+    // value -> the node before it, or null when the list has no index
+    private final Map<E, IndexEntry<E>> index;
+    private final boolean identity;
+    /**
+     * The ways a list can find its elements by value.
+     */
+    public enum IndexMode {
+        /** No index; remove(E) and contains(E) scan the list comparing with equals. */
+        NONE,
+        /** An index that finds elements equal to the given value, as a HashMap would. */
+        EQUALITY,
+        /** An index that finds elements that are the given object itself, as an IdentityHashMap would. */
+        IDENTITY
+    }
+    /**
+     * The index entry of a value: how many times it is in the list and the node before its only occurrence.
+     * While a value is in the list more than once, the node is not kept and the list is scanned instead.
+     */
+    private static class IndexEntry<E> {
+        int count;
+        // the node before the value's only node, or null if unknown
+        Node<E> previous;
+
+        IndexEntry(Node<E> previous) {
+            this.count = 1;
+            this.previous = previous;
+        }
+    }
     /**
      * A static inner class representing a node in the linked list.
      * Each node holds data and a reference to the next node in the list.
@@ -32,8 +80,30 @@ public class CircularLinkedList<E> implements CircularLinkedListInterface<E> {
      * Constructs an empty CircularLinkedList.
      */
     public CircularLinkedList() {
+        this(IndexMode.NONE);
+    }
+    /**
+     * Constructs an empty CircularLinkedList that finds its elements by value in the given way.
+     * An EQUALITY or IDENTITY index makes remove(E) and contains(E) take constant time for values that
+     * are in the list once, which suits large rosters of distinct players; with IDENTITY, both methods
+     * match only the very same object rather than an equal one.
+     *
+     * @param indexMode how the list finds its elements by value
+     */
+    public CircularLinkedList(IndexMode indexMode) {
         tail = null;
         size = 0;
+        switch (indexMode) {
+            case EQUALITY:
+                index = new HashMap<>();
+                break;
+            case IDENTITY:
+                index = new IdentityHashMap<>();
+                break;
+            default:
+                index = null;
+        }
+        identity = indexMode == IndexMode.IDENTITY;
     }
     /**
      * Retrieves a count of elements being maintained by the list.
@@ -59,6 +129,9 @@ public class CircularLinkedList<E> implements CircularLinkedListInterface<E> {
         for (int i = 0; i <= size - position - 1; i++) {
             current = current.next;
         }
+        if (GameMetrics.ENABLED) {
+            GameMetrics.listSearched(size - position);
+        }
         return current.data;
     }
 
@@ -77,9 +150,93 @@ public class CircularLinkedList<E> implements CircularLinkedListInterface<E> {
             newNode.next = tail.next;
             tail.next = newNode;
         }
+        if (index != null) {
+            indexInserted(tail == null ? newNode : tail);
+        }
         tail = newNode;
 
         size++;
+        modCount++;
+    }
+    /**
+     * Adds all the given elements to the end of the list, in the order the collection returns them.
+     * Without an index, the new nodes are linked to each other first and the whole chain is then spliced
+     * in after the last element at once
+     *
+     * @param values the elements to add to the list
+     * @return true, if the list changed; false, if there were no elements to add
+     */
+    @Override
+    public boolean addAll(Collection<? extends E> values) {
+        if (index != null) {
+            return CircularLinkedListInterface.super.addAll(values);
+        }
+        Node<E> first = null;
+        Node<E> last = null;
+        int count = 0;
+        for (E value : values) {
+            Node<E> newNode = new Node<>(value, null);
+            if (first == null) {
+                first = newNode;
+            } else {
+                last.next = newNode;
+            }
+            last = newNode;
+            count++;
+        }
+        if (count == 0) {
+            return false;
+        }
+
+        if (tail == null) {
+            last.next = first;
+        } else {
+            last.next = tail.next;
+            tail.next = first;
+        }
+        tail = last;
+
+        size += count;
+        modCount++;
+        return true;
+    }
+    /**
+     * Removes every element that matches the given condition in a single pass around the list.
+     *
+     * @param filter the condition that elements to remove match
+     * @return true, if any element was removed; false, if none matched
+     */
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        boolean removed = false;
+        Node<E> previous = tail;
+        for (int remaining = size; remaining > 0; remaining--) {
+            if (filter.test(previous.next.data)) {
+                unlinkAfter(previous);
+                removed = true;
+            } else {
+                previous = previous.next;
+            }
+        }
+        return removed;
+    }
+    /**
+     * Performs the given action on every element, in iteration order, without creating an iterator.
+     *
+     * @param action the action to perform on each element
+     * @throws ConcurrentModificationException if the action changes the list
+     */
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        int expectedModCount = modCount;
+        Node<E> current = tail;
+        for (int i = 0; i < size && modCount == expectedModCount; i++) {
+            current = current.next;
+            action.accept(current.data);
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
     }
     /**
      * Removes the specified item from the list, if it exists there.
@@ -91,31 +248,62 @@ public class CircularLinkedList<E> implements CircularLinkedListInterface<E> {
     public boolean remove(E value) {
         if (tail == null) return false;
 
-        Node<E> current = tail;
-        Node<E> previous = null;
-        boolean found = false;
-
+        Node<E> previous = findPrevious(value);
+        if (previous == null) {
+            return false;
+        }
+        unlinkAfter(previous);
+        return true;
+    }
+    /**
+     * Checks whether the list holds the specified item.
+     *
+     * @param value the element to look for
+     * @return true, if the element is in the list; false, if not
+     */
+    @Override
+    public boolean contains(E value) {
+        if (index != null) {
+            return index.containsKey(value);
+        }
+        return tail != null && findPrevious(value) != null;
+    }
+    /**
+     * Finds the node before the first occurrence of a value, through the index when the value is in the
+     * list once and by scanning the list otherwise.
+     *
+     * @param value the element to look for
+     * @return the node before the element, or null if it is not in the list
+     */
+    private Node<E> findPrevious(E value) {
+        IndexEntry<E> entry = null;
+        if (index != null) {
+            entry = index.get(value);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.previous != null) {
+                return entry.previous;
+            }
+        }
+        Node<E> previous = tail;
         for (int i = 0; i < size; i++) {
-            if (current.next.data.equals(value)) {
-                found = true;
-                break;
+            E data = previous.next.data;
+            if (identity ? data == value : data.equals(value)) {
+                if (entry != null && entry.count == 1) {
+                    entry.previous = previous;
+                }
+                if (GameMetrics.ENABLED) {
+                    GameMetrics.listSearched(i + 1);
+                }
+                return previous;
             }
-            previous = current;
-            current = current.next;
+            previous = previous.next;
         }
-
-        if (!found) return false;
-
-        if (previous == null) {
-            tail.next = current.next.next;
-            if (size == 1) tail = null;
-        } else {
-            previous.next = current.next.next;
-            if (current == tail) tail = previous;
+        if (GameMetrics.ENABLED) {
+            GameMetrics.listSearched(size);
         }
-
-        size--;
-        return true;
+        return null;
     }
     /**
      * Removes the node at the specified position in the list
@@ -127,25 +315,87 @@ public class CircularLinkedList<E> implements CircularLinkedListInterface<E> {
             throw new IndexOutOfBoundsException("Invalid position: " + position);
         }
 
-        Node<E> current = tail;
-        Node<E> previous = null;
-
-        for (int i = 0; i < size - position; i++) {
-            previous = current;
-            current = current.next;
+        Node<E> previous = tail;
+        for (int i = 0; i < size - position - 1; i++) {
+            previous = previous.next;
         }
-
-        if (position == size - 1) {
-            tail = previous;
+        if (GameMetrics.ENABLED) {
+            GameMetrics.listSearched(size - position - 1);
+        }
+        unlinkAfter(previous);
+    }
+    /**
+     * Unlinks the node that follows the given node, moving the tail back if the tail is removed.
+     *
+     * @param previous the node just before the node to remove
+     * @return the data of the removed node
+     */
+    private E unlinkAfter(Node<E> previous) {
+        Node<E> removed = previous.next;
+        if (removed == previous) {
+            tail = null;
+        } else {
+            previous.next = removed.next;
+            if (removed == tail) tail = previous;
+        }
+        if (index != null) {
+            indexRemoved(previous, removed);
         }
-
-        previous.next = current.next;
 
         size--;
+        modCount++;
+        return removed.data;
+    }
+    /**
+     * Updates the index after a node has been linked in.
+     *
+     * @param previous the node before the new node, which is the new node itself if it is the only one
+     */
+    private void indexInserted(Node<E> previous) {
+        Node<E> added = previous.next;
+        IndexEntry<E> entry = index.get(added.data);
+        if (entry == null) {
+            index.put(added.data, new IndexEntry<>(previous));
+        } else {
+            entry.count++;
+            entry.previous = null;
+        }
+        if (added.next != added) {
+            indexLinked(added); // the node after the new one has a new previous node
+        }
     }
     /**
-     * Retrieves an iterator over the list's elements.  Do not do other list operations like add or remove
-     * from within an iterator loop; the results are not guaranteed to function as you might expect
+     * Updates the index after a node has been unlinked.
+     *
+     * @param previous the node that was before the removed node
+     * @param removed  the removed node
+     */
+    private void indexRemoved(Node<E> previous, Node<E> removed) {
+        IndexEntry<E> entry = index.get(removed.data);
+        if (--entry.count == 0) {
+            index.remove(removed.data);
+        } else {
+            entry.previous = null; // found again by the next scan for the value
+        }
+        if (previous != removed) {
+            indexLinked(previous); // the node after the removed one has a new previous node
+        }
+    }
+    /**
+     * Records in the index that the given node is now the node before the next one.
+     *
+     * @param previous the node before the node whose entry changes
+     */
+    private void indexLinked(Node<E> previous) {
+        IndexEntry<E> entry = index.get(previous.next.data);
+        if (entry.count == 1) {
+            entry.previous = previous;
+        }
+    }
+    /**
+     * Retrieves a fail-fast iterator over the list's elements.  Its remove method unlinks the element
+     * it returned last in constant time; changing the list in any other way during iteration makes
+     * the iterator throw a ConcurrentModificationException
      *
      * @return a strongly typed iterator over elements in the list
      */
@@ -154,17 +404,58 @@ public class CircularLinkedList<E> implements CircularLinkedListInterface<E> {
         return new CircularListIterator();
     }
 
-    private class CircularListIterator implements Iterator<E> {
-        private Node<E> nextNode;
-        private int remaining = size;
+    /**
+     * Retrieves a fail-fast spliterator over the list's elements that knows its size and splits into halves,
+     * so that parallel streams share the list evenly between cores
+     *
+     * @return a spliterator over elements in the list
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return new CircularListSpliterator(tail, size, modCount);
+    }
 
-        CircularListIterator() {
-            if (tail == null) {
-                nextNode = null;
-            } else {
-                nextNode = tail.next;
+    /**
+     * Retrieves a read-only copy of the list's elements, in iteration order.  The copy is made only if
+     * the list has changed since the last snapshot; otherwise the last snapshot is returned again
+     *
+     * @return an unmodifiable list of the elements
+     */
+    @Override
+    public List<E> snapshot() {
+        if (snapshot == null || snapshotModCount != modCount) {
+            Object[] elements = new Object[size];
+            Node<E> current = tail;
+            for (int i = 0; i < size; i++) {
+                current = current.next;
+                elements[i] = current.data;
             }
+            @SuppressWarnings("unchecked")
+            List<E> copy = (List<E>) Collections.unmodifiableList(Arrays.asList(elements));
+            snapshot = copy;
+            snapshotModCount = modCount;
         }
+        return snapshot;
+    }
+
+    /**
+     * Retrieves a cursor positioned on the first element of the list.  Moving the cursor and
+     * removing or inserting at its position all take constant time
+     *
+     * @return a strongly typed cursor over elements in the list
+     */
+    @Override
+    public Cursor<E> cursor() {
+        return new CircularListCursor();
+    }
+
+    private class CircularListIterator implements Iterator<E> {
+        // the node before the next one to return, trailing the iteration so that remove can unlink in place
+        private Node<E> previous = tail;
+        // the node before the one returned last, or null if there is nothing to remove
+        private Node<E> lastPrevious;
+        private int remaining = size;
+        private int expectedModCount = modCount;
 
         @Override
         public boolean hasNext() {
@@ -173,18 +464,158 @@ public class CircularLinkedList<E> implements CircularLinkedListInterface<E> {
 
         @Override
         public E next() {
+            checkForComodification();
             if (remaining == 0) {
                 throw new NoSuchElementException();
             }
-            E item = nextNode.data;
-            if (nextNode.next == tail.next) {
-                nextNode = tail.next;
-            } else {
-                nextNode = nextNode.next;
+            lastPrevious = previous;
+            previous = previous.next;
+
+            remaining--;
+            return previous.data;
+        }
+
+        @Override
+        public void remove() {
+            if (lastPrevious == null) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            unlinkAfter(lastPrevious);
+            previous = lastPrevious;
+            lastPrevious = null;
+            expectedModCount = modCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
             }
+        }
+    }
+
+    private class CircularListSpliterator implements Spliterator<E> {
+        // below this many elements, splitting costs more than it saves
+        private static final int MIN_SPLIT = 64;
+        // the node before the next one to return
+        private Node<E> previous;
+        private int remaining;
+        private final int expectedModCount;
+
+        CircularListSpliterator(Node<E> previous, int remaining, int expectedModCount) {
+            this.previous = previous;
+            this.remaining = remaining;
+            this.expectedModCount = expectedModCount;
+        }
 
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            if (remaining == 0) {
+                return false;
+            }
+            checkForComodification();
+            previous = previous.next;
             remaining--;
-            return item;
+            action.accept(previous.data);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            Node<E> current = previous;
+            for (; remaining > 0; remaining--) {
+                current = current.next;
+                action.accept(current.data);
+            }
+            previous = current;
+            checkForComodification();
+        }
+
+        /**
+         * Splits off the first half of the remaining elements, walking past them to the start of the second half.
+         */
+        @Override
+        public Spliterator<E> trySplit() {
+            if (remaining < MIN_SPLIT) {
+                return null;
+            }
+            checkForComodification();
+            int half = remaining >>> 1;
+            Spliterator<E> prefix = new CircularListSpliterator(previous, half, expectedModCount);
+            for (int i = 0; i < half; i++) {
+                previous = previous.next;
+            }
+            remaining -= half;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return remaining;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    private class CircularListCursor implements Cursor<E> {
+        // the node before the current one, so that the current node can be unlinked
+        private Node<E> previous = tail;
+
+        private Node<E> previous() {
+            if (tail == null) {
+                throw new NoSuchElementException();
+            }
+            if (previous == null) {
+                previous = tail;
+            }
+            return previous;
+        }
+
+        @Override
+        public E current() {
+            return previous().next.data;
+        }
+
+        @Override
+        public void advance() {
+            previous = previous().next;
+        }
+
+        @Override
+        public E removeCurrent() {
+            Node<E> before = previous();
+            E removed = unlinkAfter(before);
+            previous = tail == null ? null : before;
+            return removed;
+        }
+
+        @Override
+        public void insertAfterCurrent(E value) {
+            if (tail == null) {
+                add(value);
+                previous = tail;
+                return;
+            }
+            Node<E> current = previous().next;
+            Node<E> newNode = new Node<>(value, current.next);
+            current.next = newNode;
+            if (index != null) {
+                indexInserted(current);
+            }
+            if (current == tail) tail = newNode;
+            if (previous == current) previous = newNode; // a single element was its own previous node
+
+            size++;
+            modCount++;
         }
     }
 
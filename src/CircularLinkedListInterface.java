@@ -1,10 +1,16 @@
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Requirements for CircularLinkedList class
  */
-public interface CircularLinkedListInterface<E> {
+public interface CircularLinkedListInterface<E> extends Iterable<E> {
 
     // should have a single no-parameter constructor
 
@@ -30,6 +36,58 @@ public interface CircularLinkedListInterface<E> {
      */
     public void add(E value);
 
+    /**
+     * Adds all the given elements to the end of the list, in the order the collection returns them.
+     * By default this adds them one at a time
+     *
+     * @param values the elements to add to the list
+     * @return true, if the list changed; false, if there were no elements to add
+     */
+    public default boolean addAll(Collection<? extends E> values) {
+        for (E value : values) {
+            add(value);
+        }
+        return !values.isEmpty();
+    }
+
+    /**
+     * Removes every element that matches the given condition.  By default this removes them one at a time
+     * through the iterator
+     *
+     * @param filter the condition that elements to remove match
+     * @return true, if any element was removed; false, if none matched
+     */
+    public default boolean removeIf(Predicate<? super E> filter) {
+        boolean removed = false;
+        Iterator<E> iterator = iterator();
+        while (iterator.hasNext()) {
+            if (filter.test(iterator.next())) {
+                iterator.remove();
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Retrieves a sequential stream over the list's elements, in the same order as the iterator returns them.
+     *
+     * @return a stream of the elements
+     */
+    public default Stream<E> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Retrieves a parallel stream over the list's elements.  How well the work is shared between cores
+     * depends on how well the list's spliterator splits.
+     *
+     * @return a possibly parallel stream of the elements
+     */
+    public default Stream<E> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
     /**
      * Removes the specified item from the list, if it exists there.
      *
@@ -38,6 +96,14 @@ public interface CircularLinkedListInterface<E> {
      */
     public boolean remove(E value);
 
+    /**
+     * Checks whether the list holds the specified item.
+     *
+     * @param value the element to look for
+     * @return true, if the element is in the list; false, if not
+     */
+    public boolean contains(E value);
+
     /**
      * Removes the node at the specified position in the list
      * @param position position in the list; must be in range 0 to size - 1
@@ -45,11 +111,74 @@ public interface CircularLinkedListInterface<E> {
     public void remove(int position);
 
     /**
-     * Retrieves an iterator over the list's elements.  Do not do other list operations like add or remove
-     * from within an iterator loop; the results are not guaranteed to function as you might expect
+     * Retrieves an iterator over the list's elements.  Elements can be removed from within an iterator loop
+     * with the iterator's remove method; changing the list in any other way during the loop makes the
+     * iterator throw a ConcurrentModificationException, unless the list is thread-safe, in which case its
+     * iterators are weakly consistent instead
      *
      * @return a strongly typed iterator over elements in the list
+     * @see ConcurrentModificationException
      */
     public Iterator<E> iterator();
 
+    /**
+     * Retrieves a read-only copy of the list's elements, in the same order as the iterator returns them.
+     * Later changes to the list do not change the copy, so it can be looped over while the list is changed.
+     * Lists that are not thread-safe copy their elements only when they have changed since the
+     * last snapshot, so taking a snapshot of an unchanged list is free
+     *
+     * @return an unmodifiable list of the elements
+     */
+    public List<E> snapshot();
+
+    /**
+     * Retrieves a cursor positioned on the first element of the list, for going around the list
+     * one element at a time.  Unlike get, moving the cursor does not walk the list from the start,
+     * so going around the whole list costs one step per element.  Do not change the list other than
+     * through the cursor while using it; the results are not guaranteed to function as you might expect
+     *
+     * @return a strongly typed cursor over elements in the list
+     */
+    public Cursor<E> cursor();
+
+    /**
+     * A position in a circular list that can move around the list and change it at that position.
+     * Since the list is circular, advancing past the last element returns to the first one.
+     *
+     * @param <E> the type of elements held in the list
+     */
+    public interface Cursor<E> {
+
+        /**
+         * Retrieves the element at the cursor's position
+         *
+         * @return the current element
+         * @throws NoSuchElementException if the list is empty
+         */
+        public E current();
+
+        /**
+         * Moves the cursor to the next element; from the last element it moves back to the first
+         *
+         * @throws NoSuchElementException if the list is empty
+         */
+        public void advance();
+
+        /**
+         * Removes the element at the cursor's position; the cursor moves on to the element after it
+         *
+         * @return the removed element
+         * @throws NoSuchElementException if the list is empty
+         */
+        public E removeCurrent();
+
+        /**
+         * Inserts a new element right after the cursor's position; the cursor does not move.
+         * If the list is empty, the new element becomes the only element and the cursor's position
+         *
+         * @param value the element to add to the list
+         */
+        public void insertAfterCurrent(E value);
+    }
+
 }
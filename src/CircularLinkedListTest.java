@@ -1,7 +1,14 @@
 import org.junit.Before;
 import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.*;
 /**
@@ -11,14 +18,23 @@ import static org.junit.Assert.*;
  */
 public class CircularLinkedListTest {
 
-    private CircularLinkedList<String> list;
+    private CircularLinkedListInterface<String> list;
     /**
      * Sets up the test environment before each test method.
      * Initializes a new CircularLinkedList instance.
      */
     @Before
     public void setUp() {
-        list = new CircularLinkedList<>();
+        list = createList();
+    }
+    /**
+     * Creates the empty list under test.  Tests for other implementations of
+     * CircularLinkedListInterface extend this class and override this method.
+     *
+     * @return a new, empty list
+     */
+    protected CircularLinkedListInterface<String> createList() {
+        return new CircularLinkedList<>();
     }
     /**
      * Tests if a new CircularLinkedList instance is empty.
@@ -76,6 +92,26 @@ public class CircularLinkedListTest {
         assertEquals(1, list.getSize());
         assertFalse(list.remove("D"));
     }
+    /**
+     * Tests looking for elements by their value.
+     * Checks that contains follows additions and removals, including repeated values.
+     */
+    @Test
+    public void testContains() {
+        assertFalse(list.contains("A"));
+        list.add("A");
+        list.add("B");
+        list.add("A");
+        assertTrue(list.contains("A"));
+        assertTrue(list.contains("B"));
+        assertFalse(list.contains("C"));
+
+        list.remove("A");
+        assertTrue(list.contains("A")); // the second "A" is still there
+        list.remove("A");
+        assertFalse(list.contains("A"));
+        assertTrue(list.contains("B"));
+    }
     /**
      * Tests removing elements by their index.
      * Validates the size of the list after removal and handles edge cases.
@@ -151,6 +187,183 @@ public class CircularLinkedListTest {
         Iterator<String> iterator = list.iterator();
         assertFalse(iterator.hasNext());
     }
+    /**
+     * Tests removing elements through the iterator while iterating.
+     * Checks that the remaining elements keep their order and the iterator carries on after each removal.
+     */
+    @Test
+    public void testIteratorRemove() {
+        list.add("A");
+        list.add("B");
+        list.add("C");
+        list.add("D");
+
+        Iterator<String> iterator = list.iterator();
+        while (iterator.hasNext()) {
+            String element = iterator.next();
+            if (element.equals("B") || element.equals("D")) {
+                iterator.remove();
+            }
+        }
+        assertEquals(2, list.getSize());
+        assertEquals("C", list.get(0));
+        assertEquals("A", list.get(1));
+
+        iterator = list.iterator();
+        while (iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+        assertEquals(0, list.getSize());
+        list.add("E"); // the list still works after being emptied by the iterator
+        assertEquals("E", list.get(0));
+    }
+    /**
+     * Tests calling the iterator's remove method before next.
+     * Expects an IllegalStateException to be thrown.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testIteratorRemoveBeforeNext() {
+        list.add("A");
+        list.iterator().remove();
+    }
+    /**
+     * Tests changing the list other than through the iterator during iteration.
+     * Expects the iterator to fail fast with a ConcurrentModificationException.
+     */
+    @Test(expected = ConcurrentModificationException.class)
+    public void testIteratorFailFast() {
+        list.add("A");
+        list.add("B");
+
+        Iterator<String> iterator = list.iterator();
+        iterator.next();
+        list.add("C");
+        iterator.next(); // should throw ConcurrentModificationException
+    }
+    /**
+     * Tests that a snapshot holds the elements in iteration order and is not affected by later changes.
+     * Also checks that the snapshot cannot be modified.
+     */
+    @Test
+    public void testSnapshot() {
+        list.add("A");
+        list.add("B");
+
+        List<String> snapshot = list.snapshot();
+        assertEquals(Arrays.asList("A", "B"), snapshot);
+        for (String element : snapshot) {
+            list.remove(element); // changing the list while looping over a snapshot is fine
+        }
+        list.add("C");
+        assertEquals(Arrays.asList("A", "B"), snapshot);
+        assertEquals(Arrays.asList("C"), list.snapshot());
+        try {
+            snapshot.add("D");
+            fail("A snapshot should not be modifiable");
+        } catch (UnsupportedOperationException e) {
+            // Expected exception
+        }
+    }
+    /**
+     * Tests that taking a snapshot of an unchanged list returns the previous snapshot instead of a new copy.
+     */
+    @Test
+    public void testSnapshotReused() {
+        list.add("A");
+        List<String> snapshot = list.snapshot();
+        assertSame(snapshot, list.snapshot());
+
+        list.add("B");
+        assertNotSame(snapshot, list.snapshot());
+    }
+    /**
+     * Tests adding several elements at once, to an empty list and to the end of a list.
+     * Checks the order of the elements and that the list stays circular.
+     */
+    @Test
+    public void testAddAll() {
+        assertFalse(list.addAll(Collections.emptyList()));
+        assertTrue(list.addAll(Arrays.asList("A", "B")));
+        assertTrue(list.addAll(Arrays.asList("C", "D", "E")));
+
+        assertEquals(5, list.getSize());
+        assertEquals(Arrays.asList("A", "B", "C", "D", "E"), list.snapshot());
+        assertEquals("E", list.get(0));
+        CircularLinkedListInterface.Cursor<String> cursor = list.cursor();
+        for (int i = 0; i < 5; i++) {
+            cursor.advance();
+        }
+        assertEquals("A", cursor.current()); // wraps back to the first element
+        list.add("F");
+        assertEquals("F", list.get(0));
+    }
+    /**
+     * Tests removing every element that matches a condition.
+     * Checks that the others keep their order, including when the first and last elements are removed.
+     */
+    @Test
+    public void testRemoveIf() {
+        list.addAll(Arrays.asList("x1", "A", "x2", "x3", "B", "x4"));
+
+        assertTrue(list.removeIf(element -> element.startsWith("x")));
+        assertEquals(Arrays.asList("A", "B"), list.snapshot());
+        assertEquals("B", list.get(0));
+        assertFalse(list.removeIf(element -> element.startsWith("x")));
+
+        assertTrue(list.removeIf(element -> true));
+        assertEquals(0, list.getSize());
+        list.add("C");
+        assertEquals("C", list.get(0));
+    }
+    /**
+     * Tests performing an action on every element with forEach.
+     * Checks that the elements are visited in iteration order.
+     */
+    @Test
+    public void testForEach() {
+        list.addAll(Arrays.asList("A", "B", "C"));
+        List<String> visited = new ArrayList<>();
+        list.forEach(visited::add);
+        assertEquals(Arrays.asList("A", "B", "C"), visited);
+    }
+    /**
+     * Tests sequential and parallel streams over a list large enough to be split.
+     * Checks that both see every element once and keep the iteration order.
+     */
+    @Test
+    public void testStreams() {
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            expected.add("E" + i);
+        }
+        list.addAll(expected);
+
+        assertEquals(expected, list.stream().collect(Collectors.toList()));
+        assertEquals(expected, list.parallelStream().collect(Collectors.toList()));
+        assertEquals(10000, list.parallelStream().filter(element -> element.startsWith("E")).count());
+    }
+    /**
+     * Tests that the spliterator of a CircularLinkedList knows its size and splits into halves.
+     */
+    @Test
+    public void testSpliteratorSplits() {
+        CircularLinkedList<Integer> numbers = new CircularLinkedList<>();
+        for (int i = 0; i < 1000; i++) {
+            numbers.add(i);
+        }
+        Spliterator<Integer> second = numbers.spliterator();
+        assertTrue(second.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        Spliterator<Integer> first = second.trySplit();
+        assertEquals(500, first.estimateSize());
+        assertEquals(500, second.estimateSize());
+
+        int[] sums = new int[2];
+        first.forEachRemaining(number -> sums[0] += number);
+        second.forEachRemaining(number -> sums[1] += number);
+        assertEquals(499 * 500 / 2, sums[0]);
+        assertEquals(999 * 1000 / 2 - 499 * 500 / 2, sums[1]);
+    }
     /**
      * Tests the update of the tail element after removal in a CircularLinkedList.
      * Checks if the tail is updated correctly after an element is removed.
@@ -196,4 +409,92 @@ public class CircularLinkedListTest {
         assertTrue(list.remove("A"));
         assertFalse(list.remove("A")); // Test removing an already removed element
     }
+    /**
+     * Tests removing the most recently added element by value and by index.
+     * Checks that the remaining elements keep their order and the list stays circular.
+     */
+    @Test
+    public void testRemoveTail() {
+        list.add("A");
+        list.add("B");
+        list.add("C");
+
+        assertTrue(list.remove("C"));
+        assertEquals(2, list.getSize());
+        assertEquals("B", list.get(0));
+        assertEquals("A", list.get(1));
+
+        list.remove(0);
+        list.add("D");
+        assertEquals(2, list.getSize());
+        assertEquals("D", list.get(0));
+        assertEquals("A", list.get(1));
+    }
+    /**
+     * Tests going around the list with a cursor.
+     * Validates that the cursor starts at the first element and wraps around after the last.
+     */
+    @Test
+    public void testCursorAdvance() {
+        list.add("A");
+        list.add("B");
+        list.add("C");
+
+        CircularLinkedListInterface.Cursor<String> cursor = list.cursor();
+        assertEquals("A", cursor.current());
+        cursor.advance();
+        assertEquals("B", cursor.current());
+        cursor.advance();
+        assertEquals("C", cursor.current());
+        cursor.advance();
+        assertEquals("A", cursor.current()); // wraps back to the first element
+    }
+    /**
+     * Tests removing and inserting elements through a cursor.
+     * Validates the cursor's position and the list's contents after each change.
+     */
+    @Test
+    public void testCursorRemoveAndInsert() {
+        list.add("A");
+        list.add("B");
+        list.add("C");
+
+        CircularLinkedListInterface.Cursor<String> cursor = list.cursor();
+        cursor.advance();
+        cursor.advance();
+        assertEquals("C", cursor.removeCurrent());
+        assertEquals("A", cursor.current()); // moves on to the element after the removed one
+        assertEquals(2, list.getSize());
+        assertEquals("B", list.get(0));
+
+        cursor.insertAfterCurrent("D");
+        assertEquals("A", cursor.current());
+        cursor.advance();
+        assertEquals("D", cursor.current());
+        assertEquals(3, list.getSize());
+
+        cursor.advance();
+        cursor.insertAfterCurrent("E"); // after the last element, so it becomes the new last element
+        assertEquals("E", list.get(0));
+        assertEquals(4, list.getSize());
+    }
+    /**
+     * Tests using a cursor on an empty list.
+     * Expects a NoSuchElementException until an element is inserted through the cursor.
+     */
+    @Test
+    public void testCursorEmptyList() {
+        CircularLinkedListInterface.Cursor<String> cursor = list.cursor();
+        try {
+            cursor.current();
+            fail("An empty list should have no current element");
+        } catch (NoSuchElementException e) {
+            // Expected exception
+        }
+
+        cursor.insertAfterCurrent("A");
+        assertEquals("A", cursor.current());
+        assertEquals("A", cursor.removeCurrent());
+        assertEquals(0, list.getSize());
+    }
 }
@@ -0,0 +1,404 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+/**
+ * A thread-safe circular linked list that many threads can read and change at the same time, for example
+ * a table's roster that players join and leave while the game goes around it.
+ * It is a lazy list: a ring of nodes behind a sentinel head node that is never removed. Reads never lock;
+ * they follow volatile next references and skip nodes marked as removed. A change locks only the nodes
+ * it touches, the node before the change and the node removed, and checks that they are still
+ * unmarked and linked before going ahead, retrying otherwise. Adding to the end locks only the last node,
+ * which is found through a tail hint.
+ * An element is in the list from the moment its node is linked until the moment its node is marked,
+ * so add and remove take effect at a single point in time. Iterators and cursors are weakly consistent:
+ * they never throw ConcurrentModificationException, return every element that stays in the list while
+ * they pass it, and may or may not return elements added or removed meanwhile. getSize and positions
+ * are a snapshot that other threads may change right after.
+ *
+ * @param <E> the type of elements held in this list
+ */
+public class ConcurrentCircularList<E> implements CircularLinkedListInterface<E> {
+    private final Node<E> head;
+    // a recent last node; it may be out of date, so writers confirm it under its lock
+    private volatile Node<E> tail;
+    private final AtomicInteger size;
+
+    /**
+     * A node in the ring. Its next reference is only changed while the node is locked,
+     * and a node that has been marked is no longer in the list.
+     */
+    private static class Node<E> {
+        final E data;
+        volatile Node<E> next;
+        volatile boolean marked;
+
+        Node(E data, Node<E> next) {
+            this.data = data;
+            this.next = next;
+        }
+    }
+
+    /**
+     * Constructs an empty ConcurrentCircularList.
+     */
+    public ConcurrentCircularList() {
+        head = new Node<>(null, null);
+        head.next = head;
+        tail = head;
+        size = new AtomicInteger();
+    }
+
+    /**
+     * Retrieves a count of elements being maintained by the list.
+     *
+     * @return the size of the list (count of elements) at the time of the call
+     */
+    @Override
+    public int getSize() {
+        return size.get();
+    }
+
+    /**
+     * Retrieves the data at the specified position in a snapshot of the list, where position 0
+     * is the most recently added element.
+     *
+     * @param position 0-based index for the list; must be in the range 0 to size - 1
+     * @return the data in the specified position in the list
+     */
+    @Override
+    public E get(int position) {
+        List<Node<E>> nodes = liveNodes();
+        if (position < 0 || position >= nodes.size()) {
+            throw new IndexOutOfBoundsException("Invalid position: " + position);
+        }
+        return nodes.get(nodes.size() - position - 1).data;
+    }
+
+    /**
+     * Adds a new node to the end of the list; by nature, this element's next will point to the first element
+     *
+     * @param value the element to add to the list
+     */
+    @Override
+    public void add(E value) {
+        append(value);
+    }
+
+    /**
+     * Removes the first occurrence of the specified item from the list, if it exists there.
+     *
+     * @param value the element to remove from the list
+     * @return true, if this call found and removed the element; false, if not found or list is empty
+     */
+    @Override
+    public boolean remove(E value) {
+        while (true) {
+            Node<E> previous = head;
+            Node<E> current = head.next;
+            while (current != head && !current.data.equals(value)) {
+                previous = current;
+                current = current.next;
+            }
+            if (current == head) {
+                return false;
+            }
+            if (unlink(previous, current)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Checks whether the list holds the specified item at the time the search passes it.
+     *
+     * @param value the element to look for
+     * @return true, if the element is in the list; false, if not
+     */
+    @Override
+    public boolean contains(E value) {
+        for (Node<E> node = head.next; node != head; node = node.next) {
+            if (!node.marked && node.data.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes the node at the specified position in a snapshot of the list
+     * @param position position in the list; must be in range 0 to size - 1
+     */
+    @Override
+    public void remove(int position) {
+        while (true) {
+            List<Node<E>> nodes = liveNodes();
+            if (position < 0 || position >= nodes.size()) {
+                throw new IndexOutOfBoundsException("Invalid position: " + position);
+            }
+            int index = nodes.size() - position - 1;
+            if (unlink(index == 0 ? head : nodes.get(index - 1), nodes.get(index))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Retrieves a weakly consistent iterator over the list's elements.  It may be used while other
+     * threads change the list, and returns every element that stays in the list while it passes.
+     * Its remove method removes the element it returned last, unless another thread already has
+     *
+     * @return a strongly typed iterator over elements in the list
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new ConcurrentListIterator();
+    }
+
+    /**
+     * Retrieves a read-only copy of the list's elements, in iteration order.  Since other threads may
+     * change the list at any time, a new copy is made on every call
+     *
+     * @return an unmodifiable list of the elements
+     */
+    @Override
+    public List<E> snapshot() {
+        List<E> elements = new ArrayList<>(Math.max(size.get(), 0));
+        for (Node<E> node = head.next; node != head; node = node.next) {
+            if (!node.marked) {
+                elements.add(node.data);
+            }
+        }
+        return Collections.unmodifiableList(elements);
+    }
+
+    /**
+     * Retrieves a weakly consistent cursor positioned on the first element of the list.  It may be used while
+     * other threads change the list; if the element at its position is removed by another thread, the cursor
+     * moves on to the next element still in the list
+     *
+     * @return a strongly typed cursor over elements in the list
+     */
+    @Override
+    public Cursor<E> cursor() {
+        return new ConcurrentListCursor();
+    }
+
+    /**
+     * Adds a new node at the end of the list.
+     *
+     * @param value the element to add
+     * @return the new node
+     */
+    private Node<E> append(E value) {
+        while (true) {
+            Node<E> last = tail;
+            if (last.marked) {
+                last = head;
+            }
+            while (last.next != head) {
+                last = last.next;
+            }
+            synchronized (last) {
+                if (!last.marked && last.next == head) {
+                    Node<E> node = new Node<>(value, head);
+                    last.next = node;
+                    tail = node;
+                    size.incrementAndGet();
+                    return node;
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes a node, if it is still in the list right after the given node.
+     *
+     * @param previous the node before the one to remove
+     * @param current  the node to remove
+     * @return true if this call removed the node, false if the list changed and the caller should look again
+     */
+    private boolean unlink(Node<E> previous, Node<E> current) {
+        synchronized (previous) {
+            synchronized (current) {
+                if (previous.marked || current.marked || previous.next != current) {
+                    return false;
+                }
+                current.marked = true; // the node leaves the list here
+                previous.next = current.next;
+                if (tail == current) {
+                    tail = previous;
+                }
+                size.decrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Removes a node, finding the node before it first.
+     *
+     * @param node the node to remove
+     * @return true if this call removed the node, false if another thread removed it first
+     */
+    private boolean unlink(Node<E> node) {
+        while (!node.marked) {
+            Node<E> previous = head;
+            while (previous.next != node && previous.next != head) {
+                previous = previous.next;
+            }
+            if (previous.next == node && unlink(previous, node)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Inserts a new node right after the given node, if it is still in the list.
+     *
+     * @param current the node to insert after
+     * @param value   the element to insert
+     * @return the new node, or null if the given node has been removed
+     */
+    private Node<E> insertAfter(Node<E> current, E value) {
+        synchronized (current) {
+            if (current.marked) {
+                return null;
+            }
+            Node<E> node = new Node<>(value, current.next);
+            current.next = node;
+            if (node.next == head) {
+                tail = node;
+            }
+            size.incrementAndGet();
+            return node;
+        }
+    }
+
+    /**
+     * Collects the nodes in the list, from first to last.
+     *
+     * @return the nodes that were in the list as the walk passed them
+     */
+    private List<Node<E>> liveNodes() {
+        List<Node<E>> nodes = new ArrayList<>(Math.max(size.get(), 0));
+        for (Node<E> node = head.next; node != head; node = node.next) {
+            if (!node.marked) {
+                nodes.add(node);
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Finds the first node still in the list at or after the given node, going around past the head once.
+     *
+     * @param node the node to start at; may have been removed
+     * @return the node, or null if the list is empty
+     */
+    private Node<E> firstLiveFrom(Node<E> node) {
+        boolean passedHead = false;
+        while (node == head || node.marked) {
+            if (node == head) {
+                if (passedHead) {
+                    return null;
+                }
+                passedHead = true;
+            }
+            node = node.next;
+        }
+        return node;
+    }
+
+    private class ConcurrentListIterator implements Iterator<E> {
+        private Node<E> nextNode = head.next;
+        // the node returned last and the node the iterator passed before it, or null if there is nothing to remove
+        private Node<E> lastReturned;
+        private Node<E> lastPrevious = head;
+
+        @Override
+        public boolean hasNext() {
+            while (nextNode != head && nextNode.marked) {
+                nextNode = nextNode.next;
+            }
+            return nextNode != head;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (lastReturned != null) {
+                lastPrevious = lastReturned;
+            }
+            lastReturned = nextNode;
+            nextNode = nextNode.next;
+            return lastReturned.data;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            if (!unlink(lastPrevious, lastReturned)) {
+                unlink(lastReturned);
+            }
+            lastReturned = null;
+        }
+    }
+
+    private class ConcurrentListCursor implements Cursor<E> {
+        // the node at the cursor's position, or head before the first element is found
+        private Node<E> current = head;
+
+        private Node<E> currentNode() {
+            Node<E> node = firstLiveFrom(current);
+            if (node == null) {
+                throw new NoSuchElementException();
+            }
+            current = node;
+            return node;
+        }
+
+        @Override
+        public E current() {
+            return currentNode().data;
+        }
+
+        @Override
+        public void advance() {
+            current = firstLiveFrom(currentNode().next);
+        }
+
+        @Override
+        public E removeCurrent() {
+            while (true) {
+                Node<E> node = currentNode();
+                if (unlink(node)) {
+                    current = node.next;
+                    return node.data;
+                }
+            }
+        }
+
+        @Override
+        public void insertAfterCurrent(E value) {
+            while (true) {
+                Node<E> node = firstLiveFrom(current);
+                if (node == null) {
+                    current = append(value);
+                    return;
+                }
+                current = node;
+                if (insertAfter(node, value) != null) {
+                    return;
+                }
+            }
+        }
+    }
+}
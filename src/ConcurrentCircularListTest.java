@@ -0,0 +1,227 @@
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+/**
+ * This class runs every CircularLinkedListTest against ConcurrentCircularList, and adds stress tests
+ * where many threads add, remove and iterate at once. Each test checks a property that holds only if
+ * every add and remove takes effect at a single point in time.
+ */
+public class ConcurrentCircularListTest extends CircularLinkedListTest {
+    private static final int THREADS = 8;
+    private static final int PER_THREAD = 5000;
+
+    @Override
+    protected CircularLinkedListInterface<String> createList() {
+        return new ConcurrentCircularList<>();
+    }
+
+    /**
+     * Tests changing the list other than through the iterator during iteration.
+     * The iterator is weakly consistent, so instead of failing it carries on and sees the new element.
+     */
+    @Override
+    @Test
+    public void testIteratorFailFast() {
+        CircularLinkedListInterface<String> list = createList();
+        list.add("A");
+        list.add("B");
+
+        Iterator<String> iterator = list.iterator();
+        iterator.next();
+        list.add("C");
+        assertEquals("B", iterator.next());
+        assertEquals("C", iterator.next());
+        assertFalse(iterator.hasNext());
+    }
+
+    /**
+     * Tests taking snapshots of an unchanged list.
+     * A thread-safe list makes a new copy every time, so the snapshots are equal but not the same.
+     */
+    @Override
+    @Test
+    public void testSnapshotReused() {
+        CircularLinkedListInterface<String> list = createList();
+        list.add("A");
+        List<String> snapshot = list.snapshot();
+        assertEquals(snapshot, list.snapshot());
+        assertNotSame(snapshot, list.snapshot());
+    }
+
+    /**
+     * Tests adding from many threads at once.
+     * Checks that no element is lost and that each thread's elements stay in the order it added them.
+     */
+    @Test
+    public void testConcurrentAdd() throws Throwable {
+        CircularLinkedListInterface<String> list = createList();
+        runThreads(thread -> {
+            for (int i = 0; i < PER_THREAD; i++) {
+                list.add(thread + ":" + i);
+            }
+        });
+
+        assertEquals(THREADS * PER_THREAD, list.getSize());
+        int[] nextIndex = new int[THREADS];
+        Iterator<String> iterator = list.iterator();
+        while (iterator.hasNext()) {
+            String[] parts = iterator.next().split(":");
+            int thread = Integer.parseInt(parts[0]);
+            assertEquals(nextIndex[thread]++, Integer.parseInt(parts[1]));
+        }
+        for (int thread = 0; thread < THREADS; thread++) {
+            assertEquals(PER_THREAD, nextIndex[thread]);
+        }
+    }
+
+    /**
+     * Tests many threads removing the same elements at once.
+     * Checks that every element is removed by exactly one thread and the list ends up empty.
+     */
+    @Test
+    public void testConcurrentRemoveExactlyOnce() throws Throwable {
+        CircularLinkedListInterface<String> list = createList();
+        for (int i = 0; i < PER_THREAD; i++) {
+            list.add("E" + i);
+        }
+        AtomicInteger removed = new AtomicInteger();
+        runThreads(thread -> {
+            for (int i = 0; i < PER_THREAD; i++) {
+                // each thread goes through the elements in a different order
+                if (list.remove("E" + (i * 7 + thread * 613) % PER_THREAD)) {
+                    removed.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(PER_THREAD, removed.get());
+        assertEquals(0, list.getSize());
+        assertFalse(list.iterator().hasNext());
+    }
+
+    /**
+     * Tests adding, removing and going around with cursors while other threads iterate.
+     * Checks that elements that stay in the list are seen exactly once by every full iteration,
+     * and that the list holds exactly the elements that were added and not removed.
+     */
+    @Test
+    public void testChurnWhileIterating() throws Throwable {
+        CircularLinkedListInterface<String> list = createList();
+        List<String> permanent = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            permanent.add("P" + i);
+            list.add("P" + i);
+        }
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> readerFailure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            try {
+                while (!done.get()) {
+                    List<String> seen = new ArrayList<>();
+                    Iterator<String> iterator = list.iterator();
+                    while (iterator.hasNext()) {
+                        String element = iterator.next();
+                        if (element.startsWith("P")) {
+                            seen.add(element);
+                        }
+                    }
+                    assertEquals(permanent, seen);
+                }
+            } catch (Throwable e) {
+                readerFailure.set(e);
+            }
+        });
+        reader.start();
+
+        runThreads(thread -> {
+            CircularLinkedListInterface.Cursor<String> cursor = list.cursor();
+            for (int i = 0; i < PER_THREAD; i++) {
+                String element = thread + ":" + i;
+                if (i % 2 == 0) {
+                    list.add(element);
+                } else {
+                    cursor.insertAfterCurrent(element);
+                }
+                cursor.advance();
+                assertTrue(list.remove(element));
+            }
+        });
+        done.set(true);
+        reader.join();
+        if (readerFailure.get() != null) {
+            throw readerFailure.get();
+        }
+
+        assertEquals(permanent.size(), list.getSize());
+        for (int i = 0; i < permanent.size(); i++) {
+            assertEquals(permanent.get(i), list.get(permanent.size() - i - 1));
+        }
+    }
+
+    /**
+     * Tests removing through cursors on many threads at once.
+     * Checks that every element is removed exactly once.
+     */
+    @Test
+    public void testConcurrentCursorRemove() throws Throwable {
+        CircularLinkedListInterface<String> list = createList();
+        for (int i = 0; i < THREADS * PER_THREAD; i++) {
+            list.add("E" + i);
+        }
+        AtomicInteger removed = new AtomicInteger();
+        runThreads(thread -> {
+            CircularLinkedListInterface.Cursor<String> cursor = list.cursor();
+            for (int i = 0; i < thread; i++) {
+                cursor.advance();
+            }
+            for (int i = 0; i < PER_THREAD; i++) {
+                cursor.removeCurrent();
+                removed.incrementAndGet();
+            }
+        });
+
+        assertEquals(THREADS * PER_THREAD, removed.get());
+        assertEquals(0, list.getSize());
+        assertFalse(list.iterator().hasNext());
+    }
+
+    private interface Work {
+        void run(int thread) throws Exception;
+    }
+
+    /**
+     * Runs the given work on THREADS threads that all start at the same moment, and rethrows the
+     * first failure of any of them.
+     */
+    private static void runThreads(Work work) throws Throwable {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                    work.run(thread);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+}
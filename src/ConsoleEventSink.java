@@ -0,0 +1,45 @@
+/**
+ * Writes the events of a game to the console, in the same words the game has always used.
+ */
+public class ConsoleEventSink implements GameEventSink {
+    private final String[] names;
+    private final StringBuilder buffer;
+
+    /**
+     * Constructs a sink that refers to each seat by the given names.
+     *
+     * @param names The name of the player in each seat, in turn order.
+     */
+    public ConsoleEventSink(String[] names) {
+        this.names = names.clone();
+        this.buffer = new StringBuilder();
+    }
+
+    @Override
+    public void event(GameEventType type, int seat, int first, int second) {
+        String name = names[seat];
+        switch (type) {
+            case TURN_STARTED -> buffer.append(name).append("'s turn:\n");
+            case DIE_ROLLED -> buffer.append("Die ").append(first + 1).append(" rolls a ").append(second)
+                    .append(" and it's free!\n");
+            case DIE_STUCK -> {
+                if (second == 0) {
+                    buffer.append("Die ").append(first + 1).append(" was already stuck in the mud from the last turn!\n");
+                } else {
+                    buffer.append("Die ").append(first + 1).append(" rolls a ").append(second)
+                            .append(" and it's now stuck in the mud!\n");
+                }
+            }
+            case TURN_SCORED -> buffer.append(name).append(" scores ").append(first)
+                    .append(" points this round and has a total score of  ").append(second).append("\n\n");
+            case GAME_WON -> buffer.append(name).append(" wins with a score of ").append(first).append("!\n");
+        }
+    }
+
+    @Override
+    public void flush() {
+        System.out.print(buffer);
+        System.out.flush();
+        buffer.setLength(0);
+    }
+}
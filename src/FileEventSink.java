@@ -0,0 +1,59 @@
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+/**
+ * Writes the events of a game to a text file, one event per line as its type, seat and two numbers
+ * separated by spaces, for example "TURN_SCORED 1 12 57".
+ */
+public class FileEventSink implements GameEventSink, Closeable {
+    private final BufferedWriter writer;
+
+    /**
+     * Constructs a sink that writes to the given file, replacing it if it exists.
+     *
+     * @param file The file to write to.
+     * @throws IOException If the file cannot be opened.
+     */
+    public FileEventSink(Path file) throws IOException {
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void event(GameEventType type, int seat, int first, int second) {
+        try {
+            writer.write(type.name());
+            writer.write(' ');
+            writer.write(Integer.toString(seat));
+            writer.write(' ');
+            writer.write(Integer.toString(first));
+            writer.write(' ');
+            writer.write(Integer.toString(second));
+            writer.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Closes the file. Close the GameEventLog writing to this sink first, so that every event is written.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,359 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+/**
+ * The GameAggregator class sums up any number of games of Stuck in the Mud as they are played, in memory
+ * that does not grow with the number of games: the final scores, the margin of victory and the number
+ * of turns to win, each as a Distribution, the wins of each seat, and how often each die gets stuck.
+ * An instance is meant to be filled by a single thread, like TournamentStats, and instances filled by
+ * different threads are combined with merge, which adds up their arrays and combines their means and
+ * variances without going back over any game.
+ * While one thread records games, any other thread can read how many it has recorded with getGamesRecorded,
+ * for example to report the progress of a long run.
+ */
+public class GameAggregator {
+    private final RuleSet rules;
+    private final long[] wins;
+    private final long[] stuckCounts;
+    private final Distribution finalScores;
+    private final Distribution margins;
+    private final Distribution gameLengths;
+    private long games;
+    private long turns;
+    // the number of games recorded, published for other threads to read
+    private final AtomicLong progress;
+
+    /**
+     * Constructs an empty aggregator for games with the given number of players under the given rules.
+     *
+     * @param rules      The rules of the games.
+     * @param numPlayers The number of players in each game.
+     */
+    public GameAggregator(RuleSet rules, int numPlayers) {
+        this.rules = rules;
+        this.wins = new long[numPlayers];
+        this.stuckCounts = new long[rules.getNumDice()];
+        int maxScore = rules.getWinningScore() + rules.getMaxTurnScore();
+        this.finalScores = new Distribution(maxScore);
+        this.margins = new Distribution(maxScore);
+        this.gameLengths = new Distribution(64);
+        this.progress = new AtomicLong();
+    }
+
+    /**
+     * Adds a turn to the statistics of stuck dice.
+     *
+     * @param turn The turn, as returned by one of TurnEvaluator's roll methods.
+     */
+    public void recordTurn(long turn) {
+        turns++;
+        for (long stuck = TurnEvaluator.stuckDice(turn); stuck != 0; stuck &= stuck - 1) {
+            stuckCounts[Long.numberOfTrailingZeros(stuck)]++;
+        }
+    }
+
+    /**
+     * Adds the outcome of a game to the statistics.
+     *
+     * @param result The result of a finished game; must have the aggregator's number of players.
+     */
+    public void record(GameResult result) {
+        int winner = result.getWinner();
+        int runnerUp = 0;
+        for (int seat = 0; seat < wins.length; seat++) {
+            int score = result.getScore(seat);
+            finalScores.add(score);
+            if (seat != winner && score > runnerUp) {
+                runnerUp = score;
+            }
+        }
+        wins[winner]++;
+        margins.add(result.getScore(winner) - runnerUp);
+        gameLengths.add(result.getTurns());
+        games++;
+        progress.lazySet(games);
+    }
+
+    /**
+     * Adds everything recorded by another aggregator to this one. The other aggregator must no longer
+     * be recording.
+     *
+     * @param other The aggregator to merge in; must be for the same rules and number of players.
+     * @throws IllegalArgumentException If the rules or the number of players differ.
+     */
+    public void merge(GameAggregator other) {
+        if (other.wins.length != wins.length || !other.rules.equals(rules)) {
+            throw new IllegalArgumentException("Cannot merge statistics of different games");
+        }
+        for (int seat = 0; seat < wins.length; seat++) {
+            wins[seat] += other.wins[seat];
+        }
+        for (int die = 0; die < stuckCounts.length; die++) {
+            stuckCounts[die] += other.stuckCounts[die];
+        }
+        finalScores.merge(other.finalScores);
+        margins.merge(other.margins);
+        gameLengths.merge(other.gameLengths);
+        games += other.games;
+        turns += other.turns;
+        progress.lazySet(games);
+    }
+
+    /**
+     * Gets the number of games recorded. Unlike the other methods it can be called from any thread
+     * while games are being recorded, when it may be a game or two behind.
+     *
+     * @return The number of games recorded.
+     */
+    public long getGamesRecorded() {
+        return progress.get();
+    }
+
+    /**
+     * Gets the number of games recorded.
+     *
+     * @return The game count.
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Gets the number of games won by the player in the given seat.
+     *
+     * @param seat The seat, in turn order starting at 0.
+     * @return The number of wins for that seat.
+     */
+    public long getWins(int seat) {
+        return wins[seat];
+    }
+
+    /**
+     * Gets the fraction of games won by the player in the given seat.
+     *
+     * @param seat The seat, in turn order starting at 0.
+     * @return The win rate for that seat, or 0 if no games were recorded.
+     */
+    public double getWinRate(int seat) {
+        return games == 0 ? 0.0 : (double) wins[seat] / games;
+    }
+
+    /**
+     * Gets the number of turns recorded with recordTurn.
+     *
+     * @return The turn count.
+     */
+    public long getTurns() {
+        return turns;
+    }
+
+    /**
+     * Gets the fraction of turns in which the given die got stuck.
+     *
+     * @param die The index of the die, from 0 to one less than the number of dice.
+     * @return The stuck frequency of the die, or 0 if no turns were recorded.
+     */
+    public double getStuckFrequency(int die) {
+        return turns == 0 ? 0.0 : (double) stuckCounts[die] / turns;
+    }
+
+    /**
+     * Gets the distribution of the final scores of every player in every game.
+     *
+     * @return The final scores.
+     */
+    public Distribution getFinalScores() {
+        return finalScores;
+    }
+
+    /**
+     * Gets the distribution of the winner's lead over the best of the other players at the end of each game.
+     * In a game with one player the margin is the winner's score.
+     *
+     * @return The margins of victory.
+     */
+    public Distribution getMargins() {
+        return margins;
+    }
+
+    /**
+     * Gets the distribution of the number of turns each game took, counting every player's turns.
+     *
+     * @return The game lengths.
+     */
+    public Distribution getGameLengths() {
+        return gameLengths;
+    }
+
+    /**
+     * Provides a string representation of the statistics: the number of games, the win rate of each seat,
+     * the three distributions and the stuck frequency of each die.
+     *
+     * @return A string representing the statistics.
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("GameAggregator{games=").append(games).append(", winRates=[");
+        for (int seat = 0; seat < wins.length; seat++) {
+            builder.append(seat > 0 ? ", " : "").append(getWinRate(seat));
+        }
+        builder.append("], finalScores=").append(finalScores)
+                .append(", margins=").append(margins)
+                .append(", gameLengths=").append(gameLengths)
+                .append(", stuckFrequencies=[");
+        for (int die = 0; die < stuckCounts.length; die++) {
+            builder.append(die > 0 ? ", " : "").append(getStuckFrequency(die));
+        }
+        return builder.append("]}").toString();
+    }
+
+    /**
+     * The Distribution class sums up a stream of non-negative whole numbers. It keeps their mean and variance
+     * with Welford's method, which stays accurate over billions of values, and counts each value in a bucket
+     * of its own, so its quantiles are exact. The buckets grow when a larger value arrives; the values
+     * here are scores and turn counts, so there are at most a few thousand of them.
+     */
+    public static final class Distribution {
+        private long[] counts;
+        private long count;
+        private double mean;
+        // the sum of squared differences from the mean
+        private double m2;
+        private int min;
+        private int max;
+
+        Distribution(int initialBuckets) {
+            counts = new long[Math.max(initialBuckets, 1)];
+            min = Integer.MAX_VALUE;
+        }
+
+        void add(int value) {
+            if (value >= counts.length) {
+                counts = Arrays.copyOf(counts, Math.max(counts.length * 2, value + 1));
+            }
+            counts[value]++;
+            count++;
+            double delta = value - mean;
+            mean += delta / count;
+            m2 += delta * (value - mean);
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        void merge(Distribution other) {
+            if (other.count == 0) {
+                return;
+            }
+            if (other.counts.length > counts.length) {
+                counts = Arrays.copyOf(counts, other.counts.length);
+            }
+            for (int value = 0; value < other.counts.length; value++) {
+                counts[value] += other.counts[value];
+            }
+            // Chan's formula for combining the means and variances of two samples
+            long total = count + other.count;
+            double delta = other.mean - mean;
+            mean += delta * other.count / total;
+            m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+            count = total;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+
+        /**
+         * Gets the number of values.
+         *
+         * @return The count.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Gets the mean of the values.
+         *
+         * @return The mean, or 0 if there are no values.
+         */
+        public double getMean() {
+            return mean;
+        }
+
+        /**
+         * Gets the sample variance of the values.
+         *
+         * @return The variance, or 0 if there are fewer than two values.
+         */
+        public double getVariance() {
+            return count < 2 ? 0.0 : m2 / (count - 1);
+        }
+
+        /**
+         * Gets the sample standard deviation of the values.
+         *
+         * @return The standard deviation, or 0 if there are fewer than two values.
+         */
+        public double getStandardDeviation() {
+            return Math.sqrt(getVariance());
+        }
+
+        /**
+         * Gets the smallest value.
+         *
+         * @return The minimum, or 0 if there are no values.
+         */
+        public int getMin() {
+            return count == 0 ? 0 : min;
+        }
+
+        /**
+         * Gets the largest value.
+         *
+         * @return The maximum, or 0 if there are no values.
+         */
+        public int getMax() {
+            return max;
+        }
+
+        /**
+         * Gets a quantile of the values: the smallest value that at least the given fraction of them
+         * are no larger than.
+         *
+         * @param fraction The fraction, from 0 to 1; 0.5 gives the median.
+         * @return The quantile, or 0 if there are no values.
+         * @throws IllegalArgumentException If the fraction is out of range.
+         */
+        public int getQuantile(double fraction) {
+            if (fraction < 0 || fraction > 1) {
+                throw new IllegalArgumentException("Invalid fraction: " + fraction);
+            }
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(fraction * count));
+            long seen = 0;
+            for (int value = 0; value < counts.length; value++) {
+                seen += counts[value];
+                if (seen >= rank) {
+                    return value;
+                }
+            }
+            return max;
+        }
+
+        /**
+         * Gets how many of the values were the given value.
+         *
+         * @param value The value.
+         * @return The number of times it was added.
+         */
+        public long getCount(int value) {
+            return value < 0 || value >= counts.length ? 0 : counts[value];
+        }
+
+        @Override
+        public String toString() {
+            return String.format(java.util.Locale.ROOT, "{mean=%.3f, sd=%.3f, min=%d, p50=%d, p90=%d, p99=%d, max=%d}",
+                    getMean(), getStandardDeviation(), getMin(), getQuantile(0.5), getQuantile(0.9),
+                    getQuantile(0.99), getMax());
+        }
+    }
+}
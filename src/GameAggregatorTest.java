@@ -0,0 +1,201 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+/**
+ * This class contains unit tests for the GameAggregator class and its Distribution, and for
+ * TournamentRunner.aggregate, which fills one aggregator per worker and merges them.
+ */
+public class GameAggregatorTest {
+    /**
+     * Asserts that two distributions hold the same values, with means and variances equal up to rounding.
+     */
+    private static void assertSameDistribution(GameAggregator.Distribution expected, GameAggregator.Distribution actual) {
+        assertEquals(expected.getCount(), actual.getCount());
+        assertEquals(expected.getMean(), actual.getMean(), 1e-9 * Math.abs(expected.getMean()));
+        assertEquals(expected.getVariance(), actual.getVariance(), 1e-9 * expected.getVariance());
+        assertEquals(expected.getMin(), actual.getMin());
+        assertEquals(expected.getMax(), actual.getMax());
+        for (double fraction : new double[]{0, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 1}) {
+            assertEquals(expected.getQuantile(fraction), actual.getQuantile(fraction));
+        }
+        for (int value = 0; value <= expected.getMax(); value++) {
+            assertEquals(expected.getCount(value), actual.getCount(value));
+        }
+    }
+
+    /**
+     * Tests the statistics of a few known values.
+     * Validates the mean, sample variance, extremes and quantiles, including after the buckets grow.
+     */
+    @Test
+    public void testDistribution() {
+        GameAggregator.Distribution distribution = new GameAggregator.Distribution(4);
+        assertEquals(0, distribution.getQuantile(0.5));
+        assertEquals(0.0, distribution.getVariance(), 0.0);
+        for (int value = 10; value >= 1; value--) {
+            distribution.add(value);
+        }
+        assertEquals(10, distribution.getCount());
+        assertEquals(5.5, distribution.getMean(), 1e-12);
+        assertEquals(55.0 / 6, distribution.getVariance(), 1e-12);
+        assertEquals(1, distribution.getMin());
+        assertEquals(10, distribution.getMax());
+        assertEquals(1, distribution.getQuantile(0));
+        assertEquals(5, distribution.getQuantile(0.5));
+        assertEquals(9, distribution.getQuantile(0.9));
+        assertEquals(10, distribution.getQuantile(1));
+
+        distribution.add(1000);
+        assertEquals(1000, distribution.getMax());
+        assertEquals(1000, distribution.getQuantile(1));
+        assertEquals(1, distribution.getCount(1000));
+        assertEquals(0, distribution.getCount(999));
+        try {
+            distribution.getQuantile(1.5);
+            fail("A fraction above 1 was accepted");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Tests two aggregators, filled with different shares of the same games, merged together.
+     * Validates that they equal one aggregator fed all of the games.
+     */
+    @Test
+    public void testMergeEqualsSingle() {
+        RuleSet rules = RuleSet.DEFAULT;
+        int numPlayers = 3;
+        GameAggregator all = new GameAggregator(rules, numPlayers);
+        HeadlessEngine allEngine = new HeadlessEngine(rules, new SplittableRandom(8), TurnEvaluator.Mode.PER_DIE);
+        PlayerTable allTable = new PlayerTable(numPlayers);
+        GameAggregator first = new GameAggregator(rules, numPlayers);
+        GameAggregator second = new GameAggregator(rules, numPlayers);
+        HeadlessEngine partEngine = new HeadlessEngine(rules, new SplittableRandom(8), TurnEvaluator.Mode.PER_DIE);
+        PlayerTable partTable = new PlayerTable(numPlayers);
+        for (int game = 0; game < 5000; game++) {
+            allEngine.play(allTable, all);
+            partEngine.play(partTable, game < 1234 ? first : second);
+        }
+        first.merge(second);
+        first.merge(new GameAggregator(rules, numPlayers));
+
+        assertEquals(all.getGames(), first.getGames());
+        assertEquals(all.getGamesRecorded(), first.getGamesRecorded());
+        assertEquals(all.getTurns(), first.getTurns());
+        for (int seat = 0; seat < numPlayers; seat++) {
+            assertEquals(all.getWins(seat), first.getWins(seat));
+        }
+        for (int die = 0; die < rules.getNumDice(); die++) {
+            assertEquals(all.getStuckFrequency(die), first.getStuckFrequency(die), 0.0);
+        }
+        assertSameDistribution(all.getFinalScores(), first.getFinalScores());
+        assertSameDistribution(all.getMargins(), first.getMargins());
+        assertSameDistribution(all.getGameLengths(), first.getGameLengths());
+        assertEquals(all.getTurns(), Math.round(all.getGameLengths().getMean() * all.getGames()));
+    }
+
+    /**
+     * Tests merging aggregators of different games.
+     * Validates that different rules or player counts are rejected.
+     */
+    @Test
+    public void testMergeMismatch() {
+        GameAggregator aggregator = new GameAggregator(RuleSet.DEFAULT, 2);
+        try {
+            aggregator.merge(new GameAggregator(RuleSet.DEFAULT, 3));
+            fail("Aggregators of different player counts were merged");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            aggregator.merge(new GameAggregator(new RuleSet(50, 4, 2, 5), 2));
+            fail("Aggregators of different rules were merged");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Tests aggregating a batch against running it, with the same seed and number of workers.
+     * Validates that both play the same games, and that progress is reported up to the last game.
+     */
+    @Test
+    public void testAggregateMatchesRun() throws InterruptedException {
+        RuleSet rules = new RuleSet(60, 4, 2, 5);
+        TournamentRunner runner = new TournamentRunner(ForkJoinPool.commonPool(), 3);
+        List<long[]> reports = new ArrayList<>();
+        GameAggregator aggregator = runner.aggregate(rules, 3, 10_001, 77L,
+                (played, games) -> reports.add(new long[]{played, games}), 1);
+        TournamentStats stats = runner.run(rules, 3, 10_001, 77L);
+
+        assertEquals(stats.getGames(), aggregator.getGames());
+        for (int seat = 0; seat < 3; seat++) {
+            assertEquals(stats.getWins(seat), aggregator.getWins(seat));
+        }
+        assertEquals(stats.getTotalTurns(), aggregator.getTurns());
+        for (int score = 0; score < stats.getScoreRange(); score++) {
+            assertEquals(stats.getScoreCount(score), aggregator.getFinalScores().getCount(score));
+        }
+
+        assertFalse(reports.isEmpty());
+        long previous = 0;
+        for (long[] report : reports) {
+            assertEquals(10_001, report[1]);
+            assertTrue(report[0] >= previous);
+            previous = report[0];
+        }
+        assertEquals(10_001, previous);
+    }
+
+    /**
+     * Tests interrupting the thread that called aggregate while its workers are playing far more games
+     * than they could finish.
+     * Validates that the call throws, and that the workers stop rather than go on playing on the pool.
+     */
+    @Test
+    public void testInterruptStopsWorkers() throws InterruptedException {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            TournamentRunner runner = new TournamentRunner(pool, 4);
+            long[] lastReport = new long[1];
+            try {
+                runner.aggregate(RuleSet.DEFAULT, 2, Long.MAX_VALUE / 2, 1L, (played, games) -> {
+                    lastReport[0] = played;
+                    if (played > 0) {
+                        Thread.currentThread().interrupt();
+                    }
+                }, 1);
+                fail("An interrupted batch finished");
+            } catch (InterruptedException e) {
+                // expected
+            }
+            assertTrue(lastReport[0] > 0);
+            // awaitQuiescence would run the queued workers on this thread, so poll instead
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (!pool.isQuiescent() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue("The workers kept playing", pool.isQuiescent());
+        } finally {
+            Thread.interrupted();
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Tests aggregating with an invalid progress interval.
+     * Validates that it is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testAggregateInvalidInterval() throws InterruptedException {
+        new TournamentRunner(ForkJoinPool.commonPool(), 1).aggregate(RuleSet.DEFAULT, 2, 10, 1L, (played, games) -> {
+        }, 0);
+    }
+}
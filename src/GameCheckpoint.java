@@ -0,0 +1,312 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+/**
+ * The GameCheckpoint class keeps the state of a game of Stuck in the Mud in a compact binary file,
+ * so that a game lost with its process can be resumed and carry on exactly as if it had never stopped.
+ * The file starts with everything needed to set the game up again: the rules, the names of the players
+ * in turn order, and the algorithm, seed and starting position of its CountingRandom. After that, each
+ * turn taken appends one 8-byte record, so saving a turn is a single small write however long the game is.
+ * All numbers are little-endian.
+ * <pre>
+ * header  magic (int), version (short), number of dice (byte), stuck face mask (byte),
+ *         winning score (int), algorithm (byte), reserved (byte), players (unsigned short),
+ *         seed (long), draws before the first turn (long),
+ *         then for each player the length of the name (unsigned short) and the name in UTF-8
+ * turns   one record per turn, in turn order starting at the first seat:
+ *         turn score (unsigned short), numbers drawn during the turn (unsigned short),
+ *         stuck dice mask at the end of the turn (int)
+ * </pre>
+ * Opening a checkpoint adds up the turns to get each player's score and stuck dice, the seat whose turn
+ * is next and the position of the generator. A record cut short by a crash is dropped, so the game
+ * resumes from the last turn that was saved in full and plays that turn again.
+ * Records are handed to the operating system as they are appended, which is enough to survive the
+ * process ending; call force to make sure they survive the machine going down as well.
+ */
+public class GameCheckpoint implements Closeable {
+    static final int MAGIC = 0x43544953; // "SITC" in little-endian order
+    static final short VERSION = 1;
+    static final int FIXED_HEADER_BYTES = 32;
+    static final int TURN_BYTES = 8;
+
+    private final FileChannel channel;
+    private final String[] playerNames;
+    private final RuleSet rules;
+    private final CountingRandom random;
+    private final int[] scores;
+    private final long[] stuckDice;
+    private final ByteBuffer record;
+    private long turns;
+    // the file offset the next turn is appended at
+    private long end;
+    // the generator's draw count at the end of the last saved turn
+    private long draws;
+
+    private GameCheckpoint(FileChannel channel, String[] playerNames, RuleSet rules, CountingRandom random,
+                           int[] scores, long[] stuckDice, long turns, long end) {
+        this.channel = channel;
+        this.playerNames = playerNames;
+        this.rules = rules;
+        this.random = random;
+        this.scores = scores;
+        this.stuckDice = stuckDice;
+        this.turns = turns;
+        this.end = end;
+        this.draws = random.getDraws();
+        this.record = ByteBuffer.allocate(TURN_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Creates a checkpoint file for a new game, replacing the file if it exists.
+     *
+     * @param file        The checkpoint file to write.
+     * @param playerNames The names of the players, in turn order; from 1 to 65535 of them.
+     * @param rules       The rules of the game.
+     * @param random      The generator the game's dice will be rolled with.
+     * @return The checkpoint, ready for the game's first turn.
+     * @throws IOException              If the file cannot be written.
+     * @throws IllegalArgumentException If there are no players or too many.
+     */
+    public static GameCheckpoint create(Path file, String[] playerNames, RuleSet rules, CountingRandom random)
+            throws IOException {
+        if (playerNames.length < 1 || playerNames.length > 0xFFFF) {
+            throw new IllegalArgumentException("Invalid number of players: " + playerNames.length);
+        }
+        byte[][] names = new byte[playerNames.length][];
+        int headerBytes = FIXED_HEADER_BYTES;
+        for (int i = 0; i < names.length; i++) {
+            names[i] = playerNames[i].getBytes(StandardCharsets.UTF_8);
+            if (names[i].length > 0xFFFF) {
+                throw new IllegalArgumentException("Player name too long: " + playerNames[i]);
+            }
+            headerBytes += Short.BYTES + names[i].length;
+        }
+        ByteBuffer header = ByteBuffer.allocate(headerBytes).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC);
+        header.putShort(VERSION);
+        header.put((byte) rules.getNumDice());
+        header.put((byte) rules.stuckFaces());
+        header.putInt(rules.getWinningScore());
+        header.put((byte) random.getAlgorithm().ordinal());
+        header.put((byte) 0);
+        header.putShort((short) playerNames.length);
+        header.putLong(random.getSeed());
+        header.putLong(random.getDraws());
+        for (byte[] name : names) {
+            header.putShort((short) name.length);
+            header.put(name);
+        }
+        header.flip();
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new GameCheckpoint(channel, playerNames.clone(), rules, random,
+                new int[playerNames.length], new long[playerNames.length], 0, headerBytes);
+    }
+
+    /**
+     * Opens the checkpoint file of a game to resume it. Any partly written turn at the end of the file
+     * is cut off, and the turns taken after this are appended to the file.
+     *
+     * @param file The checkpoint file.
+     * @return The checkpoint, holding the state of the game after its last saved turn.
+     * @throws IOException If the file cannot be read or is not a valid checkpoint.
+     */
+    public static GameCheckpoint open(Path file) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        if (data.remaining() < FIXED_HEADER_BYTES || data.getInt() != MAGIC) {
+            throw new IOException("Not a checkpoint file: " + file);
+        }
+        short version = data.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported checkpoint version: " + version);
+        }
+        int numDice = data.get() & 0xFF;
+        int stuckMask = data.get() & 0xFF;
+        int winningScore = data.getInt();
+        int algorithm = data.get() & 0xFF;
+        data.get(); // reserved
+        int players = data.getShort() & 0xFFFF;
+        long seed = data.getLong();
+        long startDraws = data.getLong();
+        if (algorithm >= GameRandom.Algorithm.values().length || players == 0) {
+            throw new IOException("Corrupt checkpoint header: " + file);
+        }
+        String[] playerNames = new String[players];
+        for (int i = 0; i < players; i++) {
+            if (data.remaining() < Short.BYTES) {
+                throw new IOException("Truncated checkpoint header: " + file);
+            }
+            int length = data.getShort() & 0xFFFF;
+            if (data.remaining() < length) {
+                throw new IOException("Truncated checkpoint header: " + file);
+            }
+            playerNames[i] = new String(data.array(), data.position(), length, StandardCharsets.UTF_8);
+            data.position(data.position() + length);
+        }
+        int[] stuckFaces = new int[Integer.bitCount(stuckMask)];
+        int count = 0;
+        for (int face = 1; face <= 6; face++) {
+            if ((stuckMask & (1 << face)) != 0) {
+                stuckFaces[count++] = face;
+            }
+        }
+        RuleSet rules;
+        try {
+            rules = new RuleSet(winningScore, numDice, stuckFaces);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt checkpoint header: " + file, e);
+        }
+
+        int[] scores = new int[players];
+        long[] stuckDice = new long[players];
+        long draws = startDraws;
+        long turns = 0;
+        int seat = 0;
+        while (data.remaining() >= TURN_BYTES) {
+            scores[seat] += data.getShort() & 0xFFFF;
+            draws += data.getShort() & 0xFFFF;
+            stuckDice[seat] = data.getInt() & 0xFFFFFFFFL;
+            turns++;
+            seat = seat + 1 == players ? 0 : seat + 1;
+        }
+        long validBytes = data.position();
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE);
+        try {
+            channel.truncate(validBytes);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        CountingRandom random = new CountingRandom(GameRandom.Algorithm.values()[algorithm], seed, draws);
+        return new GameCheckpoint(channel, playerNames, rules, random, scores, stuckDice, turns, validBytes);
+    }
+
+    /**
+     * Gets the names of the players, in turn order.
+     *
+     * @return A copy of the player names.
+     */
+    public String[] getPlayerNames() {
+        return playerNames.clone();
+    }
+
+    /**
+     * Gets the rules of the game.
+     *
+     * @return The rule set.
+     */
+    public RuleSet getRules() {
+        return rules;
+    }
+
+    /**
+     * Gets the generator the game rolls its dice with. For an opened checkpoint it is positioned
+     * where it was at the end of the last saved turn.
+     *
+     * @return The game's random number generator.
+     */
+    public CountingRandom getRandom() {
+        return random;
+    }
+
+    /**
+     * Gets the number of turns saved.
+     *
+     * @return The turn count.
+     */
+    public long getTurns() {
+        return turns;
+    }
+
+    /**
+     * Gets the seat whose turn is next, in turn order starting at 0.
+     *
+     * @return The next seat.
+     */
+    public int getNextSeat() {
+        return (int) (turns % playerNames.length);
+    }
+
+    /**
+     * Gets a player's total score after the last saved turn.
+     *
+     * @param seat The seat of the player, in turn order starting at 0.
+     * @return The player's score.
+     */
+    public int getScore(int seat) {
+        return scores[seat];
+    }
+
+    /**
+     * Gets a player's stuck dice after the last saved turn.
+     *
+     * @param seat The seat of the player, in turn order starting at 0.
+     * @return A bitmask where bit i is set if die i is stuck.
+     */
+    public long getStuckDice(int seat) {
+        return stuckDice[seat];
+    }
+
+    /**
+     * Saves the turn the player in the next seat has just taken, along with how far the generator has moved.
+     *
+     * @param turnScore The score of the turn.
+     * @param stuck     A bitmask where bit i is set if die i is stuck at the end of the turn.
+     * @throws IOException              If the file cannot be written.
+     * @throws IllegalArgumentException If the turn does not fit in a record.
+     */
+    public void turnTaken(int turnScore, long stuck) throws IOException {
+        long turnDraws = random.getDraws() - draws;
+        if (turnScore < 0 || turnScore > 0xFFFF || turnDraws > 0xFFFF) {
+            throw new IllegalArgumentException("Turn does not fit in a checkpoint record");
+        }
+        record.clear();
+        record.putShort((short) turnScore);
+        record.putShort((short) turnDraws);
+        record.putInt((int) stuck);
+        record.flip();
+        while (record.hasRemaining()) {
+            end += channel.write(record, end);
+        }
+        int seat = getNextSeat();
+        scores[seat] += turnScore;
+        stuckDice[seat] = stuck;
+        draws += turnDraws;
+        turns++;
+    }
+
+    /**
+     * Makes sure every saved turn is on the storage device, so it survives the machine going down.
+     *
+     * @throws IOException If the file cannot be written.
+     */
+    public void force() throws IOException {
+        channel.force(false);
+    }
+
+    /**
+     * Closes the file. The checkpoint can be opened again to resume the game.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,189 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+/**
+ * This class contains unit tests for the GameCheckpoint class, resuming games from files cut short
+ * the way a crash would leave them.
+ */
+public class GameCheckpointTest {
+    private static final String[] NAMES = {"Alice", "Bob", "Carol"};
+    private static final long SEED = 2024L;
+
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("checkpoint", ".sitc");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Plays the game saved in a checkpoint to the end, turn by turn like StuckInTheMud but without its pauses.
+     *
+     * @param checkpoint The checkpoint to carry on from and save every turn to.
+     * @param maxTurns   The most turns to play before stopping, even if no one has won.
+     */
+    private static void play(GameCheckpoint checkpoint, long maxTurns) throws IOException {
+        RuleSet rules = checkpoint.getRules();
+        CountingRandom random = checkpoint.getRandom();
+        for (long turn = 0; turn < maxTurns && !isWon(checkpoint); turn++) {
+            int turnScore = 0;
+            long stuckDice = 0L;
+            for (int die = 0; die < rules.getNumDice(); die++) {
+                int roll = random.nextInt(6) + 1;
+                if (rules.isStuck(roll)) {
+                    stuckDice |= 1L << die;
+                } else {
+                    turnScore += roll;
+                }
+            }
+            checkpoint.turnTaken(turnScore, stuckDice);
+        }
+    }
+
+    private static boolean isWon(GameCheckpoint checkpoint) {
+        for (int seat = 0; seat < checkpoint.getPlayerNames().length; seat++) {
+            if (checkpoint.getScore(seat) >= checkpoint.getRules().getWinningScore()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] scores(GameCheckpoint checkpoint) {
+        int[] scores = new int[checkpoint.getPlayerNames().length];
+        for (int seat = 0; seat < scores.length; seat++) {
+            scores[seat] = checkpoint.getScore(seat);
+        }
+        return scores;
+    }
+
+    /**
+     * Tests a game saved and opened again without being cut short.
+     * Validates that the opened checkpoint holds the players, rules, scores and position of the game.
+     */
+    @Test
+    public void testOpenFinishedGame() throws IOException {
+        int[] scores;
+        long turns;
+        long draws;
+        try (GameCheckpoint checkpoint = GameCheckpoint.create(file, NAMES, RuleSet.DEFAULT,
+                new CountingRandom(GameRandom.Algorithm.SPLITTABLE, SEED))) {
+            play(checkpoint, Long.MAX_VALUE);
+            scores = scores(checkpoint);
+            turns = checkpoint.getTurns();
+            draws = checkpoint.getRandom().getDraws();
+        }
+        assertTrue(turns > 0);
+        try (GameCheckpoint checkpoint = GameCheckpoint.open(file)) {
+            assertArrayEquals(NAMES, checkpoint.getPlayerNames());
+            assertEquals(RuleSet.DEFAULT, checkpoint.getRules());
+            assertEquals(SEED, checkpoint.getRandom().getSeed());
+            assertEquals(draws, checkpoint.getRandom().getDraws());
+            assertEquals(turns, checkpoint.getTurns());
+            assertEquals((int) (turns % NAMES.length), checkpoint.getNextSeat());
+            assertArrayEquals(scores, scores(checkpoint));
+            assertTrue(isWon(checkpoint));
+        }
+    }
+
+    /**
+     * Tests resuming a game whose file was cut after some number of turns, in the middle of the next record.
+     * Validates that the torn record is dropped, and that the resumed game ends with the same scores,
+     * turn count and file as the game played without stopping.
+     */
+    @Test
+    public void testResumeAfterTornRecord() throws IOException {
+        try (GameCheckpoint checkpoint = GameCheckpoint.create(file, NAMES, RuleSet.DEFAULT,
+                new CountingRandom(GameRandom.Algorithm.SPLITTABLE, SEED))) {
+            play(checkpoint, Long.MAX_VALUE);
+        }
+        byte[] uninterrupted = Files.readAllBytes(file);
+        int[] finalScores;
+        long finalTurns;
+        try (GameCheckpoint checkpoint = GameCheckpoint.open(file)) {
+            finalScores = scores(checkpoint);
+            finalTurns = checkpoint.getTurns();
+        }
+        int headerBytes = (int) (uninterrupted.length - finalTurns * GameCheckpoint.TURN_BYTES);
+
+        for (int savedTurns : new int[]{0, 1, 2, 7, (int) finalTurns / 2, (int) finalTurns - 1}) {
+            for (int tornBytes = 0; tornBytes < GameCheckpoint.TURN_BYTES; tornBytes++) {
+                int length = headerBytes + savedTurns * GameCheckpoint.TURN_BYTES + tornBytes;
+                Files.write(file, Arrays.copyOf(uninterrupted, length));
+                try (GameCheckpoint checkpoint = GameCheckpoint.open(file)) {
+                    assertEquals(savedTurns, checkpoint.getTurns());
+                    assertEquals(savedTurns % NAMES.length, checkpoint.getNextSeat());
+                    assertEquals(headerBytes + savedTurns * GameCheckpoint.TURN_BYTES, Files.size(file));
+                    play(checkpoint, Long.MAX_VALUE);
+                    assertEquals(finalTurns, checkpoint.getTurns());
+                    assertArrayEquals(finalScores, scores(checkpoint));
+                }
+                assertArrayEquals("Resumed after " + savedTurns + " turns and " + tornBytes + " torn bytes",
+                        uninterrupted, Files.readAllBytes(file));
+            }
+        }
+    }
+
+    /**
+     * Tests a game stopped and resumed several times, closing the checkpoint between each stretch of turns.
+     * Validates that it ends like the game played without stopping.
+     */
+    @Test
+    public void testResumeRepeatedly() throws IOException {
+        Path other = Files.createTempFile("checkpoint", ".sitc");
+        try {
+            try (GameCheckpoint checkpoint = GameCheckpoint.create(other, NAMES, RuleSet.DEFAULT,
+                    new CountingRandom(GameRandom.Algorithm.SPLITTABLE, SEED))) {
+                play(checkpoint, Long.MAX_VALUE);
+            }
+            try (GameCheckpoint checkpoint = GameCheckpoint.create(file, NAMES, RuleSet.DEFAULT,
+                    new CountingRandom(GameRandom.Algorithm.SPLITTABLE, SEED))) {
+                play(checkpoint, 3);
+            }
+            boolean won = false;
+            while (!won) {
+                try (GameCheckpoint checkpoint = GameCheckpoint.open(file)) {
+                    play(checkpoint, 3);
+                    won = isWon(checkpoint);
+                }
+            }
+            assertArrayEquals(Files.readAllBytes(other), Files.readAllBytes(file));
+        } finally {
+            Files.deleteIfExists(other);
+        }
+    }
+
+    /**
+     * Tests opening a file cut short inside its header.
+     * Validates that it is rejected rather than resumed.
+     */
+    @Test
+    public void testTruncatedHeader() throws IOException {
+        try (GameCheckpoint checkpoint = GameCheckpoint.create(file, NAMES, RuleSet.DEFAULT,
+                new CountingRandom(GameRandom.Algorithm.SPLITTABLE, SEED))) {
+            play(checkpoint, 1);
+        }
+        byte[] data = Files.readAllBytes(file);
+        for (int length : new int[]{0, 4, GameCheckpoint.FIXED_HEADER_BYTES - 1, GameCheckpoint.FIXED_HEADER_BYTES + 3}) {
+            Files.write(file, Arrays.copyOf(data, length));
+            try {
+                GameCheckpoint.open(file).close();
+                fail("A checkpoint cut to " + length + " bytes was opened");
+            } catch (IOException e) {
+                // expected
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+import java.util.concurrent.locks.LockSupport;
+/**
+ * The GameEventLog class takes the events of a game from the game thread and hands them to a
+ * GameEventSink on a background writer thread, so the game never waits for the console or a file.
+ * Events are stored as plain numbers in a ring buffer that is allocated once; the writer drains
+ * everything published since its last pass as one batch and then flushes the sink.
+ * If the buffer is full, the game thread waits for the writer to catch up.
+ * Only one thread may publish events to a log. When the sink is GameEventSink.NO_OP, no writer
+ * is started and publishing does nothing.
+ */
+public class GameEventLog implements AutoCloseable {
+    private static final long IDLE_NANOS = 100_000L;
+
+    private final GameEventSink sink;
+    private final boolean enabled;
+    private final int mask;
+    private final GameEventType[] types;
+    private final int[] seats;
+    private final int[] firsts;
+    private final int[] seconds;
+    private final Thread writer;
+    // number of events published by the game thread and written by the writer; slots in between are in use
+    private volatile long published;
+    private volatile long written;
+    private volatile boolean closed;
+    private volatile RuntimeException failure;
+
+    /**
+     * Constructs a log that writes to the given sink through a buffer of the given size.
+     *
+     * @param sink     The sink that receives the events.
+     * @param capacity The number of events the buffer holds, rounded up to a power of two; must be at least 1.
+     * @throws IllegalArgumentException If the capacity is less than 1.
+     */
+    public GameEventLog(GameEventSink sink, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        this.sink = sink;
+        this.enabled = sink != GameEventSink.NO_OP;
+        int size = enabled ? Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1 : 1;
+        this.mask = size - 1;
+        this.types = new GameEventType[size];
+        this.seats = new int[size];
+        this.firsts = new int[size];
+        this.seconds = new int[size];
+        if (enabled) {
+            writer = new Thread(this::drain, "game-event-writer");
+            writer.setDaemon(true);
+            writer.start();
+        } else {
+            writer = null;
+        }
+    }
+
+    /**
+     * Checks if the events published to this log go anywhere, so that callers can skip work
+     * that is only needed to publish events.
+     *
+     * @return false if the sink is GameEventSink.NO_OP, true otherwise.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Publishes an event, waiting for room in the buffer if it is full.
+     *
+     * @param type   the kind of event
+     * @param seat   the seat of the player the event is about, in turn order starting at 0
+     * @param first  the first number of the event; see GameEventType
+     * @param second the second number of the event; see GameEventType
+     * @throws IllegalStateException If the log has been closed.
+     */
+    public void publish(GameEventType type, int seat, int first, int second) {
+        if (!enabled || failure != null) {
+            return;
+        }
+        if (closed) {
+            throw new IllegalStateException("The event log is closed");
+        }
+        long sequence = published;
+        while (sequence - written > mask) {
+            LockSupport.unpark(writer);
+            Thread.onSpinWait();
+            if (failure != null) {
+                return;
+            }
+        }
+        int slot = (int) sequence & mask;
+        types[slot] = type;
+        seats[slot] = seat;
+        firsts[slot] = first;
+        seconds[slot] = second;
+        published = sequence + 1; // the volatile write makes the slot visible to the writer
+        if (GameMetrics.ENABLED) {
+            GameMetrics.eventPublished();
+        }
+    }
+
+    /**
+     * Waits until every event published so far has been handed to the sink and flushed,
+     * for example before printing anything directly to the console.
+     */
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        long target = published;
+        while (written < target && failure == null && writer.isAlive()) {
+            LockSupport.unpark(writer);
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Writes out every remaining event and stops the writer thread.
+     *
+     * @throws IllegalStateException If the sink failed while writing events.
+     */
+    @Override
+    public void close() {
+        if (enabled && !closed) {
+            closed = true;
+            LockSupport.unpark(writer);
+            boolean interrupted = false;
+            while (writer.isAlive()) {
+                try {
+                    writer.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (failure != null) {
+            throw new IllegalStateException("The event sink failed", failure);
+        }
+    }
+
+    /**
+     * The writer thread's loop: hand every published event to the sink in batches until the log is closed.
+     */
+    private void drain() {
+        try {
+            while (true) {
+                long next = written;
+                long available = published;
+                if (next == available) {
+                    // published is read again after closed: the game thread publishes before it closes,
+                    // so an event published just before close is seen here and written out
+                    if (closed && published == next) {
+                        return;
+                    }
+                    LockSupport.parkNanos(this, IDLE_NANOS);
+                    continue;
+                }
+                for (long sequence = next; sequence < available; sequence++) {
+                    int slot = (int) sequence & mask;
+                    sink.event(types[slot], seats[slot], firsts[slot], seconds[slot]);
+                }
+                sink.flush();
+                written = available;
+            }
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+/**
+ * This class contains unit tests for the GameEventLog class, checking that every published
+ * event reaches the sink in order.
+ */
+public class GameEventLogTest {
+    /**
+     * A sink that remembers the events it receives, as "type seat first second" strings.
+     */
+    private static class RecordingSink implements GameEventSink {
+        final List<String> events = new ArrayList<>();
+        int flushes;
+
+        @Override
+        public void event(GameEventType type, int seat, int first, int second) {
+            events.add(type + " " + seat + " " + first + " " + second);
+        }
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+    }
+
+    /**
+     * Tests publishing events and closing the log straight away, many times over.
+     * Validates that close writes out every event, including those published just before it.
+     */
+    @Test
+    public void testPublishThenClose() {
+        for (int round = 0; round < 2000; round++) {
+            RecordingSink sink = new RecordingSink();
+            GameEventLog log = new GameEventLog(sink, 16);
+            int count = round % 5 + 1;
+            for (int i = 0; i < count; i++) {
+                log.publish(GameEventType.TURN_SCORED, i, round, i);
+            }
+            log.close();
+            assertEquals("round " + round, count, sink.events.size());
+            assertEquals(GameEventType.TURN_SCORED + " " + (count - 1) + " " + round + " " + (count - 1),
+                    sink.events.get(count - 1));
+        }
+    }
+
+    /**
+     * Tests publishing many more events than the buffer holds.
+     * Validates that the game thread waits for room and no event is lost or reordered.
+     */
+    @Test
+    public void testSmallBufferKeepsOrder() {
+        RecordingSink sink = new RecordingSink();
+        GameEventLog log = new GameEventLog(sink, 2);
+        for (int i = 0; i < 10_000; i++) {
+            log.publish(GameEventType.DIE_ROLLED, 0, i, 0);
+        }
+        log.close();
+        assertEquals(10_000, sink.events.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(GameEventType.DIE_ROLLED + " 0 " + i + " 0", sink.events.get(i));
+        }
+        assertTrue(sink.flushes > 0);
+    }
+
+    /**
+     * Tests that flush waits for every published event to reach the sink.
+     */
+    @Test
+    public void testFlushWaitsForEvents() {
+        RecordingSink sink = new RecordingSink();
+        GameEventLog log = new GameEventLog(sink, 8);
+        log.publish(GameEventType.GAME_WON, 1, 104, 0);
+        log.flush();
+        assertEquals(1, sink.events.size());
+        log.close();
+    }
+
+    /**
+     * Tests publishing to a closed log.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testPublishAfterClose() {
+        GameEventLog log = new GameEventLog(new RecordingSink(), 8);
+        log.close();
+        log.publish(GameEventType.GAME_WON, 0, 100, 0);
+    }
+}
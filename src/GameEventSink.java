@@ -0,0 +1,35 @@
+/**
+ * Receives the events of a game of Stuck in the Mud from the background writer of a GameEventLog.
+ * Events arrive in batches, one call to event per event followed by one call to flush per batch,
+ * always from the same writer thread.
+ */
+public interface GameEventSink {
+
+    /**
+     * A sink that discards every event. A GameEventLog writing to it does no work at all.
+     */
+    GameEventSink NO_OP = new GameEventSink() {
+        @Override
+        public void event(GameEventType type, int seat, int first, int second) {
+        }
+
+        @Override
+        public void flush() {
+        }
+    };
+
+    /**
+     * Receives a single event.
+     *
+     * @param type   the kind of event
+     * @param seat   the seat of the player the event is about, in turn order starting at 0
+     * @param first  the first number of the event; see GameEventType
+     * @param second the second number of the event; see GameEventType
+     */
+    public void event(GameEventType type, int seat, int first, int second);
+
+    /**
+     * Called after each batch of events, so that buffered output can be written out.
+     */
+    public void flush();
+}
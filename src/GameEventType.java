@@ -0,0 +1,16 @@
+/**
+ * The kinds of events a game of Stuck in the Mud reports through a GameEventLog.
+ * Every event has a seat and two numbers whose meaning depends on the kind of event.
+ */
+public enum GameEventType {
+    /** A player starts a turn; neither number is used. */
+    TURN_STARTED,
+    /** A die rolled a face that scores; the numbers are the die index and the face. */
+    DIE_ROLLED,
+    /** A die got stuck in the mud; the numbers are the die index and the face, or 0 if it was already stuck. */
+    DIE_STUCK,
+    /** A turn ended; the numbers are the turn score and the player's new total score. */
+    TURN_SCORED,
+    /** A player won; the first number is the winning score and the second is not used. */
+    GAME_WON
+}
@@ -0,0 +1,361 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+/**
+ * The GameMetrics class measures games of Stuck in the Mud and the lists they are played with while
+ * they run: counters of games, turns, events and list searches, and MetricHistograms of turn and game
+ * durations, of how many nodes each CircularLinkedList search goes through, and of how many bytes
+ * each GameServer table allocates during its game.
+ * Games, turns and wins are also emitted as JDK Flight Recorder events in the "Stuck in the Mud" category,
+ * which a recording picks up like any other JFR event.
+ * Metrics are off unless the JVM is started with -Dstuckinthemud.metrics=true. The code that records them
+ * checks ENABLED first, and as it is a constant the JIT compiler removes that code altogether when it is
+ * false, so the games and lists run exactly as fast as without metrics.
+ * Every method is thread safe. snapshot takes a copy of every metric, which can be written out as text
+ * or JSON, and export writes it to a file.
+ */
+public final class GameMetrics {
+    /**
+     * Whether metrics are recorded, set by the stuckinthemud.metrics system property when the class is loaded.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("stuckinthemud.metrics");
+
+    private static final LongAdder GAMES_STARTED = new LongAdder();
+    private static final LongAdder GAMES_WON = new LongAdder();
+    private static final LongAdder TURNS = new LongAdder();
+    private static final LongAdder EVENTS = new LongAdder();
+    private static final LongAdder LIST_SEARCHES = new LongAdder();
+    private static final MetricHistogram TURN_NANOS = new MetricHistogram();
+    private static final MetricHistogram GAME_NANOS = new MetricHistogram();
+    private static final MetricHistogram LIST_HOPS = new MetricHistogram();
+    private static final MetricHistogram TABLE_BYTES = new MetricHistogram();
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static volatile long startNanos = System.nanoTime();
+
+    /**
+     * The JFR event of a game starting.
+     */
+    @Name("stuckinthemud.GameStarted")
+    @Label("Game Started")
+    @Category("Stuck in the Mud")
+    static class GameStartedEvent extends Event {
+        @Label("Players")
+        int players;
+    }
+
+    /**
+     * The JFR event of a turn being scored.
+     */
+    @Name("stuckinthemud.TurnTaken")
+    @Label("Turn Taken")
+    @Category("Stuck in the Mud")
+    static class TurnTakenEvent extends Event {
+        @Label("Seat")
+        int seat;
+        @Label("Turn Score")
+        int turnScore;
+        @Label("Score")
+        int score;
+        @Label("Turn Duration")
+        @Description("From the start of the turn to its score, including any pauses between rolls")
+        @Timespan(Timespan.NANOSECONDS)
+        long turnDuration;
+    }
+
+    /**
+     * The JFR event of a game being won.
+     */
+    @Name("stuckinthemud.GameWon")
+    @Label("Game Won")
+    @Category("Stuck in the Mud")
+    static class GameWonEvent extends Event {
+        @Label("Winner")
+        int winner;
+        @Label("Turns")
+        int turns;
+        @Label("Game Duration")
+        @Timespan(Timespan.NANOSECONDS)
+        long gameDuration;
+    }
+
+    private GameMetrics() {
+    }
+
+    /**
+     * Records a game starting. Call only when ENABLED.
+     *
+     * @param players The number of players.
+     */
+    static void gameStarted(int players) {
+        GAMES_STARTED.increment();
+        GameStartedEvent event = new GameStartedEvent();
+        if (event.shouldCommit()) {
+            event.players = players;
+            event.commit();
+        }
+    }
+
+    /**
+     * Records a turn being scored. Call only when ENABLED.
+     *
+     * @param turnStartNanos The System.nanoTime at the start of the turn.
+     * @param seat           The seat of the player who took the turn.
+     * @param turnScore      The score of the turn.
+     * @param score          The player's score after the turn.
+     */
+    static void turnTaken(long turnStartNanos, int seat, int turnScore, int score) {
+        long duration = System.nanoTime() - turnStartNanos;
+        TURNS.increment();
+        TURN_NANOS.record(duration);
+        TurnTakenEvent event = new TurnTakenEvent();
+        if (event.shouldCommit()) {
+            event.seat = seat;
+            event.turnScore = turnScore;
+            event.score = score;
+            event.turnDuration = duration;
+            event.commit();
+        }
+    }
+
+    /**
+     * Records a game being won. Call only when ENABLED.
+     *
+     * @param gameStartNanos The System.nanoTime at the start of the game.
+     * @param winner         The seat of the winner.
+     * @param turns          The number of turns taken.
+     */
+    static void gameWon(long gameStartNanos, int winner, int turns) {
+        long duration = System.nanoTime() - gameStartNanos;
+        GAMES_WON.increment();
+        GAME_NANOS.record(duration);
+        GameWonEvent event = new GameWonEvent();
+        if (event.shouldCommit()) {
+            event.winner = winner;
+            event.turns = turns;
+            event.gameDuration = duration;
+            event.commit();
+        }
+    }
+
+    /**
+     * Records a game event being published. Call only when ENABLED.
+     */
+    static void eventPublished() {
+        EVENTS.increment();
+    }
+
+    /**
+     * Records a search of a list by position or value. Call only when ENABLED.
+     *
+     * @param hops The number of nodes the search went through.
+     */
+    static void listSearched(int hops) {
+        LIST_SEARCHES.increment();
+        LIST_HOPS.record(hops);
+    }
+
+    /**
+     * Records the bytes a table allocated during its game. Call only when ENABLED.
+     *
+     * @param bytes The bytes allocated.
+     */
+    static void tableAllocated(long bytes) {
+        TABLE_BYTES.record(bytes);
+    }
+
+    /**
+     * Gets the number of bytes the current thread has allocated since it started, for measuring how much
+     * a piece of work allocates.
+     *
+     * @return The bytes allocated, or 0 if the JVM cannot measure it.
+     */
+    static long threadAllocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            long bytes = ((com.sun.management.ThreadMXBean) THREADS).getCurrentThreadAllocatedBytes();
+            return Math.max(bytes, 0);
+        }
+        return 0;
+    }
+
+    /**
+     * Sets every metric back to zero and restarts the clock that rates are measured by.
+     */
+    public static void reset() {
+        GAMES_STARTED.reset();
+        GAMES_WON.reset();
+        TURNS.reset();
+        EVENTS.reset();
+        LIST_SEARCHES.reset();
+        TURN_NANOS.reset();
+        GAME_NANOS.reset();
+        LIST_HOPS.reset();
+        TABLE_BYTES.reset();
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Takes a copy of every metric.
+     *
+     * @return The metrics at this moment.
+     */
+    public static Snapshot snapshot() {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        counters.put("gamesStarted", GAMES_STARTED.sum());
+        counters.put("gamesWon", GAMES_WON.sum());
+        counters.put("turns", TURNS.sum());
+        counters.put("events", EVENTS.sum());
+        counters.put("listSearches", LIST_SEARCHES.sum());
+        Map<String, MetricHistogram.Snapshot> histograms = new LinkedHashMap<>();
+        histograms.put("turnNanos", TURN_NANOS.snapshot());
+        histograms.put("gameNanos", GAME_NANOS.snapshot());
+        histograms.put("listHops", LIST_HOPS.snapshot());
+        histograms.put("tableAllocatedBytes", TABLE_BYTES.snapshot());
+        return new Snapshot(System.nanoTime() - startNanos, counters, histograms);
+    }
+
+    /**
+     * Writes every metric to a file, as JSON if the file name ends in ".json" and as text otherwise,
+     * replacing the file if it exists.
+     *
+     * @param file The file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void export(Path file) throws IOException {
+        Snapshot snapshot = snapshot();
+        String text = file.getFileName().toString().endsWith(".json") ? snapshot.toJson() : snapshot.toText();
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Every metric at one moment.
+     */
+    public static final class Snapshot {
+        private final long elapsedNanos;
+        private final Map<String, Long> counters;
+        private final Map<String, MetricHistogram.Snapshot> histograms;
+
+        Snapshot(long elapsedNanos, Map<String, Long> counters, Map<String, MetricHistogram.Snapshot> histograms) {
+            this.elapsedNanos = elapsedNanos;
+            this.counters = counters;
+            this.histograms = histograms;
+        }
+
+        /**
+         * Gets the time since metrics started being recorded or were last reset.
+         *
+         * @return The elapsed time in nanoseconds.
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Gets a counter: gamesStarted, gamesWon, turns, events or listSearches.
+         *
+         * @param name The name of the counter.
+         * @return The count.
+         * @throws IllegalArgumentException If there is no counter with that name.
+         */
+        public long getCounter(String name) {
+            Long value = counters.get(name);
+            if (value == null) {
+                throw new IllegalArgumentException("No counter named " + name);
+            }
+            return value;
+        }
+
+        /**
+         * Gets a counter's average rate per second since metrics started being recorded or were last reset.
+         *
+         * @param name The name of the counter.
+         * @return The rate per second.
+         * @throws IllegalArgumentException If there is no counter with that name.
+         */
+        public double getRate(String name) {
+            return elapsedNanos == 0 ? 0.0 : getCounter(name) * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * Gets a histogram: turnNanos, gameNanos, listHops or tableAllocatedBytes.
+         *
+         * @param name The name of the histogram.
+         * @return The histogram's statistics.
+         * @throws IllegalArgumentException If there is no histogram with that name.
+         */
+        public MetricHistogram.Snapshot getHistogram(String name) {
+            MetricHistogram.Snapshot histogram = histograms.get(name);
+            if (histogram == null) {
+                throw new IllegalArgumentException("No histogram named " + name);
+            }
+            return histogram;
+        }
+
+        /**
+         * Writes the metrics as text, one per line: each counter with its rate per second,
+         * then each histogram's statistics.
+         *
+         * @return The metrics as text.
+         */
+        public String toText() {
+            StringBuilder text = new StringBuilder();
+            text.append(String.format(Locale.ROOT, "elapsedSeconds %.3f%n", elapsedNanos / 1e9));
+            for (Map.Entry<String, Long> counter : counters.entrySet()) {
+                text.append(String.format(Locale.ROOT, "%s %d (%.1f/s)%n",
+                        counter.getKey(), counter.getValue(), getRate(counter.getKey())));
+            }
+            for (Map.Entry<String, MetricHistogram.Snapshot> histogram : histograms.entrySet()) {
+                text.append(histogram.getKey()).append(' ').append(histogram.getValue().toText())
+                        .append(System.lineSeparator());
+            }
+            return text.toString();
+        }
+
+        /**
+         * Writes the metrics as a JSON object with the elapsed time, the counters, their rates per second
+         * and the histograms.
+         *
+         * @return The metrics as JSON.
+         */
+        public String toJson() {
+            StringBuilder json = new StringBuilder();
+            json.append(String.format(Locale.ROOT, "{\"elapsedSeconds\":%.3f,\"counters\":{", elapsedNanos / 1e9));
+            String separator = "";
+            for (Map.Entry<String, Long> counter : counters.entrySet()) {
+                json.append(separator).append('"').append(counter.getKey()).append("\":").append(counter.getValue());
+                separator = ",";
+            }
+            json.append("},\"ratesPerSecond\":{");
+            separator = "";
+            for (String name : counters.keySet()) {
+                json.append(separator).append(String.format(Locale.ROOT, "\"%s\":%.1f", name, getRate(name)));
+                separator = ",";
+            }
+            json.append("},\"histograms\":{");
+            separator = "";
+            for (Map.Entry<String, MetricHistogram.Snapshot> histogram : histograms.entrySet()) {
+                json.append(separator).append('"').append(histogram.getKey()).append("\":")
+                        .append(histogram.getValue().toJson());
+                separator = ",";
+            }
+            return json.append("}}").toString();
+        }
+
+        @Override
+        public String toString() {
+            return toText();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+/**
+ * This class contains unit tests for the GameMetrics class: the snapshot of its counters and histograms
+ * and its export as text and JSON.
+ */
+public class GameMetricsTest {
+    private Path json;
+    private Path text;
+
+    @Before
+    public void setUp() throws IOException {
+        GameMetrics.reset();
+        json = Files.createTempFile("metrics", ".json");
+        text = Files.createTempFile("metrics", ".txt");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        GameMetrics.reset();
+        Files.deleteIfExists(json);
+        Files.deleteIfExists(text);
+    }
+
+    /**
+     * Records two games, three turns, five events, two list searches and a table allocation.
+     */
+    private static void record() {
+        GameMetrics.gameStarted(4);
+        GameMetrics.gameStarted(2);
+        long now = System.nanoTime();
+        GameMetrics.turnTaken(now - 1_000, 0, 10, 10);
+        GameMetrics.turnTaken(now - 2_000, 1, 0, 0);
+        GameMetrics.turnTaken(now - 3_000, 0, 8, 18);
+        GameMetrics.gameWon(now - 50_000, 0, 3);
+        for (int i = 0; i < 5; i++) {
+            GameMetrics.eventPublished();
+        }
+        GameMetrics.listSearched(3);
+        GameMetrics.listSearched(7);
+        GameMetrics.tableAllocated(100);
+    }
+
+    /**
+     * Tests the snapshot of the recorded metrics.
+     * Validates that every counter and histogram holds what the hooks recorded.
+     */
+    @Test
+    public void testSnapshot() {
+        record();
+        GameMetrics.Snapshot snapshot = GameMetrics.snapshot();
+        assertEquals(2, snapshot.getCounter("gamesStarted"));
+        assertEquals(1, snapshot.getCounter("gamesWon"));
+        assertEquals(3, snapshot.getCounter("turns"));
+        assertEquals(5, snapshot.getCounter("events"));
+        assertEquals(2, snapshot.getCounter("listSearches"));
+        assertTrue(snapshot.getElapsedNanos() > 0);
+        assertTrue(snapshot.getRate("turns") > 0);
+
+        MetricHistogram.Snapshot turns = snapshot.getHistogram("turnNanos");
+        assertEquals(3, turns.getCount());
+        assertTrue(turns.getMax() >= 3_000);
+        MetricHistogram.Snapshot games = snapshot.getHistogram("gameNanos");
+        assertEquals(1, games.getCount());
+        assertTrue(games.getMax() >= 50_000);
+        MetricHistogram.Snapshot hops = snapshot.getHistogram("listHops");
+        assertEquals(2, hops.getCount());
+        assertEquals(7, hops.getMax());
+        assertEquals(5.0, hops.getMean(), 0.0);
+        MetricHistogram.Snapshot bytes = snapshot.getHistogram("tableAllocatedBytes");
+        assertEquals(1, bytes.getCount());
+        assertEquals(100, bytes.getMax());
+    }
+
+    /**
+     * Tests resetting the metrics.
+     * Validates that every counter and histogram is back to zero.
+     */
+    @Test
+    public void testReset() {
+        record();
+        GameMetrics.reset();
+        GameMetrics.Snapshot snapshot = GameMetrics.snapshot();
+        for (String name : new String[] {"gamesStarted", "gamesWon", "turns", "events", "listSearches"}) {
+            assertEquals(0, snapshot.getCounter(name));
+        }
+        for (String name : new String[] {"turnNanos", "gameNanos", "listHops", "tableAllocatedBytes"}) {
+            assertEquals(0, snapshot.getHistogram(name).getCount());
+        }
+    }
+
+    /**
+     * Tests asking for a counter or histogram that does not exist.
+     * Validates that an IllegalArgumentException is thrown.
+     */
+    @Test
+    public void testUnknownName() {
+        GameMetrics.Snapshot snapshot = GameMetrics.snapshot();
+        try {
+            snapshot.getCounter("nothing");
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            snapshot.getHistogram("nothing");
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Tests exporting to a file ending in ".json".
+     * Validates that the file is well-formed JSON holding the counters, rates and histograms.
+     */
+    @Test
+    public void testExportJson() throws IOException {
+        record();
+        GameMetrics.export(json);
+        String written = new String(Files.readAllBytes(json), StandardCharsets.UTF_8);
+        new JsonChecker(written).check();
+        assertTrue(written.contains("\"counters\":{\"gamesStarted\":2,\"gamesWon\":1,\"turns\":3,"
+                + "\"events\":5,\"listSearches\":2}"));
+        assertTrue(written.contains("\"ratesPerSecond\":{"));
+        assertTrue(written.contains("\"listHops\":{\"count\":2,"));
+        assertTrue(written.contains("\"tableAllocatedBytes\":{\"count\":1,"));
+    }
+
+    /**
+     * Tests exporting to a file not ending in ".json".
+     * Validates that the file holds the text form, one metric per line.
+     */
+    @Test
+    public void testExportText() throws IOException {
+        record();
+        GameMetrics.export(text);
+        String written = new String(Files.readAllBytes(text), StandardCharsets.UTF_8);
+        String[] lines = written.split(System.lineSeparator());
+        assertEquals(10, lines.length);
+        assertTrue(lines[0].startsWith("elapsedSeconds "));
+        assertTrue(lines[1].startsWith("gamesStarted 2 ("));
+        assertTrue(lines[4].startsWith("events 5 ("));
+        assertTrue(lines[8].startsWith("listHops count=2 "));
+        assertTrue(lines[9].startsWith("tableAllocatedBytes count=1 "));
+    }
+
+    /**
+     * Checks that a string is a single well-formed JSON value of the kinds GameMetrics writes:
+     * objects, strings without escapes, and numbers.
+     */
+    private static final class JsonChecker {
+        private final String json;
+        private int position;
+
+        JsonChecker(String json) {
+            this.json = json;
+        }
+
+        void check() {
+            value();
+            assertEquals("Trailing text in " + json, json.length(), position);
+        }
+
+        private void value() {
+            char c = peek();
+            if (c == '{') {
+                object();
+            } else if (c == '"') {
+                string();
+            } else {
+                number();
+            }
+        }
+
+        private void object() {
+            expect('{');
+            if (peek() == '}') {
+                position++;
+                return;
+            }
+            while (true) {
+                string();
+                expect(':');
+                value();
+                if (peek() == '}') {
+                    position++;
+                    return;
+                }
+                expect(',');
+            }
+        }
+
+        private void string() {
+            expect('"');
+            int end = json.indexOf('"', position);
+            assertTrue("Unterminated string in " + json, end > position);
+            position = end + 1;
+        }
+
+        private void number() {
+            int start = position;
+            if (peek() == '-') {
+                position++;
+            }
+            while (position < json.length() && (Character.isDigit(json.charAt(position)) || json.charAt(position) == '.')) {
+                position++;
+            }
+            String number = json.substring(start, position);
+            assertTrue("Bad number at " + start + " in " + json, number.matches("-?\\d+(\\.\\d+)?"));
+        }
+
+        private void expect(char c) {
+            assertEquals("At " + position + " in " + json, c, peek());
+            position++;
+        }
+
+        private char peek() {
+            assertTrue("Unexpected end of " + json, position < json.length());
+            return json.charAt(position);
+        }
+    }
+}
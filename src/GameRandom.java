@@ -0,0 +1,123 @@
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+/**
+ * The GameRandom class creates seeded random number generators for games of Stuck in the Mud,
+ * so that any game can be played again die for die from its algorithm and seed.
+ * It also has a quick statistical sanity check of a generator's die rolls.
+ */
+public final class GameRandom {
+    /**
+     * The critical value of the chi-square distribution with 5 degrees of freedom at p = 0.001.
+     */
+    private static final double FACE_CRITICAL_VALUE = 20.515;
+    /**
+     * The critical value of the chi-square distribution with 35 degrees of freedom at p = 0.001.
+     */
+    private static final double PAIR_CRITICAL_VALUE = 66.619;
+
+    /**
+     * The random number generator algorithms a game can be played with.
+     */
+    public enum Algorithm {
+        /** java.util.Random, the generator StuckInTheMud has always used; slow but familiar. */
+        LEGACY("Random"),
+        /** java.util.SplittableRandom, the default of HeadlessEngine and TournamentRunner. */
+        SPLITTABLE("SplittableRandom"),
+        /** L64X128MixRandom, a fast LXM generator with good statistical quality. */
+        L64X128_MIX("L64X128MixRandom"),
+        /** Xoroshiro128PlusPlus, the fastest of the generators. */
+        XOROSHIRO128_PLUS_PLUS("Xoroshiro128PlusPlus");
+
+        private final String generatorName;
+
+        Algorithm(String generatorName) {
+            this.generatorName = generatorName;
+        }
+
+        /**
+         * Gets the name of the algorithm as known to RandomGeneratorFactory.
+         *
+         * @return The generator name.
+         */
+        public String getGeneratorName() {
+            return generatorName;
+        }
+    }
+
+    private GameRandom() {
+    }
+
+    /**
+     * Creates a random number generator of the given algorithm from a seed.
+     * Two generators created with the same algorithm and seed produce the same numbers,
+     * on every run and every machine.
+     *
+     * @param algorithm The algorithm of the generator.
+     * @param seed      The seed.
+     * @return A new random number generator.
+     */
+    public static RandomGenerator create(Algorithm algorithm, long seed) {
+        return RandomGeneratorFactory.of(algorithm.getGeneratorName()).create(seed);
+    }
+
+    /**
+     * Computes the chi-square statistic of die rolls made with the given generator, counting
+     * how often each of the six faces comes up.
+     *
+     * @param random The random number generator to roll with.
+     * @param rolls  The number of dice to roll; must be positive.
+     * @return The chi-square statistic, with 5 degrees of freedom.
+     */
+    public static double faceChiSquare(RandomGenerator random, long rolls) {
+        long[] counts = new long[6];
+        for (long i = 0; i < rolls; i++) {
+            counts[random.nextInt(6)]++;
+        }
+        return chiSquare(counts, rolls);
+    }
+
+    /**
+     * Computes the chi-square statistic of pairs of consecutive die rolls made with the given generator,
+     * counting how often each of the 36 pairs of faces comes up. This catches generators whose rolls
+     * depend on the roll before, which counting single faces does not.
+     *
+     * @param random The random number generator to roll with.
+     * @param pairs  The number of pairs of dice to roll; must be positive.
+     * @return The chi-square statistic, with 35 degrees of freedom.
+     */
+    public static double pairChiSquare(RandomGenerator random, long pairs) {
+        long[] counts = new long[36];
+        for (long i = 0; i < pairs; i++) {
+            counts[random.nextInt(6) * 6 + random.nextInt(6)]++;
+        }
+        return chiSquare(counts, pairs);
+    }
+
+    /**
+     * Checks that a generator's die rolls look uniform and independent. The single face and
+     * pair of faces chi-square statistics must both be below their critical values at p = 0.001,
+     * so a good generator fails the check only about once in 500 runs.
+     *
+     * @param random The random number generator to check; the check draws 3 * rolls numbers from it.
+     * @param rolls  The number of dice rolled by each test; a million is plenty.
+     * @return true if the generator passes both tests, false otherwise.
+     * @throws IllegalArgumentException If the number of rolls is too small for the test to be valid.
+     */
+    public static boolean isSane(RandomGenerator random, long rolls) {
+        if (rolls < 36 * 5) {
+            throw new IllegalArgumentException("At least " + 36 * 5 + " rolls are needed");
+        }
+        return faceChiSquare(random, rolls) < FACE_CRITICAL_VALUE
+                && pairChiSquare(random, rolls) < PAIR_CRITICAL_VALUE;
+    }
+
+    private static double chiSquare(long[] counts, long total) {
+        double expected = (double) total / counts.length;
+        double sum = 0.0;
+        for (long count : counts) {
+            double difference = count - expected;
+            sum += difference * difference / expected;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,116 @@
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.random.RandomGenerator;
+
+import static org.junit.Assert.*;
+/**
+ * This class contains unit tests for the GameRandom class: seeded generators and their sanity check.
+ */
+public class GameRandomTest {
+    /**
+     * A generator whose dice go 1, 2, 3, 4, 5, 6 and around again: every face equally often,
+     * but every roll given away by the one before.
+     */
+    private static final class CyclingRandom implements RandomGenerator {
+        private int next;
+
+        @Override
+        public long nextLong() {
+            return next;
+        }
+
+        @Override
+        public int nextInt(int bound) {
+            int value = next % bound;
+            next = (next + 1) % 6;
+            return value;
+        }
+    }
+
+    /**
+     * A generator whose dice show 1 twice as often as any other face.
+     */
+    private static final class LoadedRandom implements RandomGenerator {
+        private final Random random = new Random(1);
+
+        @Override
+        public long nextLong() {
+            return random.nextLong();
+        }
+
+        @Override
+        public int nextInt(int bound) {
+            int value = random.nextInt(bound + 1);
+            return value == bound ? 0 : value;
+        }
+    }
+
+    /**
+     * Tests generators created twice with the same algorithm and seed.
+     * Validates that they produce the same numbers, that another seed produces others,
+     * and that LEGACY is java.util.Random.
+     */
+    @Test
+    public void testSameSeedSameSequence() {
+        for (GameRandom.Algorithm algorithm : GameRandom.Algorithm.values()) {
+            RandomGenerator first = GameRandom.create(algorithm, 99L);
+            RandomGenerator second = GameRandom.create(algorithm, 99L);
+            RandomGenerator other = GameRandom.create(algorithm, 100L);
+            boolean differs = false;
+            for (int i = 0; i < 1000; i++) {
+                long value = first.nextLong();
+                assertEquals(algorithm + " draw " + i, value, second.nextLong());
+                differs |= value != other.nextLong();
+            }
+            assertTrue(algorithm + " ignores its seed", differs);
+        }
+        RandomGenerator legacy = GameRandom.create(GameRandom.Algorithm.LEGACY, 7L);
+        Random random = new Random(7L);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(random.nextInt(6), legacy.nextInt(6));
+        }
+    }
+
+    /**
+     * Tests the sanity check on every built-in algorithm.
+     * Validates that each one passes.
+     */
+    @Test
+    public void testBuiltInAlgorithmsAreSane() {
+        for (GameRandom.Algorithm algorithm : GameRandom.Algorithm.values()) {
+            assertTrue(algorithm.toString(), GameRandom.isSane(GameRandom.create(algorithm, 2024L), 1_000_000));
+        }
+    }
+
+    /**
+     * Tests the sanity check on a loaded die.
+     * Validates that its faces fail the single face test and the whole check.
+     */
+    @Test
+    public void testRejectsLoadedDie() {
+        assertTrue(GameRandom.faceChiSquare(new LoadedRandom(), 100_000) > 1000);
+        assertFalse(GameRandom.isSane(new LoadedRandom(), 100_000));
+    }
+
+    /**
+     * Tests the statistics of dice that cycle through the faces in order.
+     * Validates that the single face statistic is exactly 0, since every face comes up equally often,
+     * while the pair statistic is the exact value for three pairs coming up every time, and the check fails.
+     */
+    @Test
+    public void testRejectsDependentRolls() {
+        assertEquals(0.0, GameRandom.faceChiSquare(new CyclingRandom(), 600), 0.0);
+        // 360 pairs of which (1, 2), (3, 4) and (5, 6) come up 120 times each, against 10 expected for all 36
+        assertEquals(3 * 110.0 * 110.0 / 10 + 33 * 10, GameRandom.pairChiSquare(new CyclingRandom(), 360), 1e-9);
+        assertFalse(GameRandom.isSane(new CyclingRandom(), 100_000));
+    }
+
+    /**
+     * Tests the sanity check with too few rolls for the chi-square approximation.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooFewRolls() {
+        GameRandom.isSane(new Random(), 100);
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * The GameResult class holds the outcome of a single game of Stuck in the Mud
+ * played by the HeadlessEngine: the winning seat, the final scores and the number of turns taken.
+ */
+public class GameResult {
+    private final int winner;
+    private final int[] scores;
+    private final int turns;
+
+    /**
+     * Constructs a new result for a finished game.
+     *
+     * @param winner The seat of the winning player, in turn order starting at 0.
+     * @param scores The final score of each seat; the array is kept, not copied.
+     * @param turns  The total number of turns taken by all players.
+     */
+    GameResult(int winner, int[] scores, int turns) {
+        this.winner = winner;
+        this.scores = scores;
+        this.turns = turns;
+    }
+
+    /**
+     * Gets the seat of the player who won the game.
+     *
+     * @return The winning seat, in turn order starting at 0.
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    /**
+     * Gets the number of players that took part in the game.
+     *
+     * @return The player count.
+     */
+    public int getPlayerCount() {
+        return scores.length;
+    }
+
+    /**
+     * Gets the final score of the player in the given seat.
+     *
+     * @param seat The seat of the player, in turn order starting at 0.
+     * @return The final score of that player.
+     */
+    public int getScore(int seat) {
+        return scores[seat];
+    }
+
+    /**
+     * Gets the total number of turns taken in the game, counting every player's turns.
+     *
+     * @return The turn count.
+     */
+    public int getTurns() {
+        return turns;
+    }
+
+    /**
+     * Provides a string representation of the result, including the winner,
+     * the number of turns and the final scores.
+     *
+     * @return A string representing the result.
+     */
+    @Override
+    public String toString() {
+        return "GameResult{" +
+                "winner=" + winner +
+                ", turns=" + turns +
+                ", scores=" + java.util.Arrays.toString(scores) +
+                '}';
+    }
+}
@@ -0,0 +1,216 @@
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+/**
+ * The GameServer class hosts many tables of Stuck in the Mud at once. Each table goes through
+ * the same life: it is created, players join it, its game is started and played, and it finishes when
+ * a player wins. Finished tables stay on the server, so their results can be read, until they are removed.
+ * Tables do not have threads of their own. Every game is a GameTable state machine that a small pool of
+ * scheduler threads advances one die roll at a time, keeping the pauses between rolls of StuckInTheMud
+ * as scheduling delays, so a server can run a hundred thousand tables with a handful of threads.
+ * Each table reports its events to its own GameEventSink, called from the scheduler threads one event
+ * at a time; a sink shared by several tables must be thread safe.
+ */
+public class GameServer implements AutoCloseable {
+    /**
+     * The largest number of players that can join one table.
+     */
+    public static final int MAX_SEATS = 64;
+
+    private final RuleSet rules;
+    private final long turnDelayMillis;
+    private final long dieDelayMillis;
+    private final ScheduledExecutorService scheduler;
+    private final ConcurrentHashMap<Long, GameTable> tables;
+    private final AtomicLong nextId;
+
+    /**
+     * Constructs a server for the default rules with one scheduler thread per processor, pausing
+     * between rolls like StuckInTheMud.
+     */
+    public GameServer() {
+        this(RuleSet.DEFAULT, Runtime.getRuntime().availableProcessors(), 300, 500);
+    }
+
+    /**
+     * Constructs a server.
+     *
+     * @param rules           The rules of every game on the server.
+     * @param threads         The number of scheduler threads that play the games.
+     * @param turnDelayMillis The pause in milliseconds between the start of a turn and its first roll.
+     * @param dieDelayMillis  The pause in milliseconds after each roll; 0 plays games as fast as possible.
+     * @throws IllegalArgumentException If there are no threads or a delay is negative.
+     */
+    public GameServer(RuleSet rules, int threads, long turnDelayMillis, long dieDelayMillis) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("A server needs at least one thread");
+        }
+        if (turnDelayMillis < 0 || dieDelayMillis < 0) {
+            throw new IllegalArgumentException("Delays cannot be negative");
+        }
+        this.rules = rules;
+        this.turnDelayMillis = turnDelayMillis;
+        this.dieDelayMillis = dieDelayMillis;
+        AtomicLong threadCount = new AtomicLong();
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(threads, runnable -> {
+            Thread thread = new Thread(runnable, "game-server-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        this.scheduler = executor;
+        this.tables = new ConcurrentHashMap<>();
+        this.nextId = new AtomicLong();
+    }
+
+    /**
+     * Gets the rules of the games on the server.
+     *
+     * @return The rule set.
+     */
+    public RuleSet getRules() {
+        return rules;
+    }
+
+    /**
+     * Gets the number of tables on the server, including finished tables that have not been removed.
+     *
+     * @return The table count.
+     */
+    public int getTableCount() {
+        return tables.size();
+    }
+
+    /**
+     * Creates a new table whose events are discarded.
+     *
+     * @return The id of the table.
+     */
+    public long createTable() {
+        return createTable(GameEventSink.NO_OP);
+    }
+
+    /**
+     * Creates a new table that reports its events to the given sink.
+     *
+     * @param eventSink The sink that receives every event of the table's game.
+     * @return The id of the table.
+     */
+    public long createTable(GameEventSink eventSink) {
+        long id = nextId.incrementAndGet();
+        tables.put(id, new GameTable(id, rules, eventSink, turnDelayMillis, dieDelayMillis));
+        return id;
+    }
+
+    /**
+     * Gets a table on the server.
+     *
+     * @param tableId The id of the table.
+     * @return The table.
+     * @throws IllegalArgumentException If there is no table with that id.
+     */
+    public GameTable getTable(long tableId) {
+        GameTable table = tables.get(tableId);
+        if (table == null) {
+            throw new IllegalArgumentException("No such table: " + tableId);
+        }
+        return table;
+    }
+
+    /**
+     * Seats a new player at a table that has not started yet.
+     *
+     * @param tableId The id of the table.
+     * @param name    The name of the player.
+     * @return The seat of the player, in the order players joined starting at 0.
+     * @throws IllegalArgumentException If there is no table with that id.
+     * @throws IllegalStateException    If the table has started or is full.
+     */
+    public int join(long tableId, String name) {
+        return getTable(tableId).join(name);
+    }
+
+    /**
+     * Starts the game at a table with a random seed, which can be read back with GameTable.getSeed.
+     *
+     * @param tableId The id of the table.
+     * @return The seed of the game.
+     * @throws IllegalArgumentException If there is no table with that id.
+     * @throws IllegalStateException    If the table has already started or has no players.
+     */
+    public long start(long tableId) {
+        long seed = ThreadLocalRandom.current().nextLong();
+        start(tableId, seed);
+        return seed;
+    }
+
+    /**
+     * Starts the game at a table with the given seed. The dice are rolled by a java.util.Random created
+     * from the seed, so the game rolls the same dice as a StuckInTheMud game with the same players,
+     * rules and seed.
+     *
+     * @param tableId The id of the table.
+     * @param seed    The seed of the game.
+     * @throws IllegalArgumentException If there is no table with that id.
+     * @throws IllegalStateException    If the table has already started or has no players.
+     */
+    public void start(long tableId, long seed) {
+        GameTable table = getTable(tableId);
+        table.start(seed, new Random(seed));
+        schedule(table, 0);
+    }
+
+    /**
+     * Removes a table from the server. A game still being played is stopped and its result is cancelled.
+     *
+     * @param tableId The id of the table.
+     * @return true if the table was removed, false if there was no table with that id.
+     */
+    public boolean removeTable(long tableId) {
+        GameTable table = tables.remove(tableId);
+        if (table == null) {
+            return false;
+        }
+        table.finish();
+        return true;
+    }
+
+    /**
+     * Stops every game on the server and its scheduler threads.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        for (GameTable table : tables.values()) {
+            table.finish();
+        }
+        tables.clear();
+    }
+
+    private void schedule(GameTable table, long delayMillis) {
+        if (!table.setNextStep(scheduler.schedule(() -> step(table), delayMillis, TimeUnit.MILLISECONDS))) {
+            table.finish();
+        }
+    }
+
+    private void step(GameTable table) {
+        long delay;
+        if (GameMetrics.ENABLED) {
+            long allocatedBefore = GameMetrics.threadAllocatedBytes();
+            delay = table.step();
+            table.addAllocatedBytes(GameMetrics.threadAllocatedBytes() - allocatedBefore);
+            if (delay < 0 && !table.result().isCancelled()) {
+                GameMetrics.tableAllocated(table.getAllocatedBytes());
+            }
+        } else {
+            delay = table.step();
+        }
+        if (delay >= 0) {
+            schedule(table, delay);
+        }
+    }
+}
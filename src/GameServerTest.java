@@ -0,0 +1,235 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+/**
+ * This class contains unit tests for the GameServer class, its GameTables, and the GameSocketServer that
+ * serves it over a loopback socket.
+ */
+public class GameServerTest {
+    private GameServer server;
+    private GameSocketServer socketServer;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new GameServer(RuleSet.DEFAULT, 2, 0, 0);
+        socketServer = new GameSocketServer(server, 0);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        socketServer.close();
+        server.close();
+    }
+
+    /**
+     * Tests a table's life from creation to a winner.
+     * Validates that the result completes, the table is finished, and its scores are the result's.
+     */
+    @Test
+    public void testTablePlaysToResult() throws Exception {
+        long tableId = server.createTable();
+        assertEquals(0, server.join(tableId, "Alice"));
+        assertEquals(1, server.join(tableId, "Bob"));
+        assertEquals(2, server.join(tableId, "Carol"));
+        server.start(tableId, 42L);
+        GameTable table = server.getTable(tableId);
+        GameResult result = table.result().get(10, TimeUnit.SECONDS);
+
+        assertEquals(GameTable.State.FINISHED, table.getState());
+        assertEquals(42L, table.getSeed());
+        assertEquals(3, result.getPlayerCount());
+        assertEquals(result.getTurns(), table.getTurns());
+        assertTrue(result.getScore(result.getWinner()) >= RuleSet.DEFAULT.getWinningScore());
+        for (int seat = 0; seat < 3; seat++) {
+            assertEquals(result.getScore(seat), table.getScore(seat));
+        }
+    }
+
+    /**
+     * Tests two tables started with the same seed.
+     * Validates that they play the same game.
+     */
+    @Test
+    public void testSameSeedSameGame() throws Exception {
+        long first = server.createTable();
+        long second = server.createTable();
+        for (long tableId : new long[]{first, second}) {
+            server.join(tableId, "Alice");
+            server.join(tableId, "Bob");
+            server.start(tableId, 7L);
+        }
+        GameResult a = server.getTable(first).result().get(10, TimeUnit.SECONDS);
+        GameResult b = server.getTable(second).result().get(10, TimeUnit.SECONDS);
+        assertEquals(a.getWinner(), b.getWinner());
+        assertEquals(a.getTurns(), b.getTurns());
+        assertEquals(a.getScore(0), b.getScore(0));
+        assertEquals(a.getScore(1), b.getScore(1));
+    }
+
+    /**
+     * Tests joining and starting a table at the wrong stage.
+     * Validates that an empty table cannot start and a started table cannot be joined or started again.
+     */
+    @Test
+    public void testInvalidTransitions() {
+        long tableId = server.createTable();
+        try {
+            server.start(tableId, 1L);
+            fail("An empty table started");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        server.join(tableId, "Alice");
+        server.start(tableId, 1L);
+        try {
+            server.join(tableId, "Bob");
+            fail("A started table was joined");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        try {
+            server.start(tableId, 1L);
+            fail("A table started twice");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Tests removing a table while its game is being played.
+     * Validates that its result is cancelled, it is finished, and the server no longer has it.
+     */
+    @Test
+    public void testRemoveCancelsGame() {
+        try (GameServer slowServer = new GameServer(RuleSet.DEFAULT, 1, 60_000, 60_000)) {
+            long tableId = slowServer.createTable();
+            slowServer.join(tableId, "Alice");
+            slowServer.start(tableId, 3L);
+            GameTable table = slowServer.getTable(tableId);
+            CompletableFuture<GameResult> result = table.result();
+            assertEquals(1, slowServer.getTableCount());
+
+            assertTrue(slowServer.removeTable(tableId));
+            assertTrue(result.isCancelled());
+            assertEquals(GameTable.State.FINISHED, table.getState());
+            assertEquals(0, slowServer.getTableCount());
+            assertFalse(slowServer.removeTable(tableId));
+            try {
+                slowServer.getTable(tableId);
+                fail("A removed table was found");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    /**
+     * Tests the socket protocol from CREATE to RESULT.
+     * Validates that every reply is OK and the result sent back is the table's.
+     */
+    @Test
+    public void testSocketPlaysToResult() throws Exception {
+        try (Client client = new Client(socketServer.getPort())) {
+            String created = client.request("CREATE");
+            assertTrue(created, created.startsWith("OK "));
+            long tableId = Long.parseLong(created.substring(3));
+            assertEquals("OK 0", client.request("JOIN " + tableId + " Alice"));
+            assertEquals("OK 1", client.request("JOIN " + tableId + " Bob Smith"));
+            assertEquals("OK 99", client.request("START " + tableId + " 99"));
+
+            GameResult result = server.getTable(tableId).result().get(10, TimeUnit.SECONDS);
+            assertEquals("OK " + result.getWinner() + " " + result.getTurns() + " "
+                    + result.getScore(0) + " " + result.getScore(1), client.request("RESULT " + tableId));
+            assertEquals("OK FINISHED " + result.getTurns() + " " + result.getScore(0) + " " + result.getScore(1),
+                    client.request("STATUS " + tableId));
+            assertEquals("Bob Smith", server.getTable(tableId).getName(1));
+            assertEquals("OK", client.request("QUIT"));
+        }
+    }
+
+    /**
+     * Tests the socket protocol's errors.
+     * Validates that bad requests are answered with ERR and the connection stays usable.
+     */
+    @Test
+    public void testSocketErrors() throws IOException {
+        try (Client client = new Client(socketServer.getPort())) {
+            assertTrue(client.request("FLY").startsWith("ERR Unknown command"));
+            assertTrue(client.request("JOIN 1").startsWith("ERR Usage"));
+            assertTrue(client.request("STATUS x").startsWith("ERR Not a number"));
+            assertEquals("ERR No such table: 12345", client.request("STATUS 12345"));
+            long tableId = Long.parseLong(client.request("CREATE").substring(3));
+            assertTrue(client.request("START " + tableId).startsWith("ERR"));
+        }
+    }
+
+    /**
+     * Tests removing a table over the socket while another connection waits for its result.
+     * Validates that the waiting connection is told the table was removed, and the table is gone.
+     */
+    @Test
+    public void testSocketRemoveWhileWaiting() throws Exception {
+        try (GameServer slowServer = new GameServer(RuleSet.DEFAULT, 1, 60_000, 60_000);
+             GameSocketServer slowSocketServer = new GameSocketServer(slowServer, 0);
+             Client waiting = new Client(slowSocketServer.getPort());
+             Client removing = new Client(slowSocketServer.getPort())) {
+            long tableId = Long.parseLong(removing.request("CREATE").substring(3));
+            removing.request("JOIN " + tableId + " Alice");
+            assertEquals("OK 5", removing.request("START " + tableId + " 5"));
+
+            waiting.send("RESULT " + tableId);
+            // give the waiting connection time to reach the table before it is removed
+            Thread.sleep(200);
+            assertEquals("OK", removing.request("REMOVE " + tableId));
+            assertEquals("ERR Table " + tableId + " was removed", waiting.receive());
+            assertEquals("ERR No such table: " + tableId, removing.request("REMOVE " + tableId));
+            assertEquals(0, slowServer.getTableCount());
+        }
+    }
+
+    /**
+     * A connection to a GameSocketServer that sends one line and reads one line at a time.
+     */
+    private static class Client implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final PrintWriter out;
+
+        Client(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            socket.setSoTimeout(10_000);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+        }
+
+        void send(String line) {
+            out.println(line);
+        }
+
+        String receive() throws IOException {
+            return in.readLine();
+        }
+
+        String request(String line) throws IOException {
+            send(line);
+            return receive();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+/**
+ * The GameSocketServer class lets clients use a GameServer over a simple line-based protocol on
+ * a TCP socket, which can be tried on localhost with a tool such as telnet or nc.
+ * Every request is one line of words separated by spaces, and every reply is one line that starts with
+ * OK followed by its values, or with ERR followed by a message:
+ * <pre>
+ * CREATE                  OK tableId
+ * JOIN tableId name       OK seat
+ * START tableId [seed]    OK seed
+ * STATUS tableId          OK state turns score...
+ * RESULT tableId          OK winner turns score...   (waits until the game is won)
+ * REMOVE tableId          OK
+ * QUIT                    OK, then the connection is closed
+ * </pre>
+ * Each connection is served by its own thread; the games themselves run on the GameServer's scheduler.
+ */
+public class GameSocketServer implements Closeable {
+    private final GameServer server;
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections;
+    private final Thread acceptor;
+
+    /**
+     * Starts listening for connections on the loopback address.
+     *
+     * @param server The server whose tables the clients use.
+     * @param port   The port to listen on, or 0 for any free port.
+     * @throws IOException If the port cannot be opened.
+     */
+    public GameSocketServer(GameServer server, int port) throws IOException {
+        this.server = server;
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        AtomicLong threadCount = new AtomicLong();
+        this.connections = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "game-connection-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.acceptor = new Thread(this::acceptConnections, "game-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Gets the port the server listens on.
+     *
+     * @return The port number.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Stops accepting connections and closes the open ones. The GameServer is left running.
+     *
+     * @throws IOException If the listening socket cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+
+    private void acceptConnections() {
+        try {
+            while (true) {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> serve(socket));
+            }
+        } catch (IOException e) {
+            // the server socket was closed
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] words = line.trim().split("\\s+", 3);
+                if (words[0].equalsIgnoreCase("QUIT")) {
+                    out.println("OK");
+                    return;
+                }
+                out.println(handle(words));
+            }
+        } catch (SocketException e) {
+            // the connection was closed
+        } catch (IOException e) {
+            System.err.println("Game connection failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Carries out one request.
+     *
+     * @param words The command and its arguments; the last argument holds the rest of the line.
+     * @return The reply.
+     */
+    private String handle(String[] words) {
+        try {
+            switch (words[0].toUpperCase()) {
+                case "CREATE":
+                    return "OK " + server.createTable();
+                case "JOIN":
+                    if (words.length < 3) {
+                        return "ERR Usage: JOIN tableId name";
+                    }
+                    return "OK " + server.join(Long.parseLong(words[1]), words[2]);
+                case "START":
+                    long tableId = Long.parseLong(argument(words, "START tableId [seed]"));
+                    if (words.length < 3) {
+                        return "OK " + server.start(tableId);
+                    }
+                    long seed = Long.parseLong(words[2]);
+                    server.start(tableId, seed);
+                    return "OK " + seed;
+                case "STATUS":
+                    return status(server.getTable(Long.parseLong(argument(words, "STATUS tableId"))));
+                case "RESULT":
+                    return result(server.getTable(Long.parseLong(argument(words, "RESULT tableId"))));
+                case "REMOVE":
+                    return server.removeTable(Long.parseLong(argument(words, "REMOVE tableId")))
+                            ? "OK" : "ERR No such table: " + words[1];
+                default:
+                    return "ERR Unknown command: " + words[0];
+            }
+        } catch (NumberFormatException e) {
+            return "ERR Not a number: " + e.getMessage();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return "ERR " + e.getMessage();
+        }
+    }
+
+    private static String argument(String[] words, String usage) {
+        if (words.length < 2) {
+            throw new IllegalArgumentException("Usage: " + usage);
+        }
+        return words[1];
+    }
+
+    private static String status(GameTable table) {
+        // the table may move on between calls, which is fine for a status report
+        StringBuilder reply = new StringBuilder("OK ").append(table.getState()).append(' ').append(table.getTurns());
+        for (int seat = 0; seat < table.getPlayerCount(); seat++) {
+            reply.append(' ').append(table.getScore(seat));
+        }
+        return reply.toString();
+    }
+
+    private static String result(GameTable table) {
+        GameResult result;
+        try {
+            result = table.result().get();
+        } catch (CancellationException e) {
+            return "ERR Table " + table.getId() + " was removed";
+        } catch (ExecutionException e) {
+            return "ERR " + e.getCause().getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "ERR Interrupted";
+        }
+        StringBuilder reply = new StringBuilder("OK ").append(result.getWinner()).append(' ').append(result.getTurns());
+        for (int seat = 0; seat < result.getPlayerCount(); seat++) {
+            reply.append(' ').append(result.getScore(seat));
+        }
+        return reply.toString();
+    }
+}
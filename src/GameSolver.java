@@ -0,0 +1,270 @@
+/**
+ * The GameSolver class computes exact win probabilities and expected game lengths for
+ * Stuck in the Mud, instead of estimating them by playing games.
+ * A position is the score of every player together with the player to move. The dice that got stuck
+ * are not part of it, since every turn starts with all dice free. The only way a turn can leave a
+ * position's scores unchanged is by scoring nothing, which passes the turn on; going around the table
+ * this way forms a cycle, which is solved directly, and every other move leads to higher scores.
+ * So all positions are solved once, from the highest scores down, and kept in flat arrays of doubles;
+ * after that, every question about a position is an array lookup.
+ * The table has one entry per player, per player to move, per possible set of scores, so it is only
+ * practical for a few players: two players at the default rules need 40,000 entries, three need 9 million.
+ */
+public class GameSolver {
+    /**
+     * The largest number of entries the solver will allocate for its win probability table.
+     */
+    public static final int MAX_ENTRIES = 1 << 24;
+
+    private final RuleSet rules;
+    private final int numPlayers;
+    private final int winningScore;
+    private final double[] turnScoreProbability;
+    // win[((position * numPlayers) + mover) * numPlayers + seat], where position encodes every score
+    private final double[] win;
+    // turns[position * numPlayers + mover], the expected number of turns left
+    private final double[] turns;
+
+    /**
+     * Constructs a solver for games with the given rules and number of players, and solves every position.
+     *
+     * @param rules      The rules of the game.
+     * @param numPlayers The number of players; must be at least 1.
+     * @throws IllegalArgumentException If there are no players, or if the table would need more than
+     *                                  MAX_ENTRIES entries.
+     */
+    public GameSolver(RuleSet rules, int numPlayers) {
+        if (numPlayers < 1) {
+            throw new IllegalArgumentException("Invalid number of players: " + numPlayers);
+        }
+        this.rules = rules;
+        this.numPlayers = numPlayers;
+        this.winningScore = rules.getWinningScore();
+        // a RuleSet always has a face that scores, so every game ends and every position can be solved
+        this.turnScoreProbability = turnScoreDistribution(rules);
+
+        long positions = 1;
+        for (int i = 0; i < numPlayers; i++) {
+            positions *= winningScore;
+            if (positions * numPlayers * numPlayers > MAX_ENTRIES) {
+                throw new IllegalArgumentException("Too many positions to solve for " + numPlayers +
+                        " players with " + rules);
+            }
+        }
+        win = new double[(int) positions * numPlayers * numPlayers];
+        turns = new double[(int) positions * numPlayers];
+        solve((int) positions);
+    }
+
+    /**
+     * Works out the probability of each possible turn score: every die scores its face value with
+     * probability 1/6, or nothing if the face gets it stuck.
+     *
+     * @param rules The rules of the game.
+     * @return The probability of each turn score, indexed by score.
+     */
+    static double[] turnScoreDistribution(RuleSet rules) {
+        double[] distribution = new double[rules.getMaxTurnScore() + 1];
+        distribution[0] = 1.0;
+        int reach = 0;
+        for (int die = 0; die < rules.getNumDice(); die++) {
+            double[] next = new double[distribution.length];
+            for (int score = 0; score <= reach; score++) {
+                if (distribution[score] == 0.0) {
+                    continue;
+                }
+                for (int face = 1; face <= 6; face++) {
+                    next[score + rules.faceScore(face)] += distribution[score] / 6.0;
+                }
+            }
+            distribution = next;
+            reach = Math.min(reach + 6, distribution.length - 1);
+        }
+        return distribution;
+    }
+
+    /**
+     * Solves every position, from the highest encoded position down, so that the positions a turn
+     * can lead to are always solved before the position itself.
+     */
+    private void solve(int positions) {
+        int n = numPlayers;
+        double p0 = turnScoreProbability[0];
+        double cycle = 1.0 - Math.pow(p0, n);
+        int[] scores = new int[n];
+        int[] stride = new int[n];
+        stride[0] = 1;
+        for (int i = 1; i < n; i++) {
+            stride[i] = stride[i - 1] * winningScore;
+        }
+        // what each mover's turn adds when it scores something, before the zero-score cycle is closed
+        double[] scoring = new double[n * n];
+        double[] scoringTurns = new double[n];
+
+        for (int position = positions - 1; position >= 0; position--) {
+            int rest = position;
+            for (int i = 0; i < n; i++) {
+                scores[i] = rest % winningScore;
+                rest /= winningScore;
+            }
+            java.util.Arrays.fill(scoring, 0.0);
+            java.util.Arrays.fill(scoringTurns, 0.0);
+            for (int mover = 0; mover < n; mover++) {
+                int next = mover + 1 == n ? 0 : mover + 1;
+                for (int d = 1; d < turnScoreProbability.length; d++) {
+                    double p = turnScoreProbability[d];
+                    if (p == 0.0) {
+                        continue;
+                    }
+                    if (scores[mover] + d >= winningScore) {
+                        scoring[mover * n + mover] += p;
+                    } else {
+                        int target = position + d * stride[mover];
+                        int from = (target * n + next) * n;
+                        for (int seat = 0; seat < n; seat++) {
+                            scoring[mover * n + seat] += p * win[from + seat];
+                        }
+                        scoringTurns[mover] += p * turns[target * n + next];
+                    }
+                }
+            }
+            // V(m) = scoring(m) + p0 * V(m + 1) around the table, so V(m) = sum of p0^j * scoring(m + j) / (1 - p0^n)
+            for (int mover = 0; mover < n; mover++) {
+                int base = (position * n + mover) * n;
+                double weight = 1.0;
+                double expected = 0.0;
+                for (int j = 0; j < n; j++) {
+                    int m = (mover + j) % n;
+                    for (int seat = 0; seat < n; seat++) {
+                        win[base + seat] += weight * scoring[m * n + seat];
+                    }
+                    expected += weight * (1.0 + scoringTurns[m]);
+                    weight *= p0;
+                }
+                for (int seat = 0; seat < n; seat++) {
+                    win[base + seat] /= cycle;
+                }
+                turns[position * n + mover] = expected / cycle;
+            }
+        }
+    }
+
+    /**
+     * Gets the rules the solver was built for.
+     *
+     * @return The rule set.
+     */
+    public RuleSet getRules() {
+        return rules;
+    }
+
+    /**
+     * Gets the number of players the solver was built for.
+     *
+     * @return The player count.
+     */
+    public int getPlayerCount() {
+        return numPlayers;
+    }
+
+    /**
+     * Gets the probability that a single turn scores the given number of points.
+     *
+     * @param score The turn score.
+     * @return The probability of that score.
+     */
+    public double turnScoreProbability(int score) {
+        return score < 0 || score >= turnScoreProbability.length ? 0.0 : turnScoreProbability[score];
+    }
+
+    /**
+     * Gets the probability that the player in the given seat wins a new game, where seat 0 moves first.
+     *
+     * @param seat The seat, in turn order starting at 0.
+     * @return The probability that the seat wins.
+     */
+    public double winProbability(int seat) {
+        return winProbability(seat, new int[numPlayers], 0);
+    }
+
+    /**
+     * Gets the probability that the player in the given seat wins from the given position.
+     *
+     * @param seat   The seat, in turn order starting at 0.
+     * @param scores The current score of every seat; each must be below the winning score.
+     * @param toMove The seat of the player about to take a turn.
+     * @return The probability that the seat wins.
+     * @throws IllegalArgumentException If the position is not a position of an unfinished game.
+     */
+    public double winProbability(int seat, int[] scores, int toMove) {
+        if (seat < 0 || seat >= numPlayers) {
+            throw new IllegalArgumentException("Invalid seat: " + seat);
+        }
+        return win[(position(scores, toMove) * numPlayers + toMove) * numPlayers + seat];
+    }
+
+    /**
+     * Gets the expected number of turns in a new game, counting every player's turns.
+     *
+     * @return The expected game length.
+     */
+    public double expectedTurns() {
+        return expectedTurns(new int[numPlayers], 0);
+    }
+
+    /**
+     * Gets the expected number of turns left in a game from the given position, counting every player's turns.
+     *
+     * @param scores The current score of every seat; each must be below the winning score.
+     * @param toMove The seat of the player about to take a turn.
+     * @return The expected number of turns until someone wins.
+     * @throws IllegalArgumentException If the position is not a position of an unfinished game.
+     */
+    public double expectedTurns(int[] scores, int toMove) {
+        return turns[position(scores, toMove) * numPlayers + toMove];
+    }
+
+    /**
+     * Compares simulated statistics with the exact results, as the largest difference between
+     * a seat's simulated and exact win rate measured in standard errors of the simulation.
+     * For a correct simulation this is usually below 3.
+     *
+     * @param stats Statistics from games played with the same rules and number of players.
+     * @return The largest difference, in standard errors.
+     * @throws IllegalArgumentException If the statistics are for a different number of players.
+     */
+    public double maxDeviation(TournamentStats stats) {
+        if (stats.getPlayerCount() != numPlayers) {
+            throw new IllegalArgumentException("The statistics are for a different number of players");
+        }
+        double max = 0.0;
+        for (int seat = 0; seat < numPlayers; seat++) {
+            double p = winProbability(seat);
+            double standardError = Math.sqrt(p * (1.0 - p) / stats.getGames());
+            double difference = Math.abs(stats.getWinRate(seat) - p);
+            max = Math.max(max, standardError == 0.0 ? (difference == 0.0 ? 0.0 : Double.POSITIVE_INFINITY)
+                    : difference / standardError);
+        }
+        return max;
+    }
+
+    /**
+     * Encodes a position's scores as a single index, checking that it is a position of an unfinished game.
+     */
+    private int position(int[] scores, int toMove) {
+        if (scores.length != numPlayers) {
+            throw new IllegalArgumentException("Expected " + numPlayers + " scores, got " + scores.length);
+        }
+        if (toMove < 0 || toMove >= numPlayers) {
+            throw new IllegalArgumentException("Invalid seat to move: " + toMove);
+        }
+        int position = 0;
+        for (int i = numPlayers - 1; i >= 0; i--) {
+            if (scores[i] < 0 || scores[i] >= winningScore) {
+                throw new IllegalArgumentException("Invalid score for an unfinished game: " + scores[i]);
+            }
+            position = position * winningScore + scores[i];
+        }
+        return position;
+    }
+}
@@ -0,0 +1,52 @@
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+/**
+ * This class contains unit tests for the GameSolver class, checking its exact results
+ * against games played by the engine.
+ */
+public class GameSolverTest {
+    /**
+     * Tests that the win probabilities of every seat add up to 1 and favor the first seat.
+     * Validates the solved table for the default rules.
+     */
+    @Test
+    public void testWinProbabilitiesAddUp() {
+        GameSolver solver = new GameSolver(RuleSet.DEFAULT, 2);
+        assertEquals(1.0, solver.winProbability(0) + solver.winProbability(1), 1e-12);
+        assertTrue(solver.winProbability(0) > solver.winProbability(1));
+        assertTrue(solver.expectedTurns() > 0);
+    }
+
+    /**
+     * Tests the solver against a seeded tournament played by TournamentRunner.
+     * Validates that no seat's simulated win rate is more than four standard errors from the exact one.
+     */
+    @Test
+    public void testMatchesTournament() {
+        RuleSet rules = new RuleSet(40, 3, 2, 5);
+        GameSolver solver = new GameSolver(rules, 3);
+        TournamentStats stats = new TournamentRunner(ForkJoinPool.commonPool(), 2).run(rules, 3, 100_000, 12345L);
+        assertEquals(100_000, stats.getGames());
+        assertTrue("deviation " + solver.maxDeviation(stats), solver.maxDeviation(stats) < 4.0);
+        assertEquals(solver.expectedTurns(), stats.getMeanGameLength(), 0.1);
+    }
+
+    /**
+     * Tests that a player alone at the table always wins.
+     */
+    @Test
+    public void testSinglePlayerAlwaysWins() {
+        assertEquals(1.0, new GameSolver(RuleSet.DEFAULT, 1).winProbability(0), 1e-12);
+    }
+
+    /**
+     * Tests statistics for the wrong number of players.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaxDeviationChecksPlayerCount() {
+        new GameSolver(RuleSet.DEFAULT, 2).maxDeviation(new TournamentStats(3));
+    }
+}
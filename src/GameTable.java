@@ -0,0 +1,297 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.random.RandomGenerator;
+/**
+ * The GameTable class is one table of a GameServer: players join it, the game is started, and it is
+ * played until a player wins. A table has no thread of its own. Its game is a state machine that the
+ * server advances one step at a time from a shared scheduler, where each step is the start of a turn
+ * or the roll of one die, and the pause that StuckInTheMud sleeps through becomes the delay before
+ * the next step is scheduled.
+ * When GameMetrics are enabled, the table records its game's start, turns and win, every event it reports,
+ * and the bytes its steps allocate.
+ * Every method is thread safe.
+ */
+public class GameTable {
+    /**
+     * The stages of a table's life.
+     */
+    public enum State {
+        /** The table is open and players can join it. */
+        WAITING,
+        /** The game is being played. */
+        PLAYING,
+        /** The game has been won, or the table was removed from its server. */
+        FINISHED
+    }
+
+    private final long id;
+    private final RuleSet rules;
+    private final GameEventSink eventSink;
+    private final long turnDelayMillis;
+    private final long dieDelayMillis;
+    private final List<String> names;
+    private final CompletableFuture<GameResult> result;
+    private State state;
+    private PlayerTable players;
+    private RandomGenerator random;
+    private long seed;
+    // the position of the game: the seat taking its turn, the die rolled next, or -1 before the turn starts
+    private int seat;
+    private int die;
+    private int turnScore;
+    private long stuckDice;
+    private int turns;
+    private ScheduledFuture<?> nextStep;
+    // measured only when GameMetrics are enabled
+    private long gameStartNanos;
+    private long turnStartNanos;
+    private long allocatedBytes;
+
+    GameTable(long id, RuleSet rules, GameEventSink eventSink, long turnDelayMillis, long dieDelayMillis) {
+        this.id = id;
+        this.rules = rules;
+        this.eventSink = eventSink;
+        this.turnDelayMillis = turnDelayMillis;
+        this.dieDelayMillis = dieDelayMillis;
+        this.names = new ArrayList<>();
+        this.result = new CompletableFuture<>();
+        this.state = State.WAITING;
+    }
+
+    /**
+     * Gets the id of the table on its server.
+     *
+     * @return The table id.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Gets the stage the table is in.
+     *
+     * @return The state of the table.
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Gets the number of players who have joined the table.
+     *
+     * @return The player count.
+     */
+    public synchronized int getPlayerCount() {
+        return names.size();
+    }
+
+    /**
+     * Gets the name of a player at the table.
+     *
+     * @param seat The seat of the player, in the order they joined starting at 0.
+     * @return The name of the player.
+     * @throws IndexOutOfBoundsException If no player sits in the seat.
+     */
+    public synchronized String getName(int seat) {
+        return names.get(seat);
+    }
+
+    /**
+     * Gets the current score of a player at the table; it is 0 until the game starts.
+     *
+     * @param seat The seat of the player.
+     * @return The score of the player.
+     * @throws IndexOutOfBoundsException If no player sits in the seat.
+     */
+    public synchronized int getScore(int seat) {
+        if (seat < 0 || seat >= names.size()) {
+            throw new IndexOutOfBoundsException("Invalid seat: " + seat);
+        }
+        return players == null ? 0 : players.getScore(seat);
+    }
+
+    /**
+     * Gets the number of turns completed so far.
+     *
+     * @return The turn count.
+     */
+    public synchronized int getTurns() {
+        return turns;
+    }
+
+    /**
+     * Gets the seed the game was started with, so that the game can be played again.
+     *
+     * @return The seed of the game.
+     * @throws IllegalStateException If the game has not been started.
+     */
+    public synchronized long getSeed() {
+        if (random == null) {
+            throw new IllegalStateException("Table " + id + " has not been started");
+        }
+        return seed;
+    }
+
+    /**
+     * Gets the number of bytes allocated while the game's steps were played, which is only measured
+     * when GameMetrics are enabled.
+     *
+     * @return The bytes allocated, or 0 if metrics are not enabled.
+     */
+    public synchronized long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Adds to the bytes allocated by the game's steps.
+     *
+     * @param bytes The bytes allocated by one step.
+     */
+    synchronized void addAllocatedBytes(long bytes) {
+        allocatedBytes += bytes;
+    }
+
+    /**
+     * Gets the result of the game, which completes when a player wins. It is cancelled if the table is
+     * removed from its server before that.
+     *
+     * @return A future holding the result of the game.
+     */
+    public CompletableFuture<GameResult> result() {
+        return result;
+    }
+
+    /**
+     * Seats a new player at the table.
+     *
+     * @param name The name of the player.
+     * @return The seat of the player.
+     * @throws IllegalStateException If the game has already started or the table is full.
+     */
+    synchronized int join(String name) {
+        if (state != State.WAITING) {
+            throw new IllegalStateException("Table " + id + " is not open");
+        }
+        if (names.size() == GameServer.MAX_SEATS) {
+            throw new IllegalStateException("Table " + id + " is full");
+        }
+        names.add(name);
+        return names.size() - 1;
+    }
+
+    /**
+     * Starts the game.
+     *
+     * @param seed   The seed of the game.
+     * @param random The random number generator created from the seed.
+     * @throws IllegalStateException If the game has already started or no player has joined.
+     */
+    synchronized void start(long seed, RandomGenerator random) {
+        if (state != State.WAITING) {
+            throw new IllegalStateException("Table " + id + " has already started");
+        }
+        if (names.isEmpty()) {
+            throw new IllegalStateException("Table " + id + " has no players");
+        }
+        this.seed = seed;
+        this.random = random;
+        this.players = new PlayerTable(names.toArray(new String[0]));
+        this.state = State.PLAYING;
+        this.seat = 0;
+        this.die = -1;
+        if (GameMetrics.ENABLED) {
+            gameStartNanos = System.nanoTime();
+            GameMetrics.gameStarted(names.size());
+        }
+    }
+
+    /**
+     * Remembers the scheduled next step, so that it can be cancelled.
+     *
+     * @param nextStep The next step.
+     * @return false if the table has finished and the step should be cancelled, true otherwise.
+     */
+    synchronized boolean setNextStep(ScheduledFuture<?> nextStep) {
+        this.nextStep = nextStep;
+        return state == State.PLAYING;
+    }
+
+    /**
+     * Plays the next step of the game: starts a turn, or rolls one die and, after the last die,
+     * scores the turn.
+     *
+     * @return The delay in milliseconds before the next step, or -1 if the game is over.
+     */
+    synchronized long step() {
+        if (state != State.PLAYING) {
+            return -1;
+        }
+        if (die < 0) {
+            if (GameMetrics.ENABLED) {
+                turnStartNanos = System.nanoTime();
+            }
+            event(GameEventType.TURN_STARTED, seat, 0, 0);
+            players.setStuckDice(seat, 0L); // Reset the stuck status at the start of the turn
+            die = 0;
+            turnScore = 0;
+            stuckDice = 0L;
+            return turnDelayMillis;
+        }
+
+        int roll = random.nextInt(6) + 1; // Roll the die
+        if (rules.isStuck(roll)) {
+            event(GameEventType.DIE_STUCK, seat, die, roll);
+            stuckDice |= 1L << die;
+        } else {
+            event(GameEventType.DIE_ROLLED, seat, die, roll);
+            turnScore += roll;
+        }
+        if (++die < rules.getNumDice()) {
+            return dieDelayMillis;
+        }
+
+        players.setStuckDice(seat, stuckDice);
+        int score = players.addScore(seat, turnScore);
+        turns++;
+        event(GameEventType.TURN_SCORED, seat, turnScore, score);
+        if (GameMetrics.ENABLED) {
+            GameMetrics.turnTaken(turnStartNanos, seat, turnScore, score);
+        }
+        if (score >= rules.getWinningScore()) {
+            event(GameEventType.GAME_WON, seat, score, 0);
+            if (GameMetrics.ENABLED) {
+                GameMetrics.gameWon(gameStartNanos, seat, turns);
+            }
+            eventSink.flush();
+            state = State.FINISHED;
+            result.complete(new GameResult(seat, players.copyScores(), turns));
+            return -1;
+        }
+        eventSink.flush();
+        if (++seat == players.getSize()) {
+            seat = 0;
+        }
+        die = -1;
+        return dieDelayMillis;
+    }
+
+    private void event(GameEventType type, int seat, int first, int second) {
+        eventSink.event(type, seat, first, second);
+        if (GameMetrics.ENABLED) {
+            GameMetrics.eventPublished();
+        }
+    }
+
+    /**
+     * Ends the table without a winner, cancelling its next step and its result.
+     */
+    synchronized void finish() {
+        state = State.FINISHED;
+        if (nextStep != null) {
+            nextStep.cancel(false);
+        }
+        result.cancel(false);
+    }
+}
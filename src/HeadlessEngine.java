@@ -0,0 +1,223 @@
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+/**
+ * The HeadlessEngine class plays complete games of Stuck in the Mud with no time delays
+ * and no console output, so that large numbers of games can be simulated.
+ * It plays by the same rules as StuckInTheMud, given as a RuleSet: every turn rolls all the dice,
+ * a die showing a stuck face is stuck in the mud and scores nothing, every other die scores its value,
+ * and the first player to reach the winning score wins.
+ * Seats take their turns in order starting at seat 0, and their state is kept in a PlayerTable
+ * rather than in Player objects. Turns are rolled by TurnEvaluator, so no memory is allocated
+ * while a game is played.
+ * A game can also be recorded to a ReplayWriter and replayed later from the dice in its record.
+ */
+public class HeadlessEngine {
+    private final RuleSet rules;
+    private final RandomGenerator random;
+    private final TurnEvaluator.Mode mode;
+    private PlayerTable table;
+
+    /**
+     * Constructs a new engine for the default rules that rolls dice with a new SplittableRandom,
+     * which unlike java.util.Random does not pay for thread safety on every roll.
+     */
+    public HeadlessEngine() {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Constructs a new engine for the default rules that rolls dice with the given random number generator.
+     *
+     * @param random The random number generator used for every die roll; a java.util.Random
+     *               seeded like the one in StuckInTheMud rolls the same dice.
+     */
+    public HeadlessEngine(RandomGenerator random) {
+        this(random, TurnEvaluator.Mode.PER_DIE);
+    }
+
+    /**
+     * Constructs a new engine for the default rules that rolls dice with the given random number generator,
+     * drawing the dice of each turn in the given way.
+     *
+     * @param random The random number generator used for every turn.
+     * @param mode   How the dice of a turn are drawn; ONE_DRAW is faster but rolls different dice
+     *               than StuckInTheMud for the same seed.
+     */
+    public HeadlessEngine(RandomGenerator random, TurnEvaluator.Mode mode) {
+        this(RuleSet.DEFAULT, random, mode);
+    }
+
+    /**
+     * Constructs a new engine for the given rules that rolls dice with the given random number generator,
+     * drawing the dice of each turn in the given way.
+     *
+     * @param rules  The rules of the games.
+     * @param random The random number generator used for every turn.
+     * @param mode   How the dice of a turn are drawn.
+     */
+    public HeadlessEngine(RuleSet rules, RandomGenerator random, TurnEvaluator.Mode mode) {
+        this.rules = rules;
+        this.random = random;
+        this.mode = mode;
+        this.table = null;
+    }
+
+    /**
+     * Gets the rules the engine plays by.
+     *
+     * @return The rule set.
+     */
+    public RuleSet getRules() {
+        return rules;
+    }
+
+    /**
+     * Plays one complete game until a player reaches the winning score.
+     *
+     * @param numPlayers The number of players at the table; must be at least 1.
+     * @return The result of the game.
+     * @throws IllegalArgumentException If the number of players is less than 1.
+     */
+    public GameResult play(int numPlayers) {
+        if (table == null || table.getSize() != numPlayers) {
+            table = new PlayerTable(numPlayers);
+        }
+        return play(table);
+    }
+
+    /**
+     * Plays one complete game at the given table until a player reaches the winning score.
+     * The table is reset first; when the game ends it holds the final scores and the dice
+     * each player got stuck on their last turn.
+     *
+     * @param table The table to play at.
+     * @return The result of the game.
+     */
+    public GameResult play(PlayerTable table) {
+        return play(table, null);
+    }
+
+    /**
+     * Plays one complete game at the given table until a player reaches the winning score, adding
+     * every turn and the result to an aggregator.
+     *
+     * @param table      The table to play at; it is reset first.
+     * @param aggregator The aggregator the game is recorded to, or null to record it nowhere.
+     * @return The result of the game.
+     */
+    public GameResult play(PlayerTable table, GameAggregator aggregator) {
+        table.reset();
+        int numPlayers = table.getSize();
+        int turns = 0;
+        int seat = 0;
+        while (true) {
+            long turn = takeTurn(table, seat);
+            if (aggregator != null) {
+                aggregator.recordTurn(turn);
+            }
+            int score = table.addScore(seat, TurnEvaluator.score(turn));
+            turns++;
+            if (score >= rules.getWinningScore()) {
+                GameResult result = new GameResult(seat, table.copyScores(), turns);
+                if (aggregator != null) {
+                    aggregator.record(result);
+                }
+                return result;
+            }
+            if (++seat == numPlayers) {
+                seat = 0;
+            }
+        }
+    }
+
+    /**
+     * Plays one complete game with a new SplittableRandom created from the given seed, writing every
+     * turn to a replay file. The engine's own random number generator and mode are not used, so the
+     * game depends only on the seed: it is the same game as one played in PER_DIE mode with
+     * new SplittableRandom(seed).
+     *
+     * @param table  The table to play at; it is reset first.
+     * @param seed   The seed of the game.
+     * @param replay The writer the game is recorded to.
+     * @return The result of the game.
+     * @throws IOException              If the replay file cannot be written.
+     * @throws IllegalArgumentException If the writer is for different rules than the engine.
+     */
+    public GameResult record(PlayerTable table, long seed, ReplayWriter replay) throws IOException {
+        if (!rules.equals(replay.getRules())) {
+            throw new IllegalArgumentException("The replay file is for different rules: " + replay.getRules());
+        }
+        SplittableRandom gameRandom = new SplittableRandom(seed);
+        table.reset();
+        replay.beginGame(seed, table.getSize());
+        int turns = 0;
+        int seat = 0;
+        while (true) {
+            long faces = TurnEvaluator.rollFaces(rules, gameRandom);
+            long turn = TurnEvaluator.evaluate(rules, faces);
+            replay.turn(faces, TurnEvaluator.stuckDice(turn));
+            table.setStuckDice(seat, TurnEvaluator.stuckDice(turn));
+            int score = table.addScore(seat, TurnEvaluator.score(turn));
+            turns++;
+            if (score >= rules.getWinningScore()) {
+                replay.endGame(seat);
+                return new GameResult(seat, table.copyScores(), turns);
+            }
+            if (++seat == table.getSize()) {
+                seat = 0;
+            }
+        }
+    }
+
+    /**
+     * Replays a recorded game from the dice in its record, without rolling any dice.
+     * The recorded stuck dice are not trusted: every turn is scored again from its faces.
+     *
+     * @param game The recorded game.
+     * @return The result of the game, which is the same as the result returned when it was recorded.
+     * @throws IllegalArgumentException If the game was played by different rules than the engine's,
+     *                                  or its record does not end with a win by its recorded winner.
+     */
+    public GameResult replay(ReplayReader.Game game) {
+        if (!rules.equals(game.getRules())) {
+            throw new IllegalArgumentException("The game was played by different rules: " + game.getRules());
+        }
+        int numPlayers = game.getPlayerCount();
+        if (table == null || table.getSize() != numPlayers) {
+            table = new PlayerTable(numPlayers);
+        }
+        table.reset();
+        int turns = game.getTurns();
+        int seat = 0;
+        for (int i = 0; i < turns; i++) {
+            long turn = TurnEvaluator.evaluate(rules, game.getFaces(i));
+            table.setStuckDice(seat, TurnEvaluator.stuckDice(turn));
+            int score = table.addScore(seat, TurnEvaluator.score(turn));
+            if (score >= rules.getWinningScore()) {
+                if (i != turns - 1 || seat != game.getWinner()) {
+                    throw new IllegalArgumentException("The record does not match its result");
+                }
+                return new GameResult(seat, table.copyScores(), turns);
+            }
+            if (++seat == numPlayers) {
+                seat = 0;
+            }
+        }
+        throw new IllegalArgumentException("The record ends before the game is won");
+    }
+
+    /**
+     * Rolls the dice for a single turn, adds up the dice that are not stuck
+     * and records which dice got stuck.
+     *
+     * @param table The table the turn is played at.
+     * @param seat  The seat of the player taking the turn.
+     * @return The turn, with its score and stuck dice packed as by TurnEvaluator.
+     */
+    private long takeTurn(PlayerTable table, int seat) {
+        long turn = TurnEvaluator.roll(rules, random, mode);
+        table.setStuckDice(seat, TurnEvaluator.stuckDice(turn));
+        return turn;
+    }
+}
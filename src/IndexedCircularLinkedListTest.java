@@ -0,0 +1,92 @@
+import org.junit.Test;
+import java.util.Iterator;
+
+import static org.junit.Assert.*;
+/**
+ * This class runs every CircularLinkedListTest against a CircularLinkedList with an EQUALITY index,
+ * and adds tests that the index follows the list through repeated values, cursors and iterator removal,
+ * and that an IDENTITY index matches only the very same object.
+ */
+public class IndexedCircularLinkedListTest extends CircularLinkedListTest {
+
+    @Override
+    protected CircularLinkedListInterface<String> createList() {
+        return new CircularLinkedList<>(CircularLinkedList.IndexMode.EQUALITY);
+    }
+
+    /**
+     * Tests removing repeated values.
+     * Checks that remove still takes out the first occurrence and the others stay in order.
+     */
+    @Test
+    public void testRemoveRepeatedValues() {
+        CircularLinkedListInterface<String> list = createList();
+        list.add("A");
+        list.add("B");
+        list.add("A");
+        list.add("C");
+        list.add("A");
+
+        assertTrue(list.remove("A"));
+        assertEquals("B", list.get(3));
+        assertTrue(list.remove("A"));
+        assertEquals("C", list.get(1));
+        assertTrue(list.remove("A"));
+        assertFalse(list.remove("A"));
+        assertEquals(2, list.getSize());
+        assertEquals("C", list.get(0));
+        assertEquals("B", list.get(1));
+    }
+
+    /**
+     * Tests that the index follows changes made through a cursor and an iterator.
+     * Checks every element can still be found and removed by value afterwards.
+     */
+    @Test
+    public void testIndexFollowsCursorAndIterator() {
+        CircularLinkedListInterface<String> list = createList();
+        for (int i = 0; i < 10; i++) {
+            list.add("E" + i);
+        }
+        CircularLinkedListInterface.Cursor<String> cursor = list.cursor();
+        cursor.advance();
+        cursor.insertAfterCurrent("X"); // between E1 and E2
+        cursor.advance();
+        cursor.advance();
+        assertEquals("E2", cursor.removeCurrent());
+
+        Iterator<String> iterator = list.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().equals("E5")) {
+                iterator.remove();
+            }
+        }
+
+        assertFalse(list.contains("E2"));
+        assertFalse(list.contains("E5"));
+        String[] remaining = {"E9", "X", "E0", "E8", "E3", "E1", "E4", "E6", "E7"};
+        for (String element : remaining) {
+            assertTrue(element, list.remove(element));
+        }
+        assertEquals(0, list.getSize());
+    }
+
+    /**
+     * Tests an IDENTITY index, which matches only the very same object.
+     */
+    @Test
+    public void testIdentityIndex() {
+        CircularLinkedListInterface<String> list = new CircularLinkedList<>(CircularLinkedList.IndexMode.IDENTITY);
+        String first = new String("A");
+        String second = new String("A");
+        list.add(first);
+        list.add(second);
+
+        assertFalse(list.contains(new String("A")));
+        assertFalse(list.remove(new String("A")));
+        assertTrue(list.remove(second));
+        assertSame(first, list.get(0));
+        assertTrue(list.contains(first));
+        assertFalse(list.contains(second));
+    }
+}
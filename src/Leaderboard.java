@@ -0,0 +1,193 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+/**
+ * The Leaderboard class keeps the players of a game ordered by score as the game goes on, so that
+ * "is there a winner" and "who leads" are answered in constant time instead of by looking at every player.
+ * Players are kept in buckets, one per score, and each player on the board tells it when their score changes
+ * through Player.addScore, which moves them from one bucket to another. The board remembers its highest
+ * non-empty bucket, which only has to be looked for again when the last player with the top score drops.
+ * Players with the same score are ranked by who reached it first.
+ * The board may be read from other threads while a game updates it, for example by a spectator display.
+ */
+public class Leaderboard {
+    private static final int DEFAULT_BUCKETS = 128;
+    // the first and last player in each score's bucket, linked in the order they reached the score
+    private Entry[] first;
+    private Entry[] last;
+    private final Map<Player, Entry> entries;
+    // the highest score with a player, or -1 if the board is empty
+    private int topScore;
+
+    /**
+     * A player's place on the board.
+     */
+    private static class Entry {
+        final Player player;
+        int score;
+        Entry previous;
+        Entry next;
+
+        Entry(Player player) {
+            this.player = player;
+        }
+    }
+
+    /**
+     * Constructs an empty leaderboard.
+     */
+    public Leaderboard() {
+        first = new Entry[DEFAULT_BUCKETS];
+        last = new Entry[DEFAULT_BUCKETS];
+        entries = new IdentityHashMap<>();
+        topScore = -1;
+    }
+
+    /**
+     * Puts a player on the board at their current score. From then on the board follows the player's score.
+     *
+     * @param player The player to add.
+     * @throws IllegalArgumentException If the player is already on a leaderboard or has a negative score.
+     */
+    public synchronized void add(Player player) {
+        if (player.getLeaderboard() != null) {
+            throw new IllegalArgumentException(player.getName() + " is already on a leaderboard");
+        }
+        Entry entry = new Entry(player);
+        link(entry, player.getScore());
+        entries.put(player, entry);
+        player.setLeaderboard(this);
+    }
+
+    /**
+     * Takes a player off the board, for example when they leave the game.
+     *
+     * @param player The player to remove.
+     * @return true if the player was on the board, false otherwise.
+     */
+    public synchronized boolean remove(Player player) {
+        Entry entry = entries.remove(player);
+        if (entry == null) {
+            return false;
+        }
+        unlink(entry);
+        player.setLeaderboard(null);
+        return true;
+    }
+
+    /**
+     * Gets the number of players on the board.
+     *
+     * @return The player count.
+     */
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the highest score on the board.
+     *
+     * @return The top score, or -1 if the board is empty.
+     */
+    public synchronized int getTopScore() {
+        return topScore;
+    }
+
+    /**
+     * Gets the player in the lead: the one with the highest score, or of those, the first to reach it.
+     *
+     * @return The leading player, or null if the board is empty.
+     */
+    public synchronized Player getLeader() {
+        return topScore < 0 ? null : first[topScore].player;
+    }
+
+    /**
+     * Checks whether any player has reached the given score, such as the winning score.
+     *
+     * @param score The score to check for.
+     * @return true if at least one player has that score or more, false otherwise.
+     */
+    public synchronized boolean hasScoreAtLeast(int score) {
+        return topScore >= 0 && topScore >= score;
+    }
+
+    /**
+     * Gets the leading players in order, for a live display.
+     * This visits the k players and any empty score buckets between them.
+     *
+     * @param k The largest number of players to return.
+     * @return Up to k players, from the leader down.
+     */
+    public synchronized List<Player> top(int k) {
+        List<Player> leaders = new ArrayList<>(Math.min(k, entries.size()));
+        for (int score = topScore; score >= 0 && leaders.size() < k; score--) {
+            for (Entry entry = first[score]; entry != null && leaders.size() < k; entry = entry.next) {
+                leaders.add(entry.player);
+            }
+        }
+        return leaders;
+    }
+
+    /**
+     * Moves a player to the bucket of their new score; called by Player.addScore before it changes the
+     * player's score, so that a score rejected here is not kept by the player either.
+     *
+     * @param player   The player whose score is changing.
+     * @param newScore The player's new score.
+     * @throws IllegalArgumentException If the new score is negative.
+     */
+    synchronized void scoreChanged(Player player, int newScore) {
+        Entry entry = entries.get(player);
+        if (entry == null || entry.score == newScore) {
+            return;
+        }
+        if (newScore < 0) {
+            throw new IllegalArgumentException("Leaderboard scores cannot be negative: " + newScore);
+        }
+        unlink(entry);
+        link(entry, newScore);
+    }
+
+    private void link(Entry entry, int score) {
+        if (score < 0) {
+            throw new IllegalArgumentException("Leaderboard scores cannot be negative: " + score);
+        }
+        if (score >= first.length) {
+            int buckets = Math.max(first.length * 2, score + 1);
+            first = Arrays.copyOf(first, buckets);
+            last = Arrays.copyOf(last, buckets);
+        }
+        entry.score = score;
+        entry.previous = last[score];
+        entry.next = null;
+        if (last[score] == null) {
+            first[score] = entry;
+        } else {
+            last[score].next = entry;
+        }
+        last[score] = entry;
+        if (score > topScore) {
+            topScore = score;
+        }
+    }
+
+    private void unlink(Entry entry) {
+        int score = entry.score;
+        if (entry.previous == null) {
+            first[score] = entry.next;
+        } else {
+            entry.previous.next = entry.next;
+        }
+        if (entry.next == null) {
+            last[score] = entry.previous;
+        } else {
+            entry.next.previous = entry.previous;
+        }
+        while (topScore >= 0 && first[topScore] == null) {
+            topScore--;
+        }
+    }
+}
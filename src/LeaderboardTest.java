@@ -0,0 +1,192 @@
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+/**
+ * This class contains unit tests for the Leaderboard class, and for Player keeping it up to date.
+ */
+public class LeaderboardTest {
+    /**
+     * Tests an empty leaderboard.
+     * Validates that it has no leader, no top score and no players.
+     */
+    @Test
+    public void testEmpty() {
+        Leaderboard board = new Leaderboard();
+        assertEquals(0, board.getSize());
+        assertEquals(-1, board.getTopScore());
+        assertNull(board.getLeader());
+        assertFalse(board.hasScoreAtLeast(0));
+        assertEquals(Collections.emptyList(), board.top(5));
+    }
+
+    /**
+     * Tests players tied on the top score.
+     * Validates that the first to reach the score leads, including a player who drops and reaches it again.
+     */
+    @Test
+    public void testTiesRankedByArrival() {
+        Leaderboard board = new Leaderboard();
+        Player alice = new Player("Alice");
+        Player bob = new Player("Bob");
+        Player carol = new Player("Carol");
+        board.add(alice);
+        board.add(bob);
+        board.add(carol);
+        assertSame(alice, board.getLeader());
+        assertEquals(0, board.getTopScore());
+
+        bob.addScore(5);
+        alice.addScore(5);
+        assertSame(bob, board.getLeader());
+        assertEquals(Arrays.asList(bob, alice, carol), board.top(3));
+
+        bob.addScore(0);
+        assertSame(bob, board.getLeader());
+        bob.addScore(-5);
+        bob.addScore(5);
+        assertSame(alice, board.getLeader());
+        assertEquals(Arrays.asList(alice, bob, carol), board.top(3));
+    }
+
+    /**
+     * Tests top with scores far apart.
+     * Validates that it skips the empty scores between players and stops at k players or at the last one.
+     */
+    @Test
+    public void testTopAcrossGaps() {
+        Leaderboard board = new Leaderboard();
+        Player[] players = new Player[4];
+        int[] scores = {3, 100, 0, 50};
+        for (int i = 0; i < players.length; i++) {
+            players[i] = new Player("P" + i);
+            board.add(players[i]);
+            players[i].addScore(scores[i]);
+        }
+        assertEquals(100, board.getTopScore());
+        assertTrue(board.hasScoreAtLeast(100));
+        assertFalse(board.hasScoreAtLeast(101));
+        assertEquals(Collections.emptyList(), board.top(0));
+        assertEquals(Arrays.asList(players[1]), board.top(1));
+        assertEquals(Arrays.asList(players[1], players[3], players[0]), board.top(3));
+        assertEquals(Arrays.asList(players[1], players[3], players[0], players[2]), board.top(10));
+    }
+
+    /**
+     * Tests removing players.
+     * Validates that the next player leads, the top score drops with the last player on it,
+     * and a removed player no longer moves the board.
+     */
+    @Test
+    public void testRemove() {
+        Leaderboard board = new Leaderboard();
+        Player alice = new Player("Alice");
+        Player bob = new Player("Bob");
+        board.add(alice);
+        board.add(bob);
+        alice.addScore(20);
+        bob.addScore(10);
+
+        assertTrue(board.remove(alice));
+        assertFalse(board.remove(alice));
+        assertNull(alice.getLeaderboard());
+        assertEquals(1, board.getSize());
+        assertSame(bob, board.getLeader());
+        assertEquals(10, board.getTopScore());
+
+        alice.addScore(50);
+        assertEquals(70, alice.getScore());
+        assertEquals(10, board.getTopScore());
+        assertEquals(Arrays.asList(bob), board.top(5));
+
+        assertTrue(board.remove(bob));
+        assertNull(board.getLeader());
+        assertEquals(-1, board.getTopScore());
+
+        board.add(alice);
+        assertSame(alice, board.getLeader());
+        assertEquals(70, board.getTopScore());
+    }
+
+    /**
+     * Tests scores beyond the board's initial buckets, reached both by adding a player and by scoring.
+     * Validates that the board grows and keeps every player in order.
+     */
+    @Test
+    public void testBucketGrowth() {
+        Leaderboard board = new Leaderboard();
+        Player alice = new Player("Alice");
+        Player bob = new Player("Bob");
+        Player carol = new Player("Carol");
+        carol.addScore(300);
+        board.add(alice);
+        board.add(bob);
+        board.add(carol);
+        assertEquals(300, board.getTopScore());
+
+        alice.addScore(127);
+        alice.addScore(1);
+        bob.addScore(1000);
+        assertEquals(1000, board.getTopScore());
+        assertEquals(Arrays.asList(bob, carol, alice), board.top(3));
+        alice.addScore(5000);
+        assertSame(alice, board.getLeader());
+        assertEquals(Arrays.asList(alice, bob, carol), board.top(3));
+    }
+
+    /**
+     * Tests a turn that would take a player on a board below zero.
+     * Validates that it throws and leaves the player and the board as they were.
+     */
+    @Test
+    public void testNegativeScoreLeavesBoardAndPlayerInSync() {
+        Leaderboard board = new Leaderboard();
+        Player alice = new Player("Alice");
+        Player bob = new Player("Bob");
+        board.add(alice);
+        board.add(bob);
+        alice.addScore(3);
+        try {
+            alice.addScore(-10);
+            fail("A negative score was accepted");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertEquals(3, alice.getScore());
+        assertEquals(3, board.getTopScore());
+        assertSame(alice, board.getLeader());
+
+        alice.addScore(-3);
+        assertEquals(0, alice.getScore());
+        assertEquals(Arrays.asList(bob, alice), board.top(2));
+    }
+
+    /**
+     * Tests adding players that cannot be added.
+     * Validates that a player on another board and a player with a negative score are rejected.
+     */
+    @Test
+    public void testInvalidAdd() {
+        Leaderboard board = new Leaderboard();
+        Player alice = new Player("Alice");
+        board.add(alice);
+        try {
+            new Leaderboard().add(alice);
+            fail("A player was added to two boards");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        Player bob = new Player("Bob");
+        bob.addScore(-1);
+        try {
+            board.add(bob);
+            fail("A negative score was added");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertNull(bob.getLeaderboard());
+        assertEquals(1, board.getSize());
+    }
+}
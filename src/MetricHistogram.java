@@ -0,0 +1,211 @@
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+/**
+ * The MetricHistogram class counts how often values of each size are recorded, such as turn durations in
+ * nanoseconds or the number of nodes a list search goes through, in the log-linear way of an HDR histogram.
+ * Values below 128 each have a bucket of their own; above that, each power of two is split into 64 buckets
+ * of equal width, so a value is known to within 1/64 of itself, about 1.6%, over the whole range of long.
+ * The buckets are allocated once, recording a value is a few arithmetic operations and one atomic
+ * increment, and any number of threads can record at once.
+ */
+public class MetricHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+
+    private final AtomicLongArray counts;
+    private final LongAdder sum;
+    private final AtomicLong max;
+
+    /**
+     * Constructs an empty histogram.
+     */
+    public MetricHistogram() {
+        counts = new AtomicLongArray(bucketOf(Long.MAX_VALUE) + 1);
+        sum = new LongAdder();
+        max = new AtomicLong();
+    }
+
+    /**
+     * Records a value.
+     *
+     * @param value The value; negative values are recorded as 0.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(bucketOf(value));
+        sum.add(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * Forgets every recorded value. Values recorded while it runs may or may not be kept.
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        sum.reset();
+        max.set(0);
+    }
+
+    /**
+     * Takes a copy of the histogram's statistics. Values recorded while the copy is taken may or may not
+     * be included.
+     *
+     * @return The statistics.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[counts.length()];
+        long total = 0;
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        long highest = max.get();
+        return new Snapshot(total, sum.sum(), highest,
+                valueAt(copy, total, 0.50, highest), valueAt(copy, total, 0.90, highest),
+                valueAt(copy, total, 0.99, highest), valueAt(copy, total, 0.999, highest));
+    }
+
+    /**
+     * The statistics of a histogram at one moment.
+     */
+    public static final class Snapshot {
+        private final long count;
+        private final long sum;
+        private final long max;
+        private final long p50;
+        private final long p90;
+        private final long p99;
+        private final long p999;
+
+        Snapshot(long count, long sum, long max, long p50, long p90, long p99, long p999) {
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p99 = p99;
+            this.p999 = p999;
+        }
+
+        /**
+         * Gets the number of values recorded.
+         *
+         * @return The count.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Gets the mean of the values recorded.
+         *
+         * @return The mean, or 0 if there are none.
+         */
+        public double getMean() {
+            return count == 0 ? 0.0 : (double) sum / count;
+        }
+
+        /**
+         * Gets the largest value recorded.
+         *
+         * @return The maximum, or 0 if there are none.
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * Gets a percentile of the values recorded: the 50th, 90th, 99th or 99.9th.
+         *
+         * @param percentile The percentile: 50, 90, 99 or 99.9.
+         * @return The highest value in the bucket holding the percentile, or 0 if there are no values.
+         * @throws IllegalArgumentException If the percentile is not one of those kept.
+         */
+        public long getPercentile(double percentile) {
+            if (percentile == 50) {
+                return p50;
+            } else if (percentile == 90) {
+                return p90;
+            } else if (percentile == 99) {
+                return p99;
+            } else if (percentile == 99.9) {
+                return p999;
+            }
+            throw new IllegalArgumentException("Percentile not kept: " + percentile);
+        }
+
+        /**
+         * Writes the statistics as space separated name=value pairs.
+         *
+         * @return The statistics as text.
+         */
+        public String toText() {
+            return String.format(Locale.ROOT, "count=%d mean=%.1f p50=%d p90=%d p99=%d p99.9=%d max=%d",
+                    count, getMean(), p50, p90, p99, p999, max);
+        }
+
+        /**
+         * Writes the statistics as a JSON object.
+         *
+         * @return The statistics as JSON.
+         */
+        public String toJson() {
+            return String.format(Locale.ROOT, "{\"count\":%d,\"mean\":%.1f,\"p50\":%d,\"p90\":%d,\"p99\":%d,\"p999\":%d,\"max\":%d}",
+                    count, getMean(), p50, p90, p99, p999, max);
+        }
+
+        @Override
+        public String toString() {
+            return toText();
+        }
+    }
+
+    /**
+     * Finds the bucket of a value: the value itself below SUB_BUCKETS, and above that the power of two
+     * it is in, counted by how far it is shifted to keep its top SUB_BUCKET_BITS bits, and those bits.
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        return shift * HALF_SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+     * Gets the highest value that falls in a bucket: its top bits followed by ones. The bits are or-ed in
+     * rather than added, since the next bucket's lowest value would not fit in a long for the last bucket.
+     */
+    static long highestValueOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / HALF_SUB_BUCKETS - 1;
+        long subBucket = bucket - (long) shift * HALF_SUB_BUCKETS;
+        return (subBucket << shift) | ((1L << shift) - 1);
+    }
+
+    private static long valueAt(long[] counts, long total, double fraction, long max) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(fraction * total);
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return Math.min(highestValueOf(bucket), max);
+            }
+        }
+        return max;
+    }
+}
@@ -0,0 +1,147 @@
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+/**
+ * This class contains unit tests for the MetricHistogram class: its buckets and the percentiles read from them.
+ */
+public class MetricHistogramTest {
+    /**
+     * Tests the buckets of small values.
+     * Validates that every value below 128 has a bucket of its own.
+     */
+    @Test
+    public void testSmallValuesExact() {
+        for (long value = 0; value < 128; value++) {
+            assertEquals(value, MetricHistogram.bucketOf(value));
+            assertEquals(value, MetricHistogram.highestValueOf((int) value));
+        }
+    }
+
+    /**
+     * Tests the buckets around 128 and 256, where the width of a bucket doubles.
+     * Validates that 128 starts buckets two values wide and 256 starts buckets four values wide.
+     */
+    @Test
+    public void testBoundaries() {
+        assertEquals(128, MetricHistogram.bucketOf(128));
+        assertEquals(128, MetricHistogram.bucketOf(129));
+        assertEquals(129, MetricHistogram.bucketOf(130));
+        assertEquals(129, MetricHistogram.highestValueOf(128));
+        assertEquals(191, MetricHistogram.bucketOf(255));
+        assertEquals(255, MetricHistogram.highestValueOf(191));
+        assertEquals(192, MetricHistogram.bucketOf(256));
+        assertEquals(192, MetricHistogram.bucketOf(259));
+        assertEquals(193, MetricHistogram.bucketOf(260));
+        assertEquals(259, MetricHistogram.highestValueOf(192));
+    }
+
+    /**
+     * Tests the buckets over the whole range of long.
+     * Validates that buckets follow one another without gaps, that each holds the values it claims,
+     * and that each is no wider than 1/64 of its values.
+     */
+    @Test
+    public void testBucketsContiguous() {
+        int last = MetricHistogram.bucketOf(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, MetricHistogram.highestValueOf(last));
+        long lowest = 0;
+        for (int bucket = 0; bucket <= last; bucket++) {
+            long highest = MetricHistogram.highestValueOf(bucket);
+            assertTrue("Bucket " + bucket + " is empty", highest >= lowest);
+            assertEquals(bucket, MetricHistogram.bucketOf(lowest));
+            assertEquals(bucket, MetricHistogram.bucketOf(highest));
+            assertTrue("Bucket " + bucket + " is too wide", highest - lowest <= lowest / 64);
+            lowest = highest + 1;
+        }
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < 10_000; i++) {
+            long value = random.nextLong(Long.MAX_VALUE) >>> random.nextInt(63);
+            int bucket = MetricHistogram.bucketOf(value);
+            assertTrue(value <= MetricHistogram.highestValueOf(bucket));
+            assertTrue(bucket == 0 || value > MetricHistogram.highestValueOf(bucket - 1));
+        }
+    }
+
+    /**
+     * Tests the percentiles of values that each have a bucket of their own.
+     * Validates that they are exact.
+     */
+    @Test
+    public void testExactPercentiles() {
+        MetricHistogram histogram = new MetricHistogram();
+        for (long value = 0; value < 100; value++) {
+            histogram.record(value);
+        }
+        MetricHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(100, snapshot.getCount());
+        assertEquals(49.5, snapshot.getMean(), 1e-9);
+        assertEquals(99, snapshot.getMax());
+        assertEquals(49, snapshot.getPercentile(50));
+        assertEquals(89, snapshot.getPercentile(90));
+        assertEquals(98, snapshot.getPercentile(99));
+        assertEquals(99, snapshot.getPercentile(99.9));
+    }
+
+    /**
+     * Tests the percentiles of values spread over many buckets.
+     * Validates that each is the highest value of the bucket holding it, but never above the maximum.
+     */
+    @Test
+    public void testBucketedPercentiles() {
+        MetricHistogram histogram = new MetricHistogram();
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value);
+        }
+        MetricHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(500.5, snapshot.getMean(), 1e-9);
+        assertEquals(MetricHistogram.highestValueOf(MetricHistogram.bucketOf(500)), snapshot.getPercentile(50));
+        assertEquals(503, snapshot.getPercentile(50));
+        assertEquals(MetricHistogram.highestValueOf(MetricHistogram.bucketOf(900)), snapshot.getPercentile(90));
+        assertEquals(999, snapshot.getPercentile(99.9));
+        histogram.record(1001);
+        assertEquals(1001, histogram.snapshot().getPercentile(99.9));
+        assertEquals(1000, snapshot.getMax());
+    }
+
+    /**
+     * Tests recording negative and very large values.
+     * Validates that negative values count as 0 and the largest long is read back as itself.
+     */
+    @Test
+    public void testExtremeValues() {
+        MetricHistogram histogram = new MetricHistogram();
+        histogram.record(-5);
+        assertEquals(0, histogram.snapshot().getPercentile(50));
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(Long.MAX_VALUE);
+        MetricHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(3, snapshot.getCount());
+        assertEquals(Long.MAX_VALUE, snapshot.getMax());
+        assertEquals(Long.MAX_VALUE, snapshot.getPercentile(50));
+    }
+
+    /**
+     * Tests an empty histogram, and one that has been reset.
+     * Validates that both report no values, and that percentiles that are not kept are rejected.
+     */
+    @Test
+    public void testEmptyAndReset() {
+        MetricHistogram histogram = new MetricHistogram();
+        assertEquals("count=0 mean=0.0 p50=0 p90=0 p99=0 p99.9=0 max=0", histogram.snapshot().toText());
+        histogram.record(1000);
+        histogram.reset();
+        MetricHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getMax());
+        assertEquals(0, snapshot.getPercentile(99));
+        try {
+            snapshot.getPercentile(75);
+            fail("A percentile that is not kept was returned");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
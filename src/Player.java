@@ -1,31 +1,70 @@
 /**
  * The Player class represents a participant in the Stuck in the Mud game.
  * Each player has a name, a score, and keeps track of the stuck status of each die they roll.
+ * A player can be put on a Leaderboard, which the player then keeps up to date whenever their score changes.
  */
 public class Player {
     private final String name;
+    private final RuleSet rules;
     private int score;
-    private boolean die1Stuck, die2Stuck, die3Stuck, die4Stuck;
+    private long stuckDice; // bit i is set when die i is stuck
+    private Leaderboard leaderboard;
 
     /**
-     * Constructs a new player with the specified name.
+     * Constructs a new player with the specified name who plays by the default rules.
      *
      * @param name The name of the player.
      */
     public Player(String name) {
+        this(name, RuleSet.DEFAULT);
+    }
+
+    /**
+     * Constructs a new player with the specified name who plays by the given rules,
+     * which decide how many dice the player has and which faces get them stuck.
+     *
+     * @param name  The name of the player.
+     * @param rules The rules of the game.
+     */
+    public Player(String name, RuleSet rules) {
         this.name = name;
+        this.rules = rules;
         this.score = 0;
     }
 
     /**
-     * Adds the score from a single turn to the player's total score.
+     * Adds the score from a single turn to the player's total score, and moves the player up
+     * their leaderboard if they are on one.
+     * The leaderboard is moved first, so a score it rejects leaves both the player and the board unchanged.
      *
      * @param roundScore The score achieved in the current round.
+     * @throws IllegalArgumentException If the player is on a leaderboard and the new total would be negative.
      */
     public void addScore(int roundScore) {
+        if (leaderboard != null && roundScore != 0) {
+            leaderboard.scoreChanged(this, score + roundScore);
+        }
         this.score += roundScore;
     }
 
+    /**
+     * Gets the leaderboard the player is on.
+     *
+     * @return The leaderboard, or null if the player is not on one.
+     */
+    public Leaderboard getLeaderboard() {
+        return leaderboard;
+    }
+
+    /**
+     * Sets the leaderboard the player is on; called by Leaderboard when the player is added or removed.
+     *
+     * @param leaderboard The leaderboard, or null.
+     */
+    void setLeaderboard(Leaderboard leaderboard) {
+        this.leaderboard = leaderboard;
+    }
+
     /**
      * Gets the player's name.
      *
@@ -51,10 +90,31 @@ public class Player {
      * @param diceRoll An array representing the result of the dice roll.
      */
     public void checkIfStuck(int[] diceRoll) {
-        die1Stuck = diceRoll[0] == 2 || diceRoll[0] == 5;
-        die2Stuck = diceRoll[1] == 2 || diceRoll[1] == 5;
-        die3Stuck = diceRoll[2] == 2 || diceRoll[2] == 5;
-        die4Stuck = diceRoll[3] == 2 || diceRoll[3] == 5;
+        long stuck = 0L;
+        for (int i = 0; i < rules.getNumDice(); i++) {
+            if (rules.isStuck(diceRoll[i])) {
+                stuck |= 1L << i;
+            }
+        }
+        stuckDice = stuck;
+    }
+
+    /**
+     * Gets the stuck status of every die at once.
+     *
+     * @return A bitmask where bit i is set if die i is stuck.
+     */
+    public long getStuckDice() {
+        return stuckDice;
+    }
+
+    /**
+     * Sets the stuck status of every die at once from a bitmask, such as the one built up during a turn.
+     *
+     * @param stuckDice A bitmask where bit i is set if die i is stuck.
+     */
+    public void setStuckDice(long stuckDice) {
+        this.stuckDice = stuckDice;
     }
 
     /**
@@ -62,24 +122,21 @@ public class Player {
      * This is typically done at the start of a player's turn.
      */
     public void resetStuckDice() {
-        die1Stuck = die2Stuck = die3Stuck = die4Stuck = false;
+        stuckDice = 0L;
     }
 
     /**
      * Checks if a specific die is stuck based on its index.
      *
-     * @param dieIndex The index of the die (0-3).
+     * @param dieIndex The index of the die, from 0 to one less than the number of dice.
      * @return true if the die is stuck, false otherwise.
      * @throws IllegalArgumentException If the die index is invalid.
      */
     public boolean isDiceStuck(int dieIndex) {
-        return switch (dieIndex) {
-            case 0 -> die1Stuck;
-            case 1 -> die2Stuck;
-            case 2 -> die3Stuck;
-            case 3 -> die4Stuck;
-            default -> throw new IllegalArgumentException("Invalid die index");
-        };
+        if (dieIndex < 0 || dieIndex >= rules.getNumDice()) {
+            throw new IllegalArgumentException("Invalid die index");
+        }
+        return (stuckDice & (1L << dieIndex)) != 0;
     }
 
     /**
@@ -90,13 +147,12 @@ public class Player {
      */
     @Override
     public String toString() {
-        return "Player{" +
-                "name='" + name + '\'' +
-                ", score=" + score +
-                ", die1Stuck=" + die1Stuck +
-                ", die2Stuck=" + die2Stuck +
-                ", die3Stuck=" + die3Stuck +
-                ", die4Stuck=" + die4Stuck +
-                '}';
+        StringBuilder builder = new StringBuilder("Player{")
+                .append("name='").append(name).append('\'')
+                .append(", score=").append(score);
+        for (int i = 0; i < rules.getNumDice(); i++) {
+            builder.append(", die").append(i + 1).append("Stuck=").append(isDiceStuck(i));
+        }
+        return builder.append('}').toString();
     }
 }
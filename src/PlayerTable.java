@@ -0,0 +1,188 @@
+import java.util.Arrays;
+/**
+ * The PlayerTable class keeps the state of every seat at a Stuck in the Mud table in flat arrays
+ * instead of one Player object per seat: scores in an int array and the stuck status of each
+ * seat's dice as a bitmask in a long array, where bit i is set when die i is stuck.
+ * Names are kept in a separate array and interned, so tables with repeated names share them.
+ * This keeps very large tables compact and lets whole-table questions such as "what is the highest
+ * score" run as a simple loop over one array.
+ */
+public class PlayerTable {
+    private final String[] names;
+    private final int[] scores;
+    private final long[] stuckDice;
+
+    /**
+     * Constructs a table with the given number of unnamed seats, all with a score of 0.
+     *
+     * @param numPlayers The number of seats; must be at least 1.
+     * @throws IllegalArgumentException If the number of seats is less than 1.
+     */
+    public PlayerTable(int numPlayers) {
+        if (numPlayers < 1) {
+            throw new IllegalArgumentException("Invalid number of players: " + numPlayers);
+        }
+        this.names = null;
+        this.scores = new int[numPlayers];
+        this.stuckDice = new long[numPlayers];
+    }
+
+    /**
+     * Constructs a table with one seat for each name, in the given order, all with a score of 0.
+     *
+     * @param playerNames An array of strings representing the names of the players.
+     * @throws IllegalArgumentException If there are no names.
+     */
+    public PlayerTable(String[] playerNames) {
+        if (playerNames.length < 1) {
+            throw new IllegalArgumentException("Invalid number of players: " + playerNames.length);
+        }
+        this.names = new String[playerNames.length];
+        for (int seat = 0; seat < playerNames.length; seat++) {
+            names[seat] = playerNames[seat].intern();
+        }
+        this.scores = new int[playerNames.length];
+        this.stuckDice = new long[playerNames.length];
+    }
+
+    /**
+     * Gets the number of seats at the table.
+     *
+     * @return The seat count.
+     */
+    public int getSize() {
+        return scores.length;
+    }
+
+    /**
+     * Gets the name of the player in the given seat.
+     *
+     * @param seat The seat, in turn order starting at 0.
+     * @return The player's name, or "Player n" (counting from 1) for an unnamed table.
+     */
+    public String getName(int seat) {
+        return names == null ? "Player " + (seat + 1) : names[seat];
+    }
+
+    /**
+     * Gets the current score of the player in the given seat.
+     *
+     * @param seat The seat, in turn order starting at 0.
+     * @return The player's total score.
+     */
+    public int getScore(int seat) {
+        return scores[seat];
+    }
+
+    /**
+     * Adds the score from a single turn to the total score of the player in the given seat.
+     *
+     * @param seat       The seat, in turn order starting at 0.
+     * @param roundScore The score achieved in the current round.
+     * @return The player's new total score.
+     */
+    public int addScore(int seat, int roundScore) {
+        return scores[seat] += roundScore;
+    }
+
+    /**
+     * Gets the stuck status of all the dice of the player in the given seat.
+     *
+     * @param seat The seat, in turn order starting at 0.
+     * @return A bitmask where bit i is set if die i is stuck.
+     */
+    public long getStuckDice(int seat) {
+        return stuckDice[seat];
+    }
+
+    /**
+     * Sets the stuck status of all the dice of the player in the given seat.
+     *
+     * @param seat The seat, in turn order starting at 0.
+     * @param mask A bitmask where bit i is set if die i is stuck.
+     */
+    public void setStuckDice(int seat, long mask) {
+        stuckDice[seat] = mask;
+    }
+
+    /**
+     * Checks if a specific die of the player in the given seat is stuck.
+     *
+     * @param seat     The seat, in turn order starting at 0.
+     * @param dieIndex The index of the die, starting at 0.
+     * @return true if the die is stuck, false otherwise.
+     */
+    public boolean isDiceStuck(int seat, int dieIndex) {
+        return (stuckDice[seat] & (1L << dieIndex)) != 0;
+    }
+
+    /**
+     * Resets every seat to a score of 0 with no stuck dice, so the table can be used for a new game.
+     */
+    public void reset() {
+        Arrays.fill(scores, 0);
+        Arrays.fill(stuckDice, 0L);
+    }
+
+    /**
+     * Gets the highest score at the table.
+     *
+     * @return The highest score of any player.
+     */
+    public int maxScore() {
+        int max = scores[0];
+        for (int seat = 1; seat < scores.length; seat++) {
+            max = Math.max(max, scores[seat]);
+        }
+        return max;
+    }
+
+    /**
+     * Gets the seat of the player with the highest score; ties go to the earliest seat.
+     *
+     * @return The leading seat.
+     */
+    public int leader() {
+        int leader = 0;
+        for (int seat = 1; seat < scores.length; seat++) {
+            if (scores[seat] > scores[leader]) {
+                leader = seat;
+            }
+        }
+        return leader;
+    }
+
+    /**
+     * Checks if any player has reached the given score, such as the winning score.
+     *
+     * @param score The score to look for.
+     * @return true if at least one player has that score or more, false otherwise.
+     */
+    public boolean anyScoreAtLeast(int score) {
+        return firstScoreAtLeast(score) >= 0;
+    }
+
+    /**
+     * Finds the first seat whose player has reached the given score.
+     *
+     * @param score The score to look for.
+     * @return The first seat with that score or more, or -1 if there is none.
+     */
+    public int firstScoreAtLeast(int score) {
+        for (int seat = 0; seat < scores.length; seat++) {
+            if (scores[seat] >= score) {
+                return seat;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Copies the scores of every seat.
+     *
+     * @return A new array holding the score of each seat.
+     */
+    public int[] copyScores() {
+        return scores.clone();
+    }
+}
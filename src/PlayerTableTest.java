@@ -0,0 +1,154 @@
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+/**
+ * This class contains unit tests for the PlayerTable class.
+ */
+public class PlayerTableTest {
+    /**
+     * Tests a new table, named and unnamed.
+     * Validates the seat count, the names and that every score and stuck mask starts at 0.
+     */
+    @Test
+    public void testNewTable() {
+        PlayerTable named = new PlayerTable(new String[]{"Alice", "Bob"});
+        assertEquals(2, named.getSize());
+        assertEquals("Alice", named.getName(0));
+        assertEquals("Bob", named.getName(1));
+        PlayerTable unnamed = new PlayerTable(3);
+        assertEquals("Player 3", unnamed.getName(2));
+        for (int seat = 0; seat < 3; seat++) {
+            assertEquals(0, unnamed.getScore(seat));
+            assertEquals(0L, unnamed.getStuckDice(seat));
+        }
+        assertArrayEquals(new int[3], unnamed.copyScores());
+    }
+
+    /**
+     * Tests the leader and the searches for a score when players are tied.
+     * Validates that ties go to the earliest seat.
+     */
+    @Test
+    public void testTies() {
+        PlayerTable table = new PlayerTable(4);
+        assertEquals(0, table.leader());
+        table.addScore(2, 30);
+        table.addScore(1, 20);
+        assertEquals(2, table.leader());
+        assertEquals(30, table.addScore(1, 10));
+        assertEquals(1, table.leader());
+        table.addScore(3, 30);
+        assertEquals(1, table.leader());
+        assertEquals(30, table.maxScore());
+        assertEquals(1, table.firstScoreAtLeast(30));
+        assertEquals(1, table.firstScoreAtLeast(25));
+        assertEquals(0, table.firstScoreAtLeast(0));
+        assertEquals(-1, table.firstScoreAtLeast(31));
+        assertTrue(table.anyScoreAtLeast(30));
+        assertFalse(table.anyScoreAtLeast(31));
+    }
+
+    /**
+     * Tests copying the scores.
+     * Validates that the copy holds every score and does not change with the table.
+     */
+    @Test
+    public void testCopyScores() {
+        PlayerTable table = new PlayerTable(3);
+        table.addScore(0, 5);
+        table.addScore(2, 7);
+        int[] scores = table.copyScores();
+        assertArrayEquals(new int[]{5, 0, 7}, scores);
+        table.addScore(0, 1);
+        scores[2] = 100;
+        assertEquals(5, scores[0]);
+        assertEquals(7, table.getScore(2));
+    }
+
+    /**
+     * Tests the stuck dice of a seat.
+     * Validates that each die is read from its bit, including the highest.
+     */
+    @Test
+    public void testStuckDice() {
+        PlayerTable table = new PlayerTable(2);
+        table.setStuckDice(1, 0b1010L | 1L << 31);
+        assertEquals(0L, table.getStuckDice(0));
+        assertFalse(table.isDiceStuck(1, 0));
+        assertTrue(table.isDiceStuck(1, 1));
+        assertFalse(table.isDiceStuck(1, 2));
+        assertTrue(table.isDiceStuck(1, 3));
+        assertTrue(table.isDiceStuck(1, 31));
+    }
+
+    /**
+     * Tests resetting a table after a game.
+     * Validates that every score and stuck mask goes back to 0, while the seats and names stay.
+     */
+    @Test
+    public void testReset() {
+        PlayerTable table = new PlayerTable(new String[]{"Alice", "Bob"});
+        table.addScore(0, 50);
+        table.addScore(1, 120);
+        table.setStuckDice(0, 0b11L);
+        table.reset();
+        assertArrayEquals(new int[2], table.copyScores());
+        assertEquals(0L, table.getStuckDice(0));
+        assertEquals(0, table.maxScore());
+        assertEquals(0, table.leader());
+        assertFalse(table.anyScoreAtLeast(1));
+        assertEquals(2, table.getSize());
+        assertEquals("Bob", table.getName(1));
+    }
+
+    /**
+     * Tests seats outside the table.
+     * Validates that they throw IndexOutOfBoundsException, for reading and for writing.
+     */
+    @Test
+    public void testSeatOutOfRange() {
+        PlayerTable table = new PlayerTable(2);
+        int[] seats = {-1, 2};
+        for (int seat : seats) {
+            try {
+                table.getScore(seat);
+                fail("Read seat " + seat);
+            } catch (IndexOutOfBoundsException e) {
+                // expected
+            }
+            try {
+                table.addScore(seat, 1);
+                fail("Scored seat " + seat);
+            } catch (IndexOutOfBoundsException e) {
+                // expected
+            }
+            try {
+                table.setStuckDice(seat, 1L);
+                fail("Stuck dice of seat " + seat);
+            } catch (IndexOutOfBoundsException e) {
+                // expected
+            }
+        }
+        assertArrayEquals(new int[2], table.copyScores());
+    }
+
+    /**
+     * Tests creating a table without seats.
+     * Validates that it is rejected, by count and by names.
+     */
+    @Test
+    public void testNoSeats() {
+        try {
+            new PlayerTable(0);
+            fail("A table without seats was created");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            new PlayerTable(new String[0]);
+            fail("A table without names was created");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/**
+ * The layout of a Stuck in the Mud replay file, shared by ReplayWriter and ReplayReader.
+ * All numbers are little-endian.
+ * <pre>
+ * header  magic (int), version (short), number of dice (byte), stuck face mask (byte),
+ *         winning score (int), reserved (int)
+ * games   one record per game, one after another:
+ *         seed (long), players (unsigned short), winner (unsigned short), turns (int),
+ *         then for each turn the faces, two dice per byte with the lower die in the low four bits,
+ *         followed by the stuck dice mask, eight dice per byte
+ * index   the file offset of each game record (long)
+ * footer  offset of the index (long), number of games (long), magic (int)
+ * </pre>
+ * The header holds the rules, so a file can be replayed without knowing how it was made.
+ */
+final class ReplayFormat {
+    static final int MAGIC = 0x4D544953; // "SITM" in little-endian order
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int GAME_HEADER_BYTES = 16;
+    static final int FOOTER_BYTES = 20;
+    static final int MAX_DICE = 16;
+    static final int MAX_PLAYERS = 0xFFFF;
+
+    private ReplayFormat() {
+    }
+
+    /**
+     * Gets the number of bytes one turn takes for the given number of dice.
+     */
+    static int turnBytes(int numDice) {
+        return faceBytes(numDice) + (numDice + 7) / 8;
+    }
+
+    /**
+     * Gets the number of bytes the faces of one turn take for the given number of dice.
+     */
+    static int faceBytes(int numDice) {
+        return (numDice + 1) / 2;
+    }
+}
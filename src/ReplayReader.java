@@ -0,0 +1,230 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+/**
+ * The ReplayReader class reads a replay file written by ReplayWriter by mapping it into memory,
+ * so games are read straight from the file without copying; see ReplayFormat for the layout.
+ * Any game can be reached directly through the index at the end of the file.
+ * Files larger than a single mapping are mapped in segments that overlap a little, so that a record
+ * starting in one segment can be read from it; the rare record that runs past the overlap is mapped
+ * on its own.
+ */
+public class ReplayReader implements Closeable {
+    private static final long SEGMENT_BYTES = 1L << 30;
+    private static final long OVERLAP_BYTES = 1L << 20;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final MappedByteBuffer[] segments;
+    private final RuleSet rules;
+    private final int faceBytes;
+    private final int turnBytes;
+    private final long indexOffset;
+    private final long games;
+
+    /**
+     * Opens a replay file for reading.
+     *
+     * @param file The replay file.
+     * @throws IOException              If the file cannot be read.
+     * @throws IllegalArgumentException If the file is not a complete replay file.
+     */
+    public ReplayReader(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            fileSize = channel.size();
+            if (fileSize < ReplayFormat.HEADER_BYTES + ReplayFormat.FOOTER_BYTES) {
+                throw new IllegalArgumentException("Not a replay file: " + file);
+            }
+            segments = new MappedByteBuffer[(int) ((fileSize + SEGMENT_BYTES - 1) / SEGMENT_BYTES)];
+            for (int i = 0; i < segments.length; i++) {
+                long start = i * SEGMENT_BYTES;
+                long length = Math.min(SEGMENT_BYTES + OVERLAP_BYTES, fileSize - start);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+                segments[i].order(ByteOrder.LITTLE_ENDIAN);
+            }
+
+            ByteBuffer header = segments[0];
+            long footer = fileSize - ReplayFormat.FOOTER_BYTES;
+            if (header.getInt(0) != ReplayFormat.MAGIC || getInt(footer + 2 * Long.BYTES) != ReplayFormat.MAGIC) {
+                throw new IllegalArgumentException("Not a complete replay file: " + file);
+            }
+            if (header.getShort(4) != ReplayFormat.VERSION) {
+                throw new IllegalArgumentException("Unsupported replay version " + header.getShort(4) + ": " + file);
+            }
+            int numDice = header.get(6);
+            int stuckMask = header.get(7) & 0xFF;
+            int[] stuckFaces = new int[Integer.bitCount(stuckMask)];
+            int count = 0;
+            for (int face = 1; face <= 6; face++) {
+                if ((stuckMask & (1 << face)) != 0) {
+                    stuckFaces[count++] = face;
+                }
+            }
+            rules = new RuleSet(header.getInt(8), numDice, stuckFaces);
+            faceBytes = ReplayFormat.faceBytes(numDice);
+            turnBytes = ReplayFormat.turnBytes(numDice);
+            indexOffset = getLong(footer);
+            games = getLong(footer + Long.BYTES);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the rules of the games in the file.
+     *
+     * @return The rule set.
+     */
+    public RuleSet getRules() {
+        return rules;
+    }
+
+    /**
+     * Gets the number of games in the file.
+     *
+     * @return The game count.
+     */
+    public long getGameCount() {
+        return games;
+    }
+
+    /**
+     * Gets a game from the file by its number, looking up where it starts in the index.
+     *
+     * @param number The number of the game, from 0 to getGameCount() - 1.
+     * @return A view of the game's record in the file.
+     * @throws IndexOutOfBoundsException If there is no game with that number.
+     * @throws IOException               If a record that runs past its segment cannot be mapped.
+     */
+    public Game game(long number) throws IOException {
+        if (number < 0 || number >= games) {
+            throw new IndexOutOfBoundsException("Invalid game: " + number);
+        }
+        long offset = getLong(indexOffset + number * Long.BYTES);
+        ByteBuffer segment = segments[(int) (offset / SEGMENT_BYTES)];
+        int start = (int) (offset % SEGMENT_BYTES);
+        int turns = segment.getInt(start + Long.BYTES + 2 * Short.BYTES);
+        long length = ReplayFormat.GAME_HEADER_BYTES + (long) turns * turnBytes;
+        if (start + length > segment.limit()) {
+            segment = channel.map(FileChannel.MapMode.READ_ONLY, offset, length).order(ByteOrder.LITTLE_ENDIAN);
+            start = 0;
+        }
+        return new Game(segment, start);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int getInt(long position) {
+        return segments[(int) (position / SEGMENT_BYTES)].getInt((int) (position % SEGMENT_BYTES));
+    }
+
+    private long getLong(long position) {
+        return segments[(int) (position / SEGMENT_BYTES)].getLong((int) (position % SEGMENT_BYTES));
+    }
+
+    /**
+     * A view of one game record, read directly from the mapped file.
+     */
+    public class Game {
+        private final ByteBuffer buffer;
+        private final int start;
+
+        Game(ByteBuffer buffer, int start) {
+            this.buffer = buffer;
+            this.start = start;
+        }
+
+        /**
+         * Gets the rules the game was played by, which are the rules of the file.
+         *
+         * @return The rule set.
+         */
+        public RuleSet getRules() {
+            return rules;
+        }
+
+        /**
+         * Gets the seed of the random number generator the game was played with.
+         *
+         * @return The seed.
+         */
+        public long getSeed() {
+            return buffer.getLong(start);
+        }
+
+        /**
+         * Gets the number of players in the game.
+         *
+         * @return The player count.
+         */
+        public int getPlayerCount() {
+            return Short.toUnsignedInt(buffer.getShort(start + Long.BYTES));
+        }
+
+        /**
+         * Gets the seat of the player who won the game.
+         *
+         * @return The winning seat.
+         */
+        public int getWinner() {
+            return Short.toUnsignedInt(buffer.getShort(start + Long.BYTES + Short.BYTES));
+        }
+
+        /**
+         * Gets the total number of turns in the game.
+         *
+         * @return The turn count.
+         */
+        public int getTurns() {
+            return buffer.getInt(start + Long.BYTES + 2 * Short.BYTES);
+        }
+
+        /**
+         * Gets the faces rolled in a turn.
+         *
+         * @param turn The turn, from 0 to getTurns() - 1.
+         * @return The faces packed four bits per die, in the format of TurnEvaluator.rollFaces.
+         */
+        public long getFaces(int turn) {
+            int at = turnStart(turn);
+            long faces = 0L;
+            for (int i = 0; i < faceBytes; i++) {
+                faces |= (long) (buffer.get(at + i) & 0xFF) << (8 * i);
+            }
+            // a shift by 64 would wrap to a shift by 0, so the mask is made by shifting right instead
+            return faces & (-1L >>> (64 - 4 * rules.getNumDice()));
+        }
+
+        /**
+         * Gets the dice that got stuck in a turn.
+         *
+         * @param turn The turn, from 0 to getTurns() - 1.
+         * @return A bitmask where bit i is set if die i got stuck.
+         */
+        public long getStuckDice(int turn) {
+            int at = turnStart(turn) + faceBytes;
+            long stuck = 0L;
+            for (int i = 0; i < turnBytes - faceBytes; i++) {
+                stuck |= (long) (buffer.get(at + i) & 0xFF) << (8 * i);
+            }
+            return stuck;
+        }
+
+        private int turnStart(int turn) {
+            if (turn < 0 || turn >= getTurns()) {
+                throw new IndexOutOfBoundsException("Invalid turn: " + turn);
+            }
+            return start + ReplayFormat.GAME_HEADER_BYTES + turn * turnBytes;
+        }
+    }
+}
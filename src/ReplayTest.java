@@ -0,0 +1,81 @@
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+/**
+ * This class contains unit tests for the replay format, recording games with ReplayWriter
+ * and playing them back from ReplayReader.
+ */
+public class ReplayTest {
+    /**
+     * Records games under the given rules, then replays each one from the file.
+     * Validates that every replay ends exactly like the recorded game, and that the faces read back
+     * are the ones rolled from the game's seed.
+     */
+    private static void roundTrip(RuleSet rules, int players, int games) throws IOException {
+        Path file = Files.createTempFile("replay", ".sitm");
+        try {
+            HeadlessEngine engine = new HeadlessEngine(rules, new SplittableRandom(1), TurnEvaluator.Mode.PER_DIE);
+            PlayerTable table = new PlayerTable(players);
+            GameResult[] results = new GameResult[games];
+            try (ReplayWriter writer = new ReplayWriter(file, rules)) {
+                for (int game = 0; game < games; game++) {
+                    results[game] = engine.record(table, 1000 + game, writer);
+                }
+            }
+            try (ReplayReader reader = new ReplayReader(file)) {
+                assertEquals(rules, reader.getRules());
+                assertEquals(games, reader.getGameCount());
+                for (int game = 0; game < games; game++) {
+                    ReplayReader.Game recorded = reader.game(game);
+                    assertEquals(1000 + game, recorded.getSeed());
+                    assertEquals(players, recorded.getPlayerCount());
+                    GameResult replayed = engine.replay(recorded);
+                    assertEquals(results[game].getWinner(), replayed.getWinner());
+                    assertEquals(results[game].getTurns(), replayed.getTurns());
+                    for (int seat = 0; seat < players; seat++) {
+                        assertEquals(results[game].getScore(seat), replayed.getScore(seat));
+                    }
+                    SplittableRandom random = new SplittableRandom(1000 + game);
+                    for (int turn = 0; turn < recorded.getTurns(); turn++) {
+                        long faces = TurnEvaluator.rollFaces(rules, random);
+                        assertEquals(faces, recorded.getFaces(turn));
+                        assertEquals(TurnEvaluator.stuckDice(TurnEvaluator.evaluate(rules, faces)),
+                                recorded.getStuckDice(turn));
+                    }
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Tests recording and replaying games under the default rules.
+     */
+    @Test
+    public void testRoundTripDefaultRules() throws IOException {
+        roundTrip(RuleSet.DEFAULT, 3, 50);
+    }
+
+    /**
+     * Tests an odd number of dice, where the last byte of a turn's faces holds a single die.
+     */
+    @Test
+    public void testRoundTripOddDice() throws IOException {
+        roundTrip(new RuleSet(100, 5, 2, 5), 2, 20);
+        roundTrip(new RuleSet(300, 15, 1, 3), 2, 10);
+    }
+
+    /**
+     * Tests the largest number of dice the format holds, where the faces fill all 64 bits.
+     */
+    @Test
+    public void testRoundTripMaxDice() throws IOException {
+        roundTrip(new RuleSet(300, 16, 2, 5), 2, 10);
+    }
+}
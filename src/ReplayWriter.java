@@ -0,0 +1,222 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+/**
+ * The ReplayWriter class writes games of Stuck in the Mud to a compact binary replay file through
+ * a FileChannel; see ReplayFormat for the layout. A game is written with beginGame, one call to turn
+ * per turn, and endGame. Turns take a few bytes each: four bits per die face plus one bit per die
+ * for the stuck dice.
+ * The offset of each game is collected in a temporary file next to the replay file and appended to
+ * it as the index when the writer is closed, so the writer uses the same small amount of memory
+ * however many games it writes.
+ */
+public class ReplayWriter implements Closeable {
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    private final RuleSet rules;
+    private final FileChannel channel;
+    private final Path indexFile;
+    private final FileChannel indexChannel;
+    private final ByteBuffer buffer;
+    private final ByteBuffer indexBuffer;
+    private final int faceBytes;
+    private final int maskBytes;
+    // file offset of the first byte in the buffer
+    private long bufferStart;
+    private long games;
+    // file offset of the game being written, or -1 between games
+    private long gameStart;
+    private int gameTurns;
+    private boolean closed;
+
+    /**
+     * Constructs a writer for games played by the given rules, replacing the file if it exists.
+     *
+     * @param file  The replay file to write.
+     * @param rules The rules of every game in the file; must have at most 16 dice.
+     * @throws IOException              If the file cannot be created.
+     * @throws IllegalArgumentException If the rules have too many dice.
+     */
+    public ReplayWriter(Path file, RuleSet rules) throws IOException {
+        if (rules.getNumDice() > ReplayFormat.MAX_DICE) {
+            throw new IllegalArgumentException("Replays support at most " + ReplayFormat.MAX_DICE + " dice");
+        }
+        this.rules = rules;
+        this.faceBytes = ReplayFormat.faceBytes(rules.getNumDice());
+        this.maskBytes = ReplayFormat.turnBytes(rules.getNumDice()) - faceBytes;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.indexFile = file.resolveSibling(file.getFileName() + ".index");
+        this.indexChannel = FileChannel.open(indexFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        this.indexBuffer = ByteBuffer.allocateDirect(BUFFER_BYTES / 16).order(ByteOrder.LITTLE_ENDIAN);
+        this.gameStart = -1;
+
+        buffer.putInt(ReplayFormat.MAGIC);
+        buffer.putShort(ReplayFormat.VERSION);
+        buffer.put((byte) rules.getNumDice());
+        buffer.put((byte) rules.stuckFaces());
+        buffer.putInt(rules.getWinningScore());
+        buffer.putInt(0);
+    }
+
+    /**
+     * Gets the rules of the games in the file.
+     *
+     * @return The rule set.
+     */
+    public RuleSet getRules() {
+        return rules;
+    }
+
+    /**
+     * Gets the number of games written so far.
+     *
+     * @return The game count.
+     */
+    public long getGameCount() {
+        return games;
+    }
+
+    /**
+     * Starts a new game record.
+     *
+     * @param seed    The seed of the random number generator the game was played with.
+     * @param players The number of players; must be from 1 to 65535.
+     * @throws IOException              If the file cannot be written.
+     * @throws IllegalStateException    If the previous game has not been ended.
+     * @throws IllegalArgumentException If the number of players is out of range.
+     */
+    public void beginGame(long seed, int players) throws IOException {
+        if (gameStart >= 0) {
+            throw new IllegalStateException("The previous game has not been ended");
+        }
+        if (players < 1 || players > ReplayFormat.MAX_PLAYERS) {
+            throw new IllegalArgumentException("Invalid number of players: " + players);
+        }
+        ensureRoom(ReplayFormat.GAME_HEADER_BYTES);
+        gameStart = bufferStart + buffer.position();
+        gameTurns = 0;
+        buffer.putLong(seed);
+        buffer.putShort((short) players);
+        buffer.putShort((short) 0); // winner, filled in by endGame
+        buffer.putInt(0); // turns, filled in by endGame
+
+        if (indexBuffer.remaining() < Long.BYTES) {
+            writeIndex();
+        }
+        indexBuffer.putLong(gameStart);
+    }
+
+    /**
+     * Adds a turn to the current game.
+     *
+     * @param faces     The faces of the turn packed four bits per die, as returned by TurnEvaluator.rollFaces.
+     * @param stuckDice A bitmask where bit i is set if die i got stuck.
+     * @throws IOException If the file cannot be written.
+     */
+    public void turn(long faces, long stuckDice) throws IOException {
+        if (gameStart < 0) {
+            throw new IllegalStateException("No game has been started");
+        }
+        ensureRoom(faceBytes + maskBytes);
+        for (int i = 0; i < faceBytes; i++) {
+            buffer.put((byte) (faces >>> (8 * i)));
+        }
+        for (int i = 0; i < maskBytes; i++) {
+            buffer.put((byte) (stuckDice >>> (8 * i)));
+        }
+        gameTurns++;
+    }
+
+    /**
+     * Ends the current game record.
+     *
+     * @param winner The seat of the player who won.
+     * @throws IOException If the file cannot be written.
+     */
+    public void endGame(int winner) throws IOException {
+        if (gameStart < 0) {
+            throw new IllegalStateException("No game has been started");
+        }
+        long countsAt = gameStart + Long.BYTES + Short.BYTES;
+        if (countsAt >= bufferStart) {
+            buffer.putShort((int) (countsAt - bufferStart), (short) winner);
+            buffer.putInt((int) (countsAt - bufferStart) + Short.BYTES, gameTurns);
+        } else {
+            // the start of the record has already been written out
+            ByteBuffer counts = ByteBuffer.allocate(Short.BYTES + Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            counts.putShort((short) winner).putInt(gameTurns).flip();
+            while (counts.hasRemaining()) {
+                countsAt += channel.write(counts, countsAt);
+            }
+        }
+        gameStart = -1;
+        games++;
+    }
+
+    /**
+     * Appends the index and footer and closes the file.
+     *
+     * @throws IOException If the file cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (gameStart >= 0) {
+                throw new IllegalStateException("The last game has not been ended");
+            }
+            writeBuffer();
+            writeIndex();
+            long indexOffset = bufferStart;
+            long indexBytes = indexChannel.size();
+            long copied = 0;
+            while (copied < indexBytes) {
+                copied += indexChannel.transferTo(copied, indexBytes - copied, channel.position(indexOffset + copied));
+            }
+            bufferStart = indexOffset + indexBytes;
+            buffer.putLong(indexOffset);
+            buffer.putLong(games);
+            buffer.putInt(ReplayFormat.MAGIC);
+            writeBuffer();
+        } finally {
+            indexChannel.close();
+            Files.deleteIfExists(indexFile);
+            channel.close();
+        }
+    }
+
+    private void ensureRoom(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            writeBuffer();
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        long position = bufferStart;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        bufferStart = position;
+        buffer.clear();
+    }
+
+    private void writeIndex() throws IOException {
+        indexBuffer.flip();
+        while (indexBuffer.hasRemaining()) {
+            indexChannel.write(indexBuffer);
+        }
+        indexBuffer.clear();
+    }
+}
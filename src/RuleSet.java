@@ -0,0 +1,213 @@
+import java.util.Arrays;
+/**
+ * The RuleSet class holds the rules of a game of Stuck in the Mud: the score needed to win,
+ * the number of dice rolled each turn and the faces that get a die stuck in the mud.
+ * A rule set cannot be changed once created. It precomputes the score of each face and, when
+ * there are few enough dice, the score and stuck dice of every possible roll of all the dice,
+ * so that games with other rules run as fast as games with the default ones.
+ */
+public final class RuleSet {
+    /**
+     * The standard rules: first to 100 points wins, four dice are rolled each turn,
+     * and a 2 or a 5 gets a die stuck.
+     */
+    public static final RuleSet DEFAULT = new RuleSet(100, 4, 2, 5);
+    /**
+     * The largest number of dice a rule set can have, so that the stuck dice of a turn fit in 32 bits.
+     */
+    public static final int MAX_DICE = 32;
+    // the outcome table is only built while it stays small, which is up to 7 dice (6^7 rolls)
+    private static final int MAX_OUTCOMES = 279936;
+
+    private final int winningScore;
+    private final int numDice;
+    private final int stuckFaces;
+    private final int[] faceScore;
+    private final int maxTurnScore;
+    private final long[] outcomeTurn;
+
+    /**
+     * Constructs a new rule set.
+     *
+     * @param winningScore The score a player needs to win; must be at least 1.
+     * @param numDice      The number of dice rolled each turn; must be from 1 to MAX_DICE.
+     * @param stuckFaces   The faces, from 1 to 6, that get a die stuck in the mud; at least one face
+     *                     must not be, or no player could ever score.
+     * @throws IllegalArgumentException If any of the rules is out of range, or every face is stuck.
+     */
+    public RuleSet(int winningScore, int numDice, int... stuckFaces) {
+        if (winningScore < 1) {
+            throw new IllegalArgumentException("Invalid winning score: " + winningScore);
+        }
+        if (numDice < 1 || numDice > MAX_DICE) {
+            throw new IllegalArgumentException("Invalid number of dice: " + numDice);
+        }
+        int faces = 0;
+        for (int face : stuckFaces) {
+            if (face < 1 || face > 6) {
+                throw new IllegalArgumentException("Invalid stuck face: " + face);
+            }
+            faces |= 1 << face;
+        }
+        if (faces == 0b1111110) {
+            throw new IllegalArgumentException("Every face is stuck, so no player can score");
+        }
+        this.winningScore = winningScore;
+        this.numDice = numDice;
+        this.stuckFaces = faces;
+
+        faceScore = new int[7];
+        int bestFace = 0;
+        for (int face = 1; face <= 6; face++) {
+            faceScore[face] = isStuck(face) ? 0 : face;
+            bestFace = Math.max(bestFace, faceScore[face]);
+        }
+        maxTurnScore = bestFace * numDice;
+
+        int outcomes = 1;
+        for (int i = 0; i < numDice && outcomes <= MAX_OUTCOMES; i++) {
+            outcomes *= 6;
+        }
+        if (outcomes <= MAX_OUTCOMES) {
+            outcomeTurn = new long[outcomes];
+            for (int outcome = 0; outcome < outcomes; outcome++) {
+                int rest = outcome;
+                int score = 0;
+                long stuck = 0L;
+                for (int i = 0; i < numDice; i++) {
+                    int face = rest % 6 + 1;
+                    rest /= 6;
+                    score += faceScore[face];
+                    stuck |= (long) ((faces >>> face) & 1) << i;
+                }
+                outcomeTurn[outcome] = stuck << 32 | score;
+            }
+        } else {
+            outcomeTurn = null;
+        }
+    }
+
+    /**
+     * Gets the score a player needs to win.
+     *
+     * @return The winning score.
+     */
+    public int getWinningScore() {
+        return winningScore;
+    }
+
+    /**
+     * Gets the number of dice rolled each turn.
+     *
+     * @return The die count.
+     */
+    public int getNumDice() {
+        return numDice;
+    }
+
+    /**
+     * Gets the faces that get a die stuck in the mud.
+     *
+     * @return The stuck faces, in increasing order.
+     */
+    public int[] getStuckFaces() {
+        int[] faces = new int[Integer.bitCount(stuckFaces)];
+        int count = 0;
+        for (int face = 1; face <= 6; face++) {
+            if (isStuck(face)) {
+                faces[count++] = face;
+            }
+        }
+        return faces;
+    }
+
+    /**
+     * Checks if a face gets a die stuck in the mud.
+     *
+     * @param face The number rolled on the die.
+     * @return true if the die is stuck, false otherwise.
+     */
+    public boolean isStuck(int face) {
+        return (stuckFaces & (1 << face)) != 0;
+    }
+
+    /**
+     * Gets the stuck faces as a bitmask where bit f is set when face f gets a die stuck.
+     *
+     * @return The stuck face mask.
+     */
+    int stuckFaces() {
+        return stuckFaces;
+    }
+
+    /**
+     * Gets the points a die showing the given face scores: nothing for a stuck face, otherwise its value.
+     *
+     * @param face The number rolled on the die, from 1 to 6.
+     * @return The points scored by the die.
+     */
+    public int faceScore(int face) {
+        return faceScore[face];
+    }
+
+    /**
+     * Gets the most points a single turn can score.
+     *
+     * @return The highest possible turn score.
+     */
+    public int getMaxTurnScore() {
+        return maxTurnScore;
+    }
+
+    /**
+     * Gets the number of possible rolls of all the dice in the outcome table.
+     *
+     * @return 6 to the power of the number of dice, or 0 if there are too many dice for a table.
+     */
+    int outcomeCount() {
+        return outcomeTurn == null ? 0 : outcomeTurn.length;
+    }
+
+    /**
+     * Gets the precomputed turn for one possible roll of all the dice, in the format used by TurnEvaluator.
+     *
+     * @param outcome The roll, numbered from 0 to outcomeCount() - 1.
+     * @return The turn, holding its score and its stuck dice.
+     */
+    long outcomeTurn(int outcome) {
+        return outcomeTurn[outcome];
+    }
+
+    /**
+     * Checks if another object is a rule set with the same rules.
+     *
+     * @param o The object to compare with.
+     * @return true if the rules are the same, false otherwise.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RuleSet)) return false;
+        RuleSet other = (RuleSet) o;
+        return winningScore == other.winningScore && numDice == other.numDice && stuckFaces == other.stuckFaces;
+    }
+
+    @Override
+    public int hashCode() {
+        return (winningScore * 31 + numDice) * 31 + stuckFaces;
+    }
+
+    /**
+     * Provides a string representation of the rules.
+     *
+     * @return A string representing the rule set.
+     */
+    @Override
+    public String toString() {
+        return "RuleSet{" +
+                "winningScore=" + winningScore +
+                ", numDice=" + numDice +
+                ", stuckFaces=" + Arrays.toString(getStuckFaces()) +
+                '}';
+    }
+}
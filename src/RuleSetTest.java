@@ -0,0 +1,99 @@
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+/**
+ * This class contains unit tests for the RuleSet class: its validation, its face scores and its outcome table.
+ */
+public class RuleSetTest {
+    /**
+     * Tests the default rules.
+     * Validates the winning score, the dice, the stuck faces and the scores of every face.
+     */
+    @Test
+    public void testDefaultRules() {
+        RuleSet rules = RuleSet.DEFAULT;
+        assertEquals(100, rules.getWinningScore());
+        assertEquals(4, rules.getNumDice());
+        assertArrayEquals(new int[]{2, 5}, rules.getStuckFaces());
+        int[] scores = {1, 0, 3, 4, 0, 6};
+        for (int face = 1; face <= 6; face++) {
+            assertEquals(scores[face - 1], rules.faceScore(face));
+            assertEquals(scores[face - 1] == 0, rules.isStuck(face));
+        }
+        assertEquals(24, rules.getMaxTurnScore());
+        assertEquals("RuleSet{winningScore=100, numDice=4, stuckFaces=[2, 5]}", rules.toString());
+    }
+
+    /**
+     * Tests the highest turn score when the highest faces are stuck.
+     * Validates that it is the best face that still scores, times the number of dice.
+     */
+    @Test
+    public void testMaxTurnScore() {
+        assertEquals(15, new RuleSet(10, 3, 6).getMaxTurnScore());
+        assertEquals(2, new RuleSet(10, 2, 2, 3, 4, 5, 6).getMaxTurnScore());
+        assertEquals(6 * 32, new RuleSet(10, 32).getMaxTurnScore());
+    }
+
+    /**
+     * Tests rules out of range.
+     * Validates that each is rejected, including rules where every face is stuck.
+     */
+    @Test
+    public void testInvalidRules() {
+        int[][] invalid = {{0, 4, 2}, {-1, 4, 2}, {100, 0, 2}, {100, 33, 2}, {100, 4, 0}, {100, 4, 7},
+                {100, 4, 1, 2, 3, 4, 5, 6}};
+        for (int[] rules : invalid) {
+            try {
+                new RuleSet(rules[0], rules[1], Arrays.copyOfRange(rules, 2, rules.length));
+                fail("Accepted " + Arrays.toString(rules));
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+        new RuleSet(1, 1);
+        new RuleSet(100, RuleSet.MAX_DICE, 1, 2, 3, 4, 5);
+    }
+
+    /**
+     * Tests rule sets made with the same rules in different ways.
+     * Validates that stuck faces are a set, in any order and with repeats, and that equal rules hash alike
+     * while different rules are not equal.
+     */
+    @Test
+    public void testEqualsAndHashCode() {
+        RuleSet rules = new RuleSet(100, 4, 5, 2, 5);
+        assertEquals(RuleSet.DEFAULT, rules);
+        assertEquals(RuleSet.DEFAULT.hashCode(), rules.hashCode());
+        assertArrayEquals(new int[]{2, 5}, rules.getStuckFaces());
+        assertFalse(RuleSet.DEFAULT.equals(new RuleSet(101, 4, 2, 5)));
+        assertFalse(RuleSet.DEFAULT.equals(new RuleSet(100, 5, 2, 5)));
+        assertFalse(RuleSet.DEFAULT.equals(new RuleSet(100, 4, 2, 6)));
+        assertFalse(RuleSet.DEFAULT.equals(null));
+        assertFalse(RuleSet.DEFAULT.equals("RuleSet"));
+    }
+
+    /**
+     * Tests the outcome table against the faces each outcome stands for, where die i shows
+     * the i-th digit of the outcome in base 6, plus one.
+     * Validates every entry's score and stuck dice, and that the table is only kept for up to seven dice.
+     */
+    @Test
+    public void testOutcomeTable() {
+        for (int numDice = 1; numDice <= 5; numDice++) {
+            RuleSet rules = new RuleSet(50, numDice, 1, 4);
+            assertEquals((int) Math.pow(6, numDice), rules.outcomeCount());
+            for (int outcome = 0; outcome < rules.outcomeCount(); outcome++) {
+                long faces = 0L;
+                for (int i = 0, rest = outcome; i < numDice; i++, rest /= 6) {
+                    faces |= (long) (rest % 6 + 1) << (4 * i);
+                }
+                assertEquals(TurnEvaluator.evaluate(rules, faces), rules.outcomeTurn(outcome));
+            }
+        }
+        assertEquals(279936, new RuleSet(50, 7, 2, 5).outcomeCount());
+        assertEquals(0, new RuleSet(50, 8, 2, 5).outcomeCount());
+    }
+}
@@ -0,0 +1,416 @@
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+/**
+ * Represents a circular list kept as an indexable skip list, so that any position can be reached without
+ * walking the list from the start.
+ * Every node is on the bottom level, which links the elements from the oldest to the most recently added,
+ * and on a random number of the levels above, where each level links about a quarter of the nodes
+ * of the level below. Each link also records how many positions it skips over, so a search for a position
+ * drops down the levels adding up the skipped positions, and get, insert and remove at any position take
+ * logarithmic time instead of linear time.
+ * It keeps the same positions as CircularLinkedList, where position 0 is the most recently added element,
+ * and the bottom level is treated as a ring by its iterators and cursors, which go back to the oldest element
+ * after the most recently added one. Its iterators are fail-fast.
+ *
+ * @param <E> the type of elements held in this list
+ */
+public class SkipCircularList<E> implements CircularLinkedListInterface<E> {
+    private static final int MAX_LEVEL = 32;
+    // the head holds no element; its links lead to the first node of each level
+    private final Node<E> head;
+    private int level;
+    private int size;
+    private int modCount;
+    private List<E> snapshot;
+    private int snapshotModCount;
+    // state of the generator that picks the levels of new nodes
+    private long levelSeed;
+    // scratch space for inserts and removals: the last node before the change on each level, and its index + 1
+    private final Node<E>[] update;
+    private final int[] rank;
+
+    /**
+     * A node in the skip list, linked on levels 0 to next.length - 1.
+     */
+    private static class Node<E> {
+        final E data;
+        final Node<E>[] next;
+        // span[i] is the number of positions that next[i] moves forward, or up to the end for the last node
+        final int[] span;
+
+        @SuppressWarnings("unchecked")
+        Node(E data, int levels) {
+            this.data = data;
+            this.next = (Node<E>[]) new Node<?>[levels];
+            this.span = new int[levels];
+        }
+    }
+
+    /**
+     * Constructs an empty SkipCircularList.
+     */
+    public SkipCircularList() {
+        head = new Node<>(null, MAX_LEVEL);
+        level = 1;
+        size = 0;
+        levelSeed = 0x9E3779B97F4A7C15L;
+        @SuppressWarnings("unchecked")
+        Node<E>[] nodes = (Node<E>[]) new Node<?>[MAX_LEVEL];
+        update = nodes;
+        rank = new int[MAX_LEVEL];
+    }
+
+    /**
+     * Retrieves a count of elements being maintained by the list.
+     *
+     * @return the size of the list (count of elements)
+     */
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Retrieves the data at the specified position in the list in logarithmic time
+     *
+     * @param position 0-based index for the list; must be in the range 0 to size - 1
+     * @return the data in the specified position in the list
+     */
+    @Override
+    public E get(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Invalid position: " + position);
+        }
+        return nodeAt(size - position - 1).data;
+    }
+
+    /**
+     * Adds a new node to the end of the list; by nature, this element's next will point to the first element
+     *
+     * @param value the element to add to the list
+     */
+    @Override
+    public void add(E value) {
+        insertAt(size, value);
+    }
+
+    /**
+     * Inserts an element at the specified position in logarithmic time, so that get(position) returns it.
+     * The elements from that position on move one position further; position 0 adds the element like add,
+     * and position size makes it the oldest element.
+     *
+     * @param position position in the list; must be in range 0 to size
+     * @param value    the element to insert
+     */
+    public void add(int position, E value) {
+        if (position < 0 || position > size) {
+            throw new IndexOutOfBoundsException("Invalid position: " + position);
+        }
+        insertAt(size - position, value);
+    }
+
+    /**
+     * Removes the specified item from the list, if it exists there.  Finding the item scans the list,
+     * and unlinking it takes logarithmic time.
+     *
+     * @param value the element to remove from the list
+     * @return true, if the element was found and removed; false, if not found or list is empty
+     */
+    @Override
+    public boolean remove(E value) {
+        int index = indexOf(value);
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    /**
+     * Checks whether the list holds the specified item.
+     *
+     * @param value the element to look for
+     * @return true, if the element is in the list; false, if not
+     */
+    @Override
+    public boolean contains(E value) {
+        return indexOf(value) >= 0;
+    }
+
+    /**
+     * Removes the node at the specified position in the list in logarithmic time
+     * @param position position in the list; must be in range 0 to size - 1
+     */
+    @Override
+    public void remove(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Invalid position: " + position);
+        }
+        removeAt(size - position - 1);
+    }
+
+    /**
+     * Retrieves a fail-fast iterator over the list's elements.  Its remove method removes the element
+     * it returned last in logarithmic time; changing the list in any other way during iteration makes
+     * the iterator throw a ConcurrentModificationException
+     *
+     * @return a strongly typed iterator over elements in the list
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new SkipListIterator();
+    }
+
+    /**
+     * Retrieves a read-only copy of the list's elements, in iteration order.  The copy is made only if
+     * the list has changed since the last snapshot; otherwise the last snapshot is returned again
+     *
+     * @return an unmodifiable list of the elements
+     */
+    @Override
+    public List<E> snapshot() {
+        if (snapshot == null || snapshotModCount != modCount) {
+            Object[] elements = new Object[size];
+            Node<E> node = head.next[0];
+            for (int i = 0; i < size; i++) {
+                elements[i] = node.data;
+                node = node.next[0];
+            }
+            @SuppressWarnings("unchecked")
+            List<E> copy = (List<E>) Collections.unmodifiableList(Arrays.asList(elements));
+            snapshot = copy;
+            snapshotModCount = modCount;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Retrieves a cursor positioned on the first element of the list.  Moving the cursor takes constant time;
+     * removing or inserting at its position takes logarithmic time
+     *
+     * @return a strongly typed cursor over elements in the list
+     */
+    @Override
+    public Cursor<E> cursor() {
+        return new SkipListCursor();
+    }
+
+    /**
+     * Finds the node at the given index counted from the oldest element.
+     */
+    private Node<E> nodeAt(int index) {
+        Node<E> node = head;
+        int reached = -1; // the index of node; the head comes before index 0
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && reached + node.span[i] <= index) {
+                reached += node.span[i];
+                node = node.next[i];
+            }
+        }
+        return node;
+    }
+
+    private int indexOf(E value) {
+        Node<E> node = head.next[0];
+        for (int i = 0; i < size; i++) {
+            if (node.data.equals(value)) {
+                return i;
+            }
+            node = node.next[0];
+        }
+        return -1;
+    }
+
+    /**
+     * Picks the number of levels of a new node: one, plus one more with probability 1/4 each time.
+     */
+    private int randomLevel() {
+        levelSeed ^= levelSeed << 13;
+        levelSeed ^= levelSeed >>> 7;
+        levelSeed ^= levelSeed << 17;
+        return Math.min(Long.numberOfTrailingZeros(levelSeed) / 2 + 1, MAX_LEVEL);
+    }
+
+    /**
+     * Inserts an element at the given index counted from the oldest element.
+     *
+     * @param index the index the new element will have, from 0 to size
+     * @param value the element to insert
+     */
+    private void insertAt(int index, E value) {
+        Node<E> node = head;
+        int reached = 0; // the number of nodes up to and including node
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && reached + node.span[i] <= index) {
+                reached += node.span[i];
+                node = node.next[i];
+            }
+            update[i] = node;
+            rank[i] = reached;
+        }
+
+        int newLevel = randomLevel();
+        if (newLevel > level) {
+            for (int i = level; i < newLevel; i++) {
+                update[i] = head;
+                rank[i] = 0;
+                head.span[i] = size;
+            }
+            level = newLevel;
+        }
+        Node<E> added = new Node<>(value, newLevel);
+        for (int i = 0; i < newLevel; i++) {
+            added.next[i] = update[i].next[i];
+            update[i].next[i] = added;
+            added.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = newLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Removes the element at the given index counted from the oldest element.
+     *
+     * @param index the index of the element, from 0 to size - 1
+     * @return the removed element
+     */
+    private E removeAt(int index) {
+        Node<E> node = head;
+        int reached = 0;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && reached + node.span[i] <= index) {
+                reached += node.span[i];
+                node = node.next[i];
+            }
+            update[i] = node;
+        }
+
+        Node<E> removed = update[0].next[0];
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == removed) {
+                update[i].span[i] += removed.span[i] - 1;
+                update[i].next[i] = removed.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+
+        size--;
+        modCount++;
+        return removed.data;
+    }
+
+    private class SkipListIterator implements Iterator<E> {
+        private Node<E> nextNode = head.next[0];
+        private int index = 0;
+        // index of the element returned last, or -1 if there is nothing to remove
+        private int lastIndex = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        @Override
+        public E next() {
+            checkForComodification();
+            if (index >= size) {
+                throw new NoSuchElementException();
+            }
+            E item = nextNode.data;
+            nextNode = nextNode.next[0];
+            lastIndex = index++;
+            return item;
+        }
+
+        @Override
+        public void remove() {
+            if (lastIndex < 0) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            removeAt(lastIndex);
+            index = lastIndex;
+            lastIndex = -1;
+            expectedModCount = modCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    private class SkipListCursor implements Cursor<E> {
+        // the node at the cursor's position and its index counted from the oldest element
+        private Node<E> current = head.next[0];
+        private int index = 0;
+
+        private Node<E> currentNode() {
+            if (size == 0) {
+                throw new NoSuchElementException();
+            }
+            if (current == null) {
+                current = head.next[0]; // the list was empty when the cursor was made
+                index = 0;
+            }
+            return current;
+        }
+
+        @Override
+        public E current() {
+            return currentNode().data;
+        }
+
+        @Override
+        public void advance() {
+            Node<E> node = currentNode();
+            if (index + 1 == size) {
+                current = head.next[0];
+                index = 0;
+            } else {
+                current = node.next[0];
+                index++;
+            }
+        }
+
+        @Override
+        public E removeCurrent() {
+            Node<E> node = currentNode();
+            E removed = removeAt(index);
+            if (index == size) {
+                current = head.next[0];
+                index = 0;
+            } else {
+                current = node.next[0];
+            }
+            return removed;
+        }
+
+        @Override
+        public void insertAfterCurrent(E value) {
+            if (size == 0) {
+                insertAt(0, value);
+                current = head.next[0];
+                index = 0;
+                return;
+            }
+            currentNode();
+            insertAt(index + 1, value);
+        }
+    }
+}
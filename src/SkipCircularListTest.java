@@ -0,0 +1,71 @@
+import org.junit.Test;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+/**
+ * This class runs every CircularLinkedListTest against SkipCircularList, and adds tests of inserting
+ * and removing at any position in lists large enough to use many levels.
+ */
+public class SkipCircularListTest extends CircularLinkedListTest {
+
+    @Override
+    protected CircularLinkedListInterface<String> createList() {
+        return new SkipCircularList<>();
+    }
+
+    /**
+     * Tests inserting at a position.
+     * Checks that get returns the inserted element at that position and the others move along.
+     */
+    @Test
+    public void testAddAtPosition() {
+        SkipCircularList<String> list = new SkipCircularList<>();
+        list.add("A");
+        list.add("C");
+        list.add(1, "B"); // between "C" at position 0 and "A" at position 1
+        list.add(0, "D");
+        list.add(4, "Z"); // the oldest element
+
+        assertEquals(5, list.getSize());
+        assertEquals("D", list.get(0));
+        assertEquals("C", list.get(1));
+        assertEquals("B", list.get(2));
+        assertEquals("A", list.get(3));
+        assertEquals("Z", list.get(4));
+        assertEquals("Z", list.iterator().next());
+    }
+
+    /**
+     * Tests many random inserts, removals and lookups by position on a large list.
+     * Checks every result against a CircularArrayList given the same operations.
+     */
+    @Test
+    public void testRandomPositionsMatchArrayList() {
+        SkipCircularList<Integer> list = new SkipCircularList<>();
+        CircularArrayList<Integer> expected = new CircularArrayList<>();
+        Random random = new Random(17);
+        for (int i = 0; i < 2000; i++) {
+            list.add(i);
+            expected.add(i);
+        }
+        for (int i = 0; i < 20000; i++) {
+            int size = expected.getSize();
+            switch (random.nextInt(3)) {
+                case 0:
+                    list.add(i);
+                    expected.add(i);
+                    break;
+                case 1:
+                    int position = random.nextInt(size);
+                    list.remove(position);
+                    expected.remove(position);
+                    break;
+                default:
+                    position = random.nextInt(size);
+                    assertEquals(expected.get(position), list.get(position));
+            }
+            assertEquals(expected.getSize(), list.getSize());
+        }
+        assertEquals(expected.snapshot(), list.snapshot());
+    }
+}
@@ -1,49 +1,204 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
 import java.util.Random;
+import java.util.random.RandomGenerator;
 /**
  * The StuckInTheMud class represents a simple dice game where players roll dice
  * and accumulate points unless they roll specific "stuck" numbers.
+ * Every die roll and turn result is reported as an event through a GameEventLog, which hands it to
+ * a GameEventSink on a background thread; by default the events are written to the console.
+ * The dice are rolled with a RandomGenerator that can be given to the game, so a game created
+ * with the same generator algorithm and seed, such as one from GameRandom, rolls the same dice.
+ * The players are kept on a Leaderboard that follows every score as it changes, so checking for a winner
+ * and finding the leader take constant time, and spectators can read the standings during the game.
+ * A game can be saved turn by turn to a GameCheckpoint, and a game created from an opened checkpoint
+ * picks up at the next turn with the same scores, stuck dice and dice to come as the game that was saved.
+ * When GameMetrics are enabled, the game records its start, every turn with its duration, and its win.
  */
 public class StuckInTheMud {
-    private final CircularLinkedList<Player> players;
-    private final Random random;
-    private static final int WINNING_SCORE = 100;
-    private static final int NUM_DICE = 4;
-    private static final int STUCK_NUMBER_1 = 2;
-    private static final int STUCK_NUMBER_2 = 5;
+    private static final int EVENT_BUFFER_SIZE = 1024;
+    private final CircularLinkedListInterface<Player> players;
+    private final RandomGenerator random;
+    private final RuleSet rules;
+    private final GameEventSink eventSink;
+    private final Leaderboard leaderboard;
+    // the checkpoint each turn is saved to, or null if the game is not saved
+    private final GameCheckpoint checkpoint;
+    private final int firstSeat;
     /**
      * Constructs a new StuckInTheMud game with the specified player names.
      *
      * @param playerNames An array of strings representing the names of the players.
      */
     public StuckInTheMud(String[] playerNames) {
-        players = new CircularLinkedList<>();
-        for (String name : playerNames) {
-            players.add(new Player(name));
+        this(playerNames, new CircularLinkedList<>());
+    }
+    /**
+     * Constructs a new StuckInTheMud game with the specified player names whose dice are rolled
+     * by a java.util.Random created with the given seed, so the game can be played again roll for roll.
+     *
+     * @param playerNames An array of strings representing the names of the players.
+     * @param seed        The seed of the random number generator.
+     */
+    public StuckInTheMud(String[] playerNames, long seed) {
+        this(playerNames, new CircularLinkedList<>(), RuleSet.DEFAULT, new ConsoleEventSink(playerNames),
+                new Random(seed));
+    }
+    /**
+     * Constructs a new StuckInTheMud game with the specified player names, seated in the given list.
+     * This allows the game to use any implementation of CircularLinkedListInterface, such as
+     * the array-backed CircularArrayList.
+     *
+     * @param playerNames An array of strings representing the names of the players.
+     * @param players     An empty list that the players are added to.
+     * @throws IllegalArgumentException If the list is not empty.
+     */
+    public StuckInTheMud(String[] playerNames, CircularLinkedListInterface<Player> players) {
+        this(playerNames, players, RuleSet.DEFAULT);
+    }
+    /**
+     * Constructs a new StuckInTheMud game with the specified player names, seated in the given list,
+     * that is played by the given rules.
+     *
+     * @param playerNames An array of strings representing the names of the players.
+     * @param players     An empty list that the players are added to.
+     * @param rules       The rules of the game.
+     * @throws IllegalArgumentException If the list is not empty.
+     */
+    public StuckInTheMud(String[] playerNames, CircularLinkedListInterface<Player> players, RuleSet rules) {
+        this(playerNames, players, rules, new ConsoleEventSink(playerNames));
+    }
+    /**
+     * Constructs a new StuckInTheMud game with the specified player names, seated in the given list,
+     * that is played by the given rules and reports its events to the given sink.
+     * Seats in the events are numbered in turn order starting at 0, which is the order of the names.
+     *
+     * @param playerNames An array of strings representing the names of the players.
+     * @param players     An empty list that the players are added to.
+     * @param rules       The rules of the game.
+     * @param eventSink   The sink that receives every event of the game, such as GameEventSink.NO_OP.
+     * @throws IllegalArgumentException If the list is not empty.
+     */
+    public StuckInTheMud(String[] playerNames, CircularLinkedListInterface<Player> players, RuleSet rules,
+                         GameEventSink eventSink) {
+        this(playerNames, players, rules, eventSink, new Random());
+    }
+    /**
+     * Constructs a new StuckInTheMud game with the specified player names, seated in the given list,
+     * that is played by the given rules, reports its events to the given sink and rolls its dice
+     * with the given random number generator.
+     *
+     * @param playerNames An array of strings representing the names of the players.
+     * @param players     An empty list that the players are added to.
+     * @param rules       The rules of the game.
+     * @param eventSink   The sink that receives every event of the game, such as GameEventSink.NO_OP.
+     * @param random      The random number generator used for every die roll, such as one from GameRandom.
+     * @throws IllegalArgumentException If the list is not empty.
+     */
+    public StuckInTheMud(String[] playerNames, CircularLinkedListInterface<Player> players, RuleSet rules,
+                         GameEventSink eventSink, RandomGenerator random) {
+        this(playerNames, players, rules, eventSink, random, null);
+    }
+    /**
+     * Constructs a StuckInTheMud game that is saved to the given checkpoint after every turn.
+     * The players, rules and random number generator are those of the checkpoint; if it was opened
+     * from a file, the game carries on from its last saved turn, otherwise it starts from the beginning.
+     *
+     * @param checkpoint The checkpoint of the game, from GameCheckpoint.create or GameCheckpoint.open.
+     * @param players    An empty list that the players are added to.
+     * @param eventSink  The sink that receives every event of the game, such as GameEventSink.NO_OP.
+     * @throws IllegalArgumentException If the list is not empty.
+     */
+    public StuckInTheMud(GameCheckpoint checkpoint, CircularLinkedListInterface<Player> players,
+                         GameEventSink eventSink) {
+        this(checkpoint.getPlayerNames(), players, checkpoint.getRules(), eventSink, checkpoint.getRandom(),
+                checkpoint);
+    }
+    private StuckInTheMud(String[] playerNames, CircularLinkedListInterface<Player> players, RuleSet rules,
+                          GameEventSink eventSink, RandomGenerator random, GameCheckpoint checkpoint) {
+        if (players.getSize() != 0) {
+            throw new IllegalArgumentException("The player list must be empty");
         }
-        random = new Random();
+        this.players = players;
+        this.rules = rules;
+        this.eventSink = eventSink;
+        this.random = random;
+        this.leaderboard = new Leaderboard();
+        this.checkpoint = checkpoint;
+        for (int seat = 0; seat < playerNames.length; seat++) {
+            Player player = new Player(playerNames[seat], rules);
+            if (checkpoint != null) {
+                player.addScore(checkpoint.getScore(seat));
+                player.setStuckDice(checkpoint.getStuckDice(seat));
+            }
+            players.add(player);
+            leaderboard.add(player);
+        }
+        this.firstSeat = checkpoint == null ? 0 : checkpoint.getNextSeat();
+    }
+    /**
+     * Gets the leaderboard of the game, which is kept up to date as the game is played.
+     *
+     * @return The leaderboard of the players.
+     */
+    public Leaderboard getLeaderboard() {
+        return leaderboard;
     }
     /**
      * Starts the game of Stuck in the Mud. The game continues until a player wins by reaching
-     * the winning score.
+     * the winning score. A game resumed from a checkpoint starts with the seat whose turn was next.
+     *
+     * @throws UncheckedIOException If a turn cannot be saved to the checkpoint.
      */
     public void startGame() {
         System.out.println("\nLet's start the game of Stuck in the Mud!\n");
-        while (!isGameWon()) {
-            for (int i = 0; i < players.getSize(); i++) {
-                Player currentPlayer = players.get(i);
-                int turnScore = takeTurn(currentPlayer);
+        long gameStartNanos = GameMetrics.ENABLED ? System.nanoTime() : 0;
+        if (GameMetrics.ENABLED) {
+            GameMetrics.gameStarted(players.getSize());
+        }
+        try (GameEventLog events = new GameEventLog(eventSink, EVENT_BUFFER_SIZE)) {
+            CircularLinkedListInterface.Cursor<Player> turn = players.cursor();
+            for (int seat = 0; seat < firstSeat; seat++) {
+                turn.advance();
+            }
+            int seat = firstSeat;
+            int turns = 0;
+            while (!leaderboard.hasScoreAtLeast(rules.getWinningScore())) {
+                Player currentPlayer = turn.current();
+                turn.advance();
+                long turnStartNanos = GameMetrics.ENABLED ? System.nanoTime() : 0;
+                int turnScore = takeTurn(currentPlayer, seat, events);
                 currentPlayer.addScore(turnScore);
+                turns++;
+                events.publish(GameEventType.TURN_SCORED, seat, turnScore, currentPlayer.getScore());
+                if (GameMetrics.ENABLED) {
+                    GameMetrics.turnTaken(turnStartNanos, seat, turnScore, currentPlayer.getScore());
+                }
+                if (checkpoint != null) {
+                    saveTurn(turnScore, currentPlayer.getStuckDice());
+                }
 
-                System.out.println(currentPlayer.getName() + " scores " + turnScore +
-                        " points this round and has a total score of  " + currentPlayer.getScore() + "\n");
-
-                if (currentPlayer.getScore() >= WINNING_SCORE) {
-                    System.out.println(currentPlayer.getName() + " wins with a score of " +
-                            currentPlayer.getScore() + "!");
-                    printFinalScores();
-                    return;
+                if (leaderboard.hasScoreAtLeast(rules.getWinningScore())) {
+                    events.publish(GameEventType.GAME_WON, seat, currentPlayer.getScore(), 0);
+                    if (GameMetrics.ENABLED) {
+                        GameMetrics.gameWon(gameStartNanos, seat, turns);
+                    }
                 }
+                seat = seat + 1 == players.getSize() ? 0 : seat + 1;
             }
+            events.flush(); // writes out every event before the final scores
+        }
+        printFinalScores();
+    }
+    private void saveTurn(int turnScore, long stuckDice) {
+        try {
+            checkpoint.turnTaken(turnScore, stuckDice);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
     /**
@@ -51,33 +206,36 @@ public class StuckInTheMud {
      * and checks for stuck dice.
      *
      * @param player The player who is taking the turn.
+     * @param seat   The seat of the player, in turn order starting at 0.
+     * @param events The log the turn's events are published to.
      * @return The score obtained in this turn.
      */
-    private int takeTurn(Player player) {
-        System.out.println(player.getName() + "'s turn:");
+    private int takeTurn(Player player, int seat, GameEventLog events) {
+        events.publish(GameEventType.TURN_STARTED, seat, 0, 0);
         player.resetStuckDice(); // Reset the stuck status at the start of the turn
         int turnScore = 0;
-        int[] diceRolls = new int[NUM_DICE];
+        long stuckDice = 0L; // bit i is set when die i gets stuck this turn
         try {
             Thread.sleep(300); // Simulate time delay for user experience
-            for (int i = 0; i < NUM_DICE; i++) {
-                diceRolls[i] = random.nextInt(6) + 1; // Roll the die
+            for (int i = 0; i < rules.getNumDice(); i++) {
+                int roll = random.nextInt(6) + 1; // Roll the die
                 if (player.isDiceStuck(i)) {
-                    System.out.println("Die " + (i + 1) + " was already stuck in the mud from the last turn!");
-                } else if (diceRolls[i] == STUCK_NUMBER_1 || diceRolls[i] == STUCK_NUMBER_2) {
-                    System.out.println("Die " + (i + 1) + " rolls a " + diceRolls[i] +
-                            " and it's now stuck in the mud!");
-                    player.checkIfStuck(diceRolls);
+                    events.publish(GameEventType.DIE_STUCK, seat, i, 0);
+                } else if (rules.isStuck(roll)) {
+                    events.publish(GameEventType.DIE_STUCK, seat, i, roll);
+                    stuckDice |= 1L << i;
                 } else {
-                    System.out.println("Die " + (i + 1) + " rolls a " + diceRolls[i] + " and it's free!");
-                    turnScore += diceRolls[i];
+                    events.publish(GameEventType.DIE_ROLLED, seat, i, roll);
+                    turnScore += roll;
                 }
                 Thread.sleep(500); // Sleep after each die roll
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
+            events.flush();
             System.out.println("Game was interrupted.");
         }
+        player.setStuckDice(stuckDice);
         return turnScore;
     }
 
@@ -86,32 +244,37 @@ public class StuckInTheMud {
      */
     private void printFinalScores() {
         System.out.println("\nFinal scores:");
-        for (int i = 0; i < players.getSize(); i++) {
-            Player player = players.get(i);
+        Iterator<Player> iterator = players.iterator();
+        while (iterator.hasNext()) {
+            Player player = iterator.next();
             System.out.println(player.getName() + ": " + player.getScore());
         }
     }
-    /**
-     * Checks if any player has won the game by reaching the winning score.
-     *
-     * @return true if the game is won, false otherwise.
-     */
-    private boolean isGameWon() {
-        for (int i = 0; i < players.getSize(); i++) {
-            if (players.get(i).getScore() >= WINNING_SCORE) {
-                return true;
-            }
-        }
-        return false;
-    }
     /**
      * The main method to start a game of Stuck in the Mud.
      *
-     * @param args Command line arguments (not used).
+     * @param args Command line arguments; an optional seed to play a game again, or "--checkpoint",
+     *             a file and an optional seed to save the game to the file after every turn, or resume
+     *             the game saved there if the file exists.
+     * @throws IOException If the checkpoint file cannot be read or written.
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         String[] playerNames = {"Surafel", "Aymen"};
-        StuckInTheMud game = new StuckInTheMud(playerNames);
+        if (args.length > 1 && args[0].equals("--checkpoint")) {
+            Path file = Paths.get(args[1]);
+            long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+            try (GameCheckpoint checkpoint = Files.exists(file)
+                    ? GameCheckpoint.open(file)
+                    : GameCheckpoint.create(file, playerNames, RuleSet.DEFAULT,
+                            new CountingRandom(GameRandom.Algorithm.SPLITTABLE, seed))) {
+                new StuckInTheMud(checkpoint, new CircularLinkedList<>(),
+                        new ConsoleEventSink(checkpoint.getPlayerNames())).startGame();
+            }
+            return;
+        }
+        StuckInTheMud game = args.length > 0
+                ? new StuckInTheMud(playerNames, Long.parseLong(args[0]))
+                : new StuckInTheMud(playerNames);
         game.startGame();
     }
 }
@@ -0,0 +1,310 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+/**
+ * The SweepCache class keeps the TournamentStats of sweep cells in a directory, one small binary file per
+ * cell, so that a cell played once with some rules, player count, seed and number of games never has to
+ * be played again, by this process or any later one.
+ * A cell's file is named after the SHA-256 hash of those values, and holds the values themselves too,
+ * so a file that does not match what it is looked up for, or is cut short, is treated as missing.
+ * All numbers are little-endian.
+ * <pre>
+ * key     magic (int), version (short), number of dice (byte), stuck face mask (byte),
+ *         winning score (int), players (unsigned short), seed (long), games (long)
+ * stats   total turns (long), wins of each seat (long each),
+ *         number of final scores counted (int), count of each final score (long each)
+ * </pre>
+ * The directory is kept under a size limit by removing the least recently used cells. Using a cell sets
+ * its file's modification time, which is how the order is remembered from one process to the next.
+ * Files are written under a temporary name and then renamed, so a cell is either whole or missing
+ * even if the process ends while writing it; temporary files left behind that way are deleted when
+ * a cache is next opened on the directory. Every method is thread safe.
+ */
+public class SweepCache {
+    static final int MAGIC = 0x53544953; // "SITS" in little-endian order
+    static final short VERSION = 1;
+    static final int KEY_BYTES = 30;
+    private static final String SUFFIX = ".cell";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    // a temporary file this old was left by a put that never finished, not one another process is writing
+    private static final long STALE_TEMPORARY_MILLIS = 60_000;
+
+    private final Path directory;
+    private final long maxBytes;
+    // the size of each cell's file by name, from least to most recently used
+    private final LinkedHashMap<String, Long> cells;
+    private long bytes;
+    private long hits;
+    private long misses;
+
+    /**
+     * Opens a cache in the given directory, creating the directory if needed, deletes the temporary files
+     * of puts that never finished, and removes the least recently used cells if they take up more than
+     * the given size.
+     *
+     * @param directory The directory the cells are kept in.
+     * @param maxBytes  The most bytes the cells' files may take up together; must be positive.
+     * @throws IOException              If the directory cannot be created or read.
+     * @throws IllegalArgumentException If the size limit is not positive.
+     */
+    public SweepCache(Path directory, long maxBytes) throws IOException {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Invalid cache size: " + maxBytes);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.maxBytes = maxBytes;
+        this.cells = new LinkedHashMap<>(16, 0.75f, true);
+        List<Path> files = new ArrayList<>();
+        Map<Path, FileTime> times = new HashMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : stream) {
+                files.add(file);
+                times.put(file, Files.getLastModifiedTime(file));
+            }
+        }
+        long stale = System.currentTimeMillis() - STALE_TEMPORARY_MILLIS;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + TEMPORARY_SUFFIX)) {
+            for (Path file : stream) {
+                if (Files.getLastModifiedTime(file).toMillis() < stale) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        files.sort(Comparator.comparing(times::get));
+        for (Path file : files) {
+            long size = Files.size(file);
+            cells.put(file.getFileName().toString(), size);
+            bytes += size;
+        }
+        evict();
+    }
+
+    /**
+     * Looks up a cell. A cell written by another process sharing the directory is found as well.
+     *
+     * @param rules      The rules of the cell's games.
+     * @param numPlayers The number of players in each game.
+     * @param seed       The seed the games were played from.
+     * @param games      The number of games.
+     * @return The cell's statistics, or null if the cache does not have them.
+     */
+    public TournamentStats get(RuleSet rules, int numPlayers, long seed, long games) {
+        ByteBuffer key = key(rules, numPlayers, seed, games);
+        String name = name(key);
+        Path file = directory.resolve(name);
+        byte[] data;
+        TournamentStats stats;
+        try {
+            data = Files.readAllBytes(file);
+            stats = read(data, key, rules, numPlayers);
+            if (stats != null) {
+                Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            }
+        } catch (IOException e) {
+            data = null;
+            stats = null;
+        }
+        synchronized (this) {
+            if (stats == null) {
+                if (data != null) {
+                    forget(name);
+                }
+                misses++;
+            } else {
+                hits++;
+                // another thread may have evicted the cell since it was read, deleting its file with it
+                if (Files.exists(file)) {
+                    Long previous = cells.put(name, (long) data.length);
+                    bytes += data.length - (previous == null ? 0 : previous);
+                }
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Stores a cell, replacing it if the cache has it already, and removes the least recently used cells
+     * if the cache is then over its size limit.
+     *
+     * @param rules      The rules of the cell's games.
+     * @param numPlayers The number of players in each game.
+     * @param seed       The seed the games were played from.
+     * @param stats      The statistics of the games.
+     * @throws IOException If the cell cannot be written.
+     */
+    public void put(RuleSet rules, int numPlayers, long seed, TournamentStats stats) throws IOException {
+        ByteBuffer key = key(rules, numPlayers, seed, stats.getGames());
+        String name = name(key);
+        int scoreRange = stats.getScoreRange();
+        ByteBuffer data = ByteBuffer.allocate(KEY_BYTES + Long.BYTES * (1 + numPlayers) + Integer.BYTES
+                + Long.BYTES * scoreRange).order(ByteOrder.LITTLE_ENDIAN);
+        data.put(key);
+        data.putLong(stats.getTotalTurns());
+        for (int seat = 0; seat < numPlayers; seat++) {
+            data.putLong(stats.getWins(seat));
+        }
+        data.putInt(scoreRange);
+        for (int score = 0; score < scoreRange; score++) {
+            data.putLong(stats.getScoreCount(score));
+        }
+        Path file = directory.resolve(name);
+        Path temporary = Files.createTempFile(directory, name, TEMPORARY_SUFFIX);
+        try {
+            Files.write(temporary, data.array());
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        synchronized (this) {
+            Long previous = cells.put(name, (long) data.capacity());
+            bytes += data.capacity() - (previous == null ? 0 : previous);
+            evict();
+        }
+    }
+
+    /**
+     * Gets the number of cells in the cache.
+     *
+     * @return The cell count.
+     */
+    public synchronized int getSize() {
+        return cells.size();
+    }
+
+    /**
+     * Gets the number of bytes the cells' files take up.
+     *
+     * @return The total size of the cells.
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Gets the number of lookups that found their cell since the cache was opened.
+     *
+     * @return The hit count.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of lookups that did not find their cell since the cache was opened.
+     *
+     * @return The miss count.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Removes the least recently used cells until the cache is within its size limit.
+     */
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> eldest = cells.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> cell = eldest.next();
+            bytes -= cell.getValue();
+            eldest.remove();
+            try {
+                Files.deleteIfExists(directory.resolve(cell.getKey()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Removes a cell whose file does not match its name.
+     */
+    private void forget(String name) {
+        Long size = cells.remove(name);
+        if (size != null) {
+            bytes -= size;
+        }
+        try {
+            Files.deleteIfExists(directory.resolve(name));
+        } catch (IOException e) {
+            // it would be read as a miss again, and replaced when the cell is stored
+        }
+    }
+
+    /**
+     * Reads a cell's file, checking that it holds the given key.
+     *
+     * @return The statistics, or null if the file does not hold the key or is cut short.
+     */
+    private static TournamentStats read(byte[] bytes, ByteBuffer key, RuleSet rules, int numPlayers) {
+        ByteBuffer data = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        if (data.remaining() < KEY_BYTES + Long.BYTES * (1 + numPlayers) + Integer.BYTES
+                || !data.slice(0, KEY_BYTES).equals(key.duplicate().rewind())) {
+            return null;
+        }
+        data.position(KEY_BYTES);
+        long games = data.getLong(KEY_BYTES - Long.BYTES);
+        long totalTurns = data.getLong();
+        long[] wins = new long[numPlayers];
+        for (int seat = 0; seat < numPlayers; seat++) {
+            wins[seat] = data.getLong();
+        }
+        int scoreRange = data.getInt();
+        if (scoreRange != rules.getWinningScore() + rules.getMaxTurnScore()
+                || data.remaining() != (long) Long.BYTES * scoreRange) {
+            return null;
+        }
+        long[] scoreCounts = new long[scoreRange];
+        for (int score = 0; score < scoreRange; score++) {
+            scoreCounts[score] = data.getLong();
+        }
+        return new TournamentStats(games, totalTurns, wins, scoreCounts);
+    }
+
+    private static ByteBuffer key(RuleSet rules, int numPlayers, long seed, long games) {
+        ByteBuffer key = ByteBuffer.allocate(KEY_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        key.putInt(MAGIC);
+        key.putShort(VERSION);
+        key.put((byte) rules.getNumDice());
+        key.put((byte) rules.stuckFaces());
+        key.putInt(rules.getWinningScore());
+        key.putShort((short) numPlayers);
+        key.putLong(seed);
+        key.putLong(games);
+        return key.flip();
+    }
+
+    /**
+     * Names a cell's file after the SHA-256 hash of its key, in hexadecimal.
+     */
+    private static String name(ByteBuffer key) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+        digest.update(key.duplicate());
+        StringBuilder name = new StringBuilder(64 + SUFFIX.length());
+        for (byte b : digest.digest()) {
+            name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return name.append(SUFFIX).toString();
+    }
+}
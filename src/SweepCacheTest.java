@@ -0,0 +1,244 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+/**
+ * This class contains unit tests for the SweepCache class, and for SweepExecutor reusing the cells it keeps.
+ */
+public class SweepCacheTest {
+    private static final RuleSet RULES = new RuleSet(40, 3, 2, 5);
+    private static final int PLAYERS = 2;
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("sweep");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        for (Path file : files("*")) {
+            Files.delete(file);
+        }
+        Files.delete(directory);
+    }
+
+    private List<Path> files(String glob) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, glob)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    private static TournamentStats play(long games, long seed) {
+        return new BatchEngine(RULES, PLAYERS).play(games, seed);
+    }
+
+    /**
+     * Stores a cell and gives back the file it was stored in.
+     */
+    private Path put(SweepCache cache, long seed) throws IOException {
+        List<Path> before = files("*.cell");
+        cache.put(RULES, PLAYERS, seed, play(100, seed));
+        List<Path> after = files("*.cell");
+        after.removeAll(before);
+        assertEquals(1, after.size());
+        return after.get(0);
+    }
+
+    /**
+     * Tests storing a cell and looking it up, in the same cache and in one opened later on the same directory.
+     * Validates that the cached statistics equal freshly played ones, and that hits are counted.
+     */
+    @Test
+    public void testCachedEqualsFresh() throws IOException {
+        TournamentStats fresh = play(1000, 5L);
+        SweepCache cache = new SweepCache(directory, 1 << 20);
+        assertNull(cache.get(RULES, PLAYERS, 5L, 1000));
+        cache.put(RULES, PLAYERS, 5L, fresh);
+        BatchEngineTest.assertSameStats(fresh, cache.get(RULES, PLAYERS, 5L, 1000));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getSize());
+        assertEquals(Files.size(files("*.cell").get(0)), cache.getBytes());
+
+        SweepCache reopened = new SweepCache(directory, 1 << 20);
+        assertEquals(1, reopened.getSize());
+        assertEquals(cache.getBytes(), reopened.getBytes());
+        BatchEngineTest.assertSameStats(play(1000, 5L), reopened.get(RULES, PLAYERS, 5L, 1000));
+    }
+
+    /**
+     * Tests looking up cells that differ from a stored one in a single value.
+     * Validates that each is a miss.
+     */
+    @Test
+    public void testKeyMismatchIsMiss() throws IOException {
+        SweepCache cache = new SweepCache(directory, 1 << 20);
+        cache.put(RULES, PLAYERS, 5L, play(1000, 5L));
+        assertNull(cache.get(RULES, PLAYERS, 6L, 1000));
+        assertNull(cache.get(RULES, PLAYERS, 5L, 999));
+        assertNull(cache.get(RULES, 3, 5L, 1000));
+        assertNull(cache.get(new RuleSet(41, 3, 2, 5), PLAYERS, 5L, 1000));
+        assertNull(cache.get(new RuleSet(40, 3, 2, 6), PLAYERS, 5L, 1000));
+        assertEquals(5, cache.getMisses());
+        assertEquals(0, cache.getHits());
+        assertNotNull(cache.get(RULES, PLAYERS, 5L, 1000));
+    }
+
+    /**
+     * Tests files that do not hold what their name says: one holding another cell, and one cut short.
+     * Validates that both are misses, and that they are deleted and no longer counted.
+     */
+    @Test
+    public void testCorruptFilesAreMisses() throws IOException {
+        SweepCache cache = new SweepCache(directory, 1 << 20);
+        Path first = put(cache, 1L);
+        Path second = put(cache, 2L);
+        Path third = put(cache, 3L);
+        Files.copy(second, first, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+        byte[] data = Files.readAllBytes(third);
+        Files.write(third, Arrays.copyOf(data, data.length - 1));
+        long cellBytes = data.length;
+
+        assertNull(cache.get(RULES, PLAYERS, 1L, 100));
+        assertNull(cache.get(RULES, PLAYERS, 3L, 100));
+        assertFalse(Files.exists(first));
+        assertFalse(Files.exists(third));
+        assertEquals(1, cache.getSize());
+        assertEquals(cellBytes, cache.getBytes());
+        assertNotNull(cache.get(RULES, PLAYERS, 2L, 100));
+
+        Files.write(second, new byte[10]);
+        assertNull(cache.get(RULES, PLAYERS, 2L, 100));
+        assertEquals(0, cache.getSize());
+    }
+
+    /**
+     * Tests storing more cells than the size limit allows.
+     * Validates that the least recently used cell is removed, counting lookups as uses, and that the cells
+     * never take up more than the limit.
+     */
+    @Test
+    public void testEvictsLeastRecentlyUsed() throws IOException {
+        long cellBytes = Files.size(put(new SweepCache(directory, 1 << 20), 0L));
+        SweepCache cache = new SweepCache(directory, 3 * cellBytes);
+        Path first = put(cache, 1L);
+        Path second = put(cache, 2L);
+        assertEquals(3, cache.getSize());
+        assertNotNull(cache.get(RULES, PLAYERS, 0L, 100));
+        assertNotNull(cache.get(RULES, PLAYERS, 1L, 100));
+
+        Path fourth = put(cache, 4L);
+        assertEquals(3, cache.getSize());
+        assertEquals(3 * cellBytes, cache.getBytes());
+        assertFalse(Files.exists(second));
+        assertTrue(Files.exists(first));
+        assertTrue(Files.exists(fourth));
+        assertNull(cache.get(RULES, PLAYERS, 2L, 100));
+
+        for (long seed = 10; seed < 20; seed++) {
+            put(cache, seed);
+            assertTrue(cache.getBytes() <= 3 * cellBytes);
+            assertEquals(3, files("*.cell").size());
+        }
+        new SweepCache(directory, cellBytes);
+        assertEquals(1, files("*.cell").size());
+    }
+
+    /**
+     * Tests opening a cache over cells whose files were last used in a known order.
+     * Validates that the cells removed to fit the size limit are the least recently used, not the first stored.
+     */
+    @Test
+    public void testRecencySurvivesReopen() throws IOException {
+        SweepCache cache = new SweepCache(directory, 1 << 20);
+        Path first = put(cache, 1L);
+        Path second = put(cache, 2L);
+        Path third = put(cache, 3L);
+        long now = System.currentTimeMillis();
+        Files.setLastModifiedTime(first, FileTime.fromMillis(now - 3000));
+        Files.setLastModifiedTime(second, FileTime.fromMillis(now - 2000));
+        Files.setLastModifiedTime(third, FileTime.fromMillis(now - 1000));
+        assertNotNull(cache.get(RULES, PLAYERS, 1L, 100));
+        assertTrue(Files.getLastModifiedTime(first).toMillis() >= now);
+
+        SweepCache reopened = new SweepCache(directory, 2 * Files.size(first));
+        assertEquals(2, reopened.getSize());
+        assertTrue(Files.exists(first));
+        assertFalse(Files.exists(second));
+        assertTrue(Files.exists(third));
+    }
+
+    /**
+     * Tests opening a cache over temporary files of puts, one left long ago and one just written.
+     * Validates that the old one is deleted and the one that may still be in use by another process is kept.
+     */
+    @Test
+    public void testDeletesStaleTemporaryFiles() throws IOException {
+        Path stale = Files.createFile(directory.resolve("stale.cell123.tmp"));
+        Files.setLastModifiedTime(stale, FileTime.fromMillis(System.currentTimeMillis() - 3_600_000));
+        Path recent = Files.createFile(directory.resolve("recent.cell456.tmp"));
+        SweepCache cache = new SweepCache(directory, 1 << 20);
+        assertFalse(Files.exists(stale));
+        assertTrue(Files.exists(recent));
+        assertEquals(0, cache.getSize());
+    }
+
+    /**
+     * Tests two sweeps that share some of their cells, and a cell played in more than one chunk.
+     * Validates that the shared cells are taken from the cache, and that every cell, cached or not,
+     * equals the same cell played without a cache.
+     */
+    @Test
+    public void testOverlappingSweeps() throws IOException {
+        SweepCache cache = new SweepCache(directory, 1 << 20);
+        SweepExecutor executor = new SweepExecutor(cache);
+        List<int[]> stuckFaceSets = Arrays.asList(new int[]{2, 5}, new int[]{1});
+        int[] diceCounts = {2, 3};
+        int[] playerCounts = {2, 3};
+        List<SweepExecutor.Cell> first = executor.run(SweepExecutor.range(30, 40, 10), diceCounts, stuckFaceSets,
+                playerCounts, 500, 9L);
+        assertEquals(16, first.size());
+        for (SweepExecutor.Cell cell : first) {
+            assertFalse(cell.isCached());
+        }
+
+        int[] winningScores = SweepExecutor.range(40, 60, 10);
+        List<SweepExecutor.Cell> second = executor.run(winningScores, diceCounts, stuckFaceSets, playerCounts, 500, 9L);
+        List<SweepExecutor.Cell> fresh = new SweepExecutor(null).run(winningScores, diceCounts, stuckFaceSets,
+                playerCounts, 500, 9L);
+        assertEquals(24, second.size());
+        int cached = 0;
+        for (int i = 0; i < second.size(); i++) {
+            SweepExecutor.Cell cell = second.get(i);
+            assertEquals(fresh.get(i).getRules(), cell.getRules());
+            assertEquals(fresh.get(i).getPlayerCount(), cell.getPlayerCount());
+            assertEquals(cell.getRules().getWinningScore() == 40, cell.isCached());
+            BatchEngineTest.assertSameStats(fresh.get(i).getStats(), cell.getStats());
+            cached += cell.isCached() ? 1 : 0;
+        }
+        assertEquals(8, cached);
+        assertEquals(32, cache.getSize());
+
+        long games = SweepExecutor.CHUNK_GAMES + 1000;
+        List<SweepExecutor.Cell> chunked = executor.run(new int[]{40}, new int[]{3}, Collections.singletonList(
+                new int[]{2, 5}), new int[]{PLAYERS}, games, 9L);
+        BatchEngineTest.assertSameStats(play(games, 9L), chunked.get(0).getStats());
+    }
+}
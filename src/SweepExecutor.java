@@ -0,0 +1,261 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+/**
+ * The SweepExecutor class plays a grid of rule variants of Stuck in the Mud: every combination of a range
+ * of winning scores, numbers of dice, sets of stuck faces and player counts, each played for the same
+ * number of games from the same seed by a BatchEngine.
+ * Cells are looked up in a SweepCache first, and only the cells it does not have are played, after which
+ * they are stored in it, so a sweep that overlaps an earlier one only plays the cells that are new.
+ * Every cell that has to be played is a task on a fork/join pool, split into chunks of games when it is
+ * large, so that cells of very different lengths keep every worker busy by work stealing.
+ * A cell's games depend only on its rules, player count, seed and number of games, and its chunks are
+ * merged in order, so a cell has the same statistics whether it was played now, in an earlier sweep
+ * or with any number of workers.
+ */
+public class SweepExecutor {
+    /**
+     * The number of games in a chunk of a cell that is played as a task of its own.
+     */
+    public static final long CHUNK_GAMES = 1 << 16;
+
+    private final ForkJoinPool pool;
+    private final SweepCache cache;
+
+    /**
+     * Constructs a new executor that plays cells on the common fork/join pool and caches them in the given cache.
+     *
+     * @param cache The cache the cells are looked up in and stored in, or null to play every cell.
+     */
+    public SweepExecutor(SweepCache cache) {
+        this(ForkJoinPool.commonPool(), cache);
+    }
+
+    /**
+     * Constructs a new executor that plays cells on the given pool and caches them in the given cache.
+     *
+     * @param pool  The pool the cells are played on.
+     * @param cache The cache the cells are looked up in and stored in, or null to play every cell.
+     */
+    public SweepExecutor(ForkJoinPool pool, SweepCache cache) {
+        this.pool = pool;
+        this.cache = cache;
+    }
+
+    /**
+     * Makes a range of parameter values, such as winning scores, for a sweep.
+     *
+     * @param first The first value.
+     * @param last  The last value, included if the steps reach it exactly.
+     * @param step  The difference between one value and the next; must be positive.
+     * @return The values from first to last.
+     * @throws IllegalArgumentException If the step is not positive or last is less than first.
+     */
+    public static int[] range(int first, int last, int step) {
+        if (step < 1 || last < first) {
+            throw new IllegalArgumentException("Invalid range: " + first + " to " + last + " by " + step);
+        }
+        int[] values = new int[(last - first) / step + 1];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = first + i * step;
+        }
+        return values;
+    }
+
+    /**
+     * Plays every cell of a grid, or takes it from the cache.
+     *
+     * @param winningScores  The winning scores to sweep.
+     * @param diceCounts     The numbers of dice to sweep.
+     * @param stuckFaceSets  The sets of stuck faces to sweep.
+     * @param playerCounts   The player counts to sweep.
+     * @param games          The number of games to play in each cell; must be at least 1.
+     * @param seed           The seed every cell's games are played from.
+     * @return The cells, in the order of the winning scores, then the numbers of dice, then the sets of
+     *         stuck faces, then the player counts.
+     * @throws IllegalArgumentException If a rule set or player count is invalid, or games is less than 1.
+     * @throws UncheckedIOException     If a cell cannot be stored in the cache.
+     */
+    public List<Cell> run(int[] winningScores, int[] diceCounts, List<int[]> stuckFaceSets, int[] playerCounts,
+                          long games, long seed) {
+        if (games < 1) {
+            throw new IllegalArgumentException("Invalid number of games: " + games);
+        }
+        List<CellTask> tasks = new ArrayList<>();
+        for (int winningScore : winningScores) {
+            for (int numDice : diceCounts) {
+                for (int[] stuckFaces : stuckFaceSets) {
+                    RuleSet rules = new RuleSet(winningScore, numDice, stuckFaces);
+                    for (int numPlayers : playerCounts) {
+                        if (numPlayers < 1 || numPlayers > 0xFFFF) {
+                            throw new IllegalArgumentException("Invalid number of players: " + numPlayers);
+                        }
+                        tasks.add(new CellTask(rules, numPlayers, games, seed, cache));
+                    }
+                }
+            }
+        }
+        return pool.invoke(new Sweep(tasks));
+    }
+
+    /**
+     * One cell of a sweep: its rules and player count, and the statistics of its games.
+     */
+    public static final class Cell {
+        private final RuleSet rules;
+        private final int numPlayers;
+        private final TournamentStats stats;
+        private final boolean cached;
+
+        Cell(RuleSet rules, int numPlayers, TournamentStats stats, boolean cached) {
+            this.rules = rules;
+            this.numPlayers = numPlayers;
+            this.stats = stats;
+            this.cached = cached;
+        }
+
+        /**
+         * Gets the rules of the cell's games.
+         *
+         * @return The rule set.
+         */
+        public RuleSet getRules() {
+            return rules;
+        }
+
+        /**
+         * Gets the number of players in each of the cell's games.
+         *
+         * @return The player count.
+         */
+        public int getPlayerCount() {
+            return numPlayers;
+        }
+
+        /**
+         * Gets the statistics of the cell's games.
+         *
+         * @return The statistics.
+         */
+        public TournamentStats getStats() {
+            return stats;
+        }
+
+        /**
+         * Checks if the cell was taken from the cache rather than played.
+         *
+         * @return true if the cell was cached, false if it was played.
+         */
+        public boolean isCached() {
+            return cached;
+        }
+
+        /**
+         * Provides a string representation of the cell: its rules, player count and statistics.
+         *
+         * @return A string representing the cell.
+         */
+        @Override
+        public String toString() {
+            return "Cell{rules=" + rules + ", players=" + numPlayers + ", cached=" + cached + ", stats=" + stats + "}";
+        }
+    }
+
+    /**
+     * Forks every cell and collects them in grid order.
+     */
+    @SuppressWarnings("serial")
+    private static class Sweep extends RecursiveTask<List<Cell>> {
+        private final List<CellTask> tasks;
+
+        Sweep(List<CellTask> tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        protected List<Cell> compute() {
+            invokeAll(tasks);
+            List<Cell> cells = new ArrayList<>(tasks.size());
+            for (CellTask task : tasks) {
+                cells.add(task.join());
+            }
+            return Collections.unmodifiableList(cells);
+        }
+    }
+
+    /**
+     * Takes a cell from the cache, or plays it in chunks and stores it.
+     */
+    @SuppressWarnings("serial")
+    private static class CellTask extends RecursiveTask<Cell> {
+        private final RuleSet rules;
+        private final int numPlayers;
+        private final long games;
+        private final long seed;
+        private final SweepCache cache;
+
+        CellTask(RuleSet rules, int numPlayers, long games, long seed, SweepCache cache) {
+            this.rules = rules;
+            this.numPlayers = numPlayers;
+            this.games = games;
+            this.seed = seed;
+            this.cache = cache;
+        }
+
+        @Override
+        protected Cell compute() {
+            TournamentStats stats = cache == null ? null : cache.get(rules, numPlayers, seed, games);
+            if (stats != null) {
+                return new Cell(rules, numPlayers, stats, true);
+            }
+            List<Chunk> chunks = new ArrayList<>();
+            for (long first = 0; first < games; first += CHUNK_GAMES) {
+                chunks.add(new Chunk(rules, numPlayers, first, Math.min(CHUNK_GAMES, games - first), seed));
+            }
+            invokeAll(chunks);
+            stats = new TournamentStats(numPlayers, rules);
+            for (Chunk chunk : chunks) {
+                stats.merge(chunk.join());
+            }
+            if (cache != null) {
+                try {
+                    cache.put(rules, numPlayers, seed, stats);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return new Cell(rules, numPlayers, stats, false);
+        }
+    }
+
+    /**
+     * Plays a range of a cell's games with an engine of its own.
+     */
+    @SuppressWarnings("serial")
+    private static class Chunk extends RecursiveTask<TournamentStats> {
+        private final RuleSet rules;
+        private final int numPlayers;
+        private final long firstGame;
+        private final long games;
+        private final long seed;
+
+        Chunk(RuleSet rules, int numPlayers, long firstGame, long games, long seed) {
+            this.rules = rules;
+            this.numPlayers = numPlayers;
+            this.firstGame = firstGame;
+            this.games = games;
+            this.seed = seed;
+        }
+
+        @Override
+        protected TournamentStats compute() {
+            TournamentStats stats = new TournamentStats(numPlayers, rules);
+            new BatchEngine(rules, numPlayers).play(firstGame, games, seed, stats);
+            return stats;
+        }
+    }
+}
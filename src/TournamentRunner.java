@@ -0,0 +1,256 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+/**
+ * The TournamentRunner class plays a batch of headless games of Stuck in the Mud spread
+ * over several worker threads on a fork/join pool.
+ * Each worker has its own HeadlessEngine and its own SplittableRandom stream split from a
+ * master seed, and collects its own TournamentStats, which are merged once all workers finish.
+ * The result therefore depends only on the master seed, the number of workers and the number
+ * of games, never on thread scheduling.
+ * aggregate plays the same games into GameAggregators instead, for the distributions of scores, margins
+ * and game lengths, and reports how many games have been played while the workers run.
+ */
+public class TournamentRunner {
+    /**
+     * Receives the progress of a batch of games played by aggregate.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        /**
+         * Called on the thread that called aggregate, at every interval while the games are played
+         * and once more when they are all finished.
+         *
+         * @param gamesPlayed The number of games finished so far.
+         * @param games       The total number of games in the batch.
+         */
+        void progress(long gamesPlayed, long games);
+    }
+
+    private final ForkJoinPool pool;
+    private final int workers;
+
+    /**
+     * Constructs a new runner that uses the common fork/join pool with one worker per core.
+     */
+    public TournamentRunner() {
+        this(ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a new runner that splits each batch of games into the given number of workers.
+     *
+     * @param pool    The pool the workers run on.
+     * @param workers The number of workers; must be at least 1.
+     * @throws IllegalArgumentException If the number of workers is less than 1.
+     */
+    public TournamentRunner(ForkJoinPool pool, int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Invalid number of workers: " + workers);
+        }
+        this.pool = pool;
+        this.workers = workers;
+    }
+
+    /**
+     * Plays a batch of games under the default rules and returns the merged statistics.
+     *
+     * @param numPlayers The number of players in each game.
+     * @param games      The total number of games to play.
+     * @param seed       The master seed every worker's random stream is split from.
+     * @return The statistics over all games.
+     */
+    public TournamentStats run(int numPlayers, long games, long seed) {
+        return run(RuleSet.DEFAULT, numPlayers, games, seed);
+    }
+
+    /**
+     * Plays a batch of games under the given rules and returns the merged statistics.
+     *
+     * @param rules      The rules of the games.
+     * @param numPlayers The number of players in each game.
+     * @param games      The total number of games to play.
+     * @param seed       The master seed every worker's random stream is split from.
+     * @return The statistics over all games.
+     */
+    public TournamentStats run(RuleSet rules, int numPlayers, long games, long seed) {
+        SplittableRandom master = new SplittableRandom(seed);
+        List<Worker> tasks = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            long first = games * w / workers;
+            long last = games * (w + 1) / workers;
+            tasks.add(new Worker(rules, numPlayers, last - first, master.split()));
+        }
+        return pool.invoke(new Batch(rules, numPlayers, tasks));
+    }
+
+    /**
+     * Plays a batch of games under the given rules into one GameAggregator per worker, and merges them
+     * once all workers finish. The games are the same as those played by run with the same arguments.
+     * While the games are played, the calling thread reports the number finished at every interval.
+     *
+     * @param rules          The rules of the games.
+     * @param numPlayers     The number of players in each game.
+     * @param games          The total number of games to play.
+     * @param seed           The master seed every worker's random stream is split from.
+     * @param listener       The listener the progress is reported to.
+     * @param intervalMillis The time between progress reports in milliseconds; must be at least 1.
+     * @return The aggregated statistics over all games.
+     * @throws InterruptedException     If the calling thread is interrupted while waiting; the batch is cancelled,
+     *                                  and every worker stops after the game it is playing.
+     * @throws IllegalArgumentException If the interval is less than 1.
+     */
+    public GameAggregator aggregate(RuleSet rules, int numPlayers, long games, long seed,
+                                    ProgressListener listener, long intervalMillis) throws InterruptedException {
+        if (intervalMillis < 1) {
+            throw new IllegalArgumentException("Invalid progress interval: " + intervalMillis);
+        }
+        SplittableRandom master = new SplittableRandom(seed);
+        List<AggregateWorker> tasks = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            long first = games * w / workers;
+            long last = games * (w + 1) / workers;
+            tasks.add(new AggregateWorker(rules, numPlayers, last - first, master.split()));
+        }
+        ForkJoinTask<GameAggregator> batch = pool.submit(new AggregateBatch(rules, numPlayers, tasks));
+        while (!batch.isDone()) {
+            try {
+                batch.get(intervalMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                long played = 0;
+                for (AggregateWorker task : tasks) {
+                    played += task.aggregator.getGamesRecorded();
+                }
+                listener.progress(played, games);
+            } catch (ExecutionException e) {
+                // thrown again by join below
+            } catch (InterruptedException e) {
+                // cancelling the batch does not reach the workers it forked, so each is cancelled too
+                batch.cancel(true);
+                for (AggregateWorker task : tasks) {
+                    task.cancel(true);
+                }
+                throw e;
+            }
+        }
+        GameAggregator total = batch.join();
+        listener.progress(total.getGames(), games);
+        return total;
+    }
+
+    /**
+     * Forks every worker and merges their statistics in worker order.
+     */
+    @SuppressWarnings("serial")
+    private static class Batch extends RecursiveTask<TournamentStats> {
+        private final RuleSet rules;
+        private final int numPlayers;
+        private final List<Worker> tasks;
+
+        Batch(RuleSet rules, int numPlayers, List<Worker> tasks) {
+            this.rules = rules;
+            this.numPlayers = numPlayers;
+            this.tasks = tasks;
+        }
+
+        @Override
+        protected TournamentStats compute() {
+            invokeAll(tasks);
+            TournamentStats total = new TournamentStats(numPlayers, rules);
+            for (Worker task : tasks) {
+                total.merge(task.join());
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Plays a share of the games with its own engine and random stream.
+     */
+    @SuppressWarnings("serial")
+    private static class Worker extends RecursiveTask<TournamentStats> {
+        private final RuleSet rules;
+        private final int numPlayers;
+        private final long games;
+        private final SplittableRandom random;
+
+        Worker(RuleSet rules, int numPlayers, long games, SplittableRandom random) {
+            this.rules = rules;
+            this.numPlayers = numPlayers;
+            this.games = games;
+            this.random = random;
+        }
+
+        @Override
+        protected TournamentStats compute() {
+            HeadlessEngine engine = new HeadlessEngine(rules, random, TurnEvaluator.Mode.PER_DIE);
+            TournamentStats stats = new TournamentStats(numPlayers, rules);
+            for (long i = 0; i < games; i++) {
+                stats.record(engine.play(numPlayers));
+            }
+            return stats;
+        }
+    }
+
+    /**
+     * Forks every aggregating worker and merges their aggregators in worker order.
+     */
+    @SuppressWarnings("serial")
+    private static class AggregateBatch extends RecursiveTask<GameAggregator> {
+        private final RuleSet rules;
+        private final int numPlayers;
+        private final List<AggregateWorker> tasks;
+
+        AggregateBatch(RuleSet rules, int numPlayers, List<AggregateWorker> tasks) {
+            this.rules = rules;
+            this.numPlayers = numPlayers;
+            this.tasks = tasks;
+        }
+
+        @Override
+        protected GameAggregator compute() {
+            invokeAll(tasks);
+            GameAggregator total = new GameAggregator(rules, numPlayers);
+            for (AggregateWorker task : tasks) {
+                total.merge(task.join());
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Plays a share of the games into its own aggregator, which is created up front so that
+     * its progress can be read while it plays. It stops early, between games, if it is cancelled.
+     */
+    @SuppressWarnings("serial")
+    private static class AggregateWorker extends RecursiveTask<GameAggregator> {
+        private final RuleSet rules;
+        private final long games;
+        private final SplittableRandom random;
+        private final PlayerTable table;
+        final GameAggregator aggregator;
+
+        AggregateWorker(RuleSet rules, int numPlayers, long games, SplittableRandom random) {
+            this.rules = rules;
+            this.games = games;
+            this.random = random;
+            this.table = new PlayerTable(numPlayers);
+            this.aggregator = new GameAggregator(rules, numPlayers);
+        }
+
+        @Override
+        protected GameAggregator compute() {
+            HeadlessEngine engine = new HeadlessEngine(rules, random, TurnEvaluator.Mode.PER_DIE);
+            for (long i = 0; i < games && !isCancelled(); i++) {
+                engine.play(table, aggregator);
+            }
+            return aggregator;
+        }
+    }
+}
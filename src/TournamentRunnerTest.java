@@ -0,0 +1,90 @@
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+/**
+ * This class contains unit tests for the TournamentRunner class and the TournamentStats it returns.
+ */
+public class TournamentRunnerTest {
+    /**
+     * Tests running the same batch twice, on pools of different sizes.
+     * Validates that a seed and a number of workers always give exactly the same statistics.
+     */
+    @Test
+    public void testSameSeedSameStats() {
+        RuleSet rules = new RuleSet(60, 4, 2, 5);
+        ForkJoinPool small = new ForkJoinPool(1);
+        ForkJoinPool large = new ForkJoinPool(4);
+        try {
+            for (int workers : new int[]{1, 3, 8}) {
+                TournamentStats first = new TournamentRunner(small, workers).run(rules, 3, 5001, 123L);
+                TournamentStats second = new TournamentRunner(large, workers).run(rules, 3, 5001, 123L);
+                assertEquals(5001, first.getGames());
+                BatchEngineTest.assertSameStats(first, second);
+            }
+        } finally {
+            small.shutdown();
+            large.shutdown();
+        }
+    }
+
+    /**
+     * Tests running batches with different seeds.
+     * Validates that they play different games.
+     */
+    @Test
+    public void testDifferentSeedsDiffer() {
+        TournamentRunner runner = new TournamentRunner(ForkJoinPool.commonPool(), 2);
+        TournamentStats first = runner.run(2, 5000, 1L);
+        TournamentStats second = runner.run(2, 5000, 2L);
+        assertTrue(first.getTotalTurns() != second.getTotalTurns() || first.getWins(0) != second.getWins(0));
+    }
+
+    /**
+     * Tests merging statistics.
+     * Validates that merged statistics add up, and that statistics of other player counts
+     * or other rules are rejected.
+     */
+    @Test
+    public void testMerge() {
+        TournamentRunner runner = new TournamentRunner(ForkJoinPool.commonPool(), 2);
+        TournamentStats total = runner.run(2, 1000, 1L);
+        TournamentStats other = runner.run(2, 500, 2L);
+        long turns = total.getTotalTurns() + other.getTotalTurns();
+        long wins = total.getWins(0) + other.getWins(0);
+        total.merge(other);
+        assertEquals(1500, total.getGames());
+        assertEquals(turns, total.getTotalTurns());
+        assertEquals(wins, total.getWins(0));
+        long players = 0;
+        for (int score = 0; score < total.getScoreRange(); score++) {
+            players += total.getScoreCount(score);
+        }
+        assertEquals(3000, players);
+
+        try {
+            total.merge(new TournamentStats(3));
+            fail("Statistics of different player counts were merged");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        for (RuleSet rules : new RuleSet[]{new RuleSet(50, 4, 2, 5), new RuleSet(200, 4, 2, 5)}) {
+            try {
+                total.merge(new TournamentStats(2, rules));
+                fail("Statistics of different rules were merged");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+        assertEquals(1500, total.getGames());
+    }
+
+    /**
+     * Tests creating a runner without workers.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoWorkers() {
+        new TournamentRunner(ForkJoinPool.commonPool(), 0);
+    }
+}
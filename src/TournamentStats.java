@@ -0,0 +1,181 @@
+/**
+ * The TournamentStats class accumulates statistics over many games of Stuck in the Mud:
+ * the number of wins for each seat, the mean game length and the distribution of final scores.
+ * An instance is meant to be filled by a single thread; statistics from different threads
+ * are combined afterwards with merge, so no locking is needed.
+ */
+public class TournamentStats {
+    private final long[] wins;
+    private final long[] scoreCounts;
+    private long games;
+    private long totalTurns;
+
+    /**
+     * Constructs empty statistics for games with the given number of players under the default rules.
+     *
+     * @param numPlayers The number of players in each game.
+     */
+    public TournamentStats(int numPlayers) {
+        this(numPlayers, RuleSet.DEFAULT);
+    }
+
+    /**
+     * Constructs empty statistics for games with the given number of players under the given rules.
+     *
+     * @param numPlayers The number of players in each game.
+     * @param rules      The rules of the games.
+     */
+    public TournamentStats(int numPlayers, RuleSet rules) {
+        wins = new long[numPlayers];
+        // the highest possible final score is one short of winning plus the best possible turn
+        scoreCounts = new long[rules.getWinningScore() + rules.getMaxTurnScore()];
+    }
+
+    /**
+     * Constructs statistics holding the given counts, as read back by SweepCache.
+     *
+     * @param games       The number of games.
+     * @param totalTurns  The number of turns over all games.
+     * @param wins        The wins of each seat; kept, not copied.
+     * @param scoreCounts The number of times each final score occurred; kept, not copied.
+     */
+    TournamentStats(long games, long totalTurns, long[] wins, long[] scoreCounts) {
+        this.games = games;
+        this.totalTurns = totalTurns;
+        this.wins = wins;
+        this.scoreCounts = scoreCounts;
+    }
+
+    /**
+     * Adds the outcome of a single game to the statistics.
+     *
+     * @param result The result of a finished game.
+     */
+    public void record(GameResult result) {
+        games++;
+        totalTurns += result.getTurns();
+        wins[result.getWinner()]++;
+        for (int seat = 0; seat < wins.length; seat++) {
+            scoreCounts[result.getScore(seat)]++;
+        }
+    }
+
+    /**
+     * Adds all the games recorded in another set of statistics to this one.
+     *
+     * @param other The statistics to merge in; must be for the same number of players, and for rules
+     *              with the same range of final scores.
+     * @throws IllegalArgumentException If the player counts or the ranges of final scores differ.
+     */
+    public void merge(TournamentStats other) {
+        if (other.wins.length != wins.length) {
+            throw new IllegalArgumentException("Cannot merge statistics for different player counts");
+        }
+        if (other.scoreCounts.length != scoreCounts.length) {
+            throw new IllegalArgumentException("Cannot merge statistics for rules with different score ranges");
+        }
+        games += other.games;
+        totalTurns += other.totalTurns;
+        for (int seat = 0; seat < wins.length; seat++) {
+            wins[seat] += other.wins[seat];
+        }
+        for (int score = 0; score < scoreCounts.length; score++) {
+            scoreCounts[score] += other.scoreCounts[score];
+        }
+    }
+
+    /**
+     * Gets the number of players in each game.
+     *
+     * @return The player count.
+     */
+    public int getPlayerCount() {
+        return wins.length;
+    }
+
+    /**
+     * Gets the number of games recorded.
+     *
+     * @return The game count.
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Gets the number of games won by the player in the given seat.
+     *
+     * @param seat The seat, in turn order starting at 0.
+     * @return The number of wins for that seat.
+     */
+    public long getWins(int seat) {
+        return wins[seat];
+    }
+
+    /**
+     * Gets the fraction of games won by the player in the given seat.
+     *
+     * @param seat The seat, in turn order starting at 0.
+     * @return The win rate for that seat, or 0 if no games were recorded.
+     */
+    public double getWinRate(int seat) {
+        return games == 0 ? 0.0 : (double) wins[seat] / games;
+    }
+
+    /**
+     * Gets the mean number of turns per game, counting every player's turns.
+     *
+     * @return The mean game length, or 0 if no games were recorded.
+     */
+    public double getMeanGameLength() {
+        return games == 0 ? 0.0 : (double) totalTurns / games;
+    }
+
+    /**
+     * Gets the number of turns over all games, counting every player's turns.
+     *
+     * @return The total turn count.
+     */
+    long getTotalTurns() {
+        return totalTurns;
+    }
+
+    /**
+     * Gets one more than the highest final score that can be counted.
+     *
+     * @return The number of final scores counted.
+     */
+    int getScoreRange() {
+        return scoreCounts.length;
+    }
+
+    /**
+     * Gets how many times a player finished a game with the given score.
+     *
+     * @param score The final score.
+     * @return The number of players, over all games, who finished with that score.
+     */
+    public long getScoreCount(int score) {
+        return score < 0 || score >= scoreCounts.length ? 0 : scoreCounts[score];
+    }
+
+    /**
+     * Provides a string representation of the statistics, including the number of games,
+     * the mean game length and the win rate of each seat.
+     *
+     * @return A string representing the statistics.
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("TournamentStats{games=").append(games)
+                .append(", meanGameLength=").append(getMeanGameLength())
+                .append(", winRates=[");
+        for (int seat = 0; seat < wins.length; seat++) {
+            if (seat > 0) {
+                builder.append(", ");
+            }
+            builder.append(getWinRate(seat));
+        }
+        return builder.append("]}").toString();
+    }
+}
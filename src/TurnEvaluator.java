@@ -0,0 +1,125 @@
+import java.util.random.RandomGenerator;
+/**
+ * The TurnEvaluator class rolls and scores a whole turn of Stuck in the Mud without allocating anything.
+ * A turn is returned as a single long holding the turn score in the low 32 bits and the stuck dice
+ * as a bitmask in the high 32 bits, where bit i is set when die i is stuck; use score and stuckDice
+ * to take it apart.
+ * Dice can be rolled in one of two ways:
+ * PER_DIE draws each die separately exactly like StuckInTheMud, so it rolls the same dice for the same seed,
+ * while ONE_DRAW draws a single number that picks one of the possible rolls of all the dice at once
+ * and looks up its score and stuck dice in the tables precomputed by the RuleSet.
+ */
+public final class TurnEvaluator {
+    /**
+     * The ways a turn's dice can be drawn from the random number generator.
+     */
+    public enum Mode {
+        /** One draw per die, rolling the same dice as StuckInTheMud for the same seed. */
+        PER_DIE,
+        /**
+         * One draw per turn for all the dice together, with the same odds but a different sequence.
+         * Rule sets with too many dice for an outcome table fall back to one draw per die.
+         */
+        ONE_DRAW
+    }
+
+    private TurnEvaluator() {
+    }
+
+    /**
+     * Rolls and scores a whole turn.
+     *
+     * @param rules  The rules of the game.
+     * @param random The random number generator to roll with.
+     * @param mode   How the dice are drawn.
+     * @return The turn, holding its score and its stuck dice.
+     */
+    public static long roll(RuleSet rules, RandomGenerator random, Mode mode) {
+        return mode == Mode.ONE_DRAW && rules.outcomeCount() > 0 ? rollOneDraw(rules, random) : rollPerDie(rules, random);
+    }
+
+    /**
+     * Rolls and scores a whole turn with one draw per die, in the same order as StuckInTheMud.
+     *
+     * @param rules  The rules of the game.
+     * @param random The random number generator to roll with.
+     * @return The turn, holding its score and its stuck dice.
+     */
+    public static long rollPerDie(RuleSet rules, RandomGenerator random) {
+        int stuckFaces = rules.stuckFaces();
+        int score = 0;
+        long stuck = 0L;
+        for (int i = 0; i < rules.getNumDice(); i++) {
+            int face = random.nextInt(6) + 1;
+            score += rules.faceScore(face);
+            stuck |= (long) ((stuckFaces >>> face) & 1) << i;
+        }
+        return stuck << 32 | score;
+    }
+
+    /**
+     * Rolls the dice of a whole turn with one draw per die, in the same order as rollPerDie,
+     * and returns the faces themselves so that they can be recorded. Use evaluate to score them.
+     *
+     * @param rules  The rules of the game; must have at most 16 dice.
+     * @param random The random number generator to roll with.
+     * @return The faces packed four bits per die, with die i in bits 4i to 4i + 3.
+     */
+    public static long rollFaces(RuleSet rules, RandomGenerator random) {
+        long faces = 0L;
+        for (int i = 0; i < rules.getNumDice(); i++) {
+            faces |= (long) (random.nextInt(6) + 1) << (4 * i);
+        }
+        return faces;
+    }
+
+    /**
+     * Scores a turn from its faces.
+     *
+     * @param rules The rules of the game; must have at most 16 dice.
+     * @param faces The faces packed four bits per die, as returned by rollFaces.
+     * @return The turn, holding its score and its stuck dice.
+     */
+    public static long evaluate(RuleSet rules, long faces) {
+        int stuckFaces = rules.stuckFaces();
+        int score = 0;
+        long stuck = 0L;
+        for (int i = 0; i < rules.getNumDice(); i++) {
+            int face = (int) (faces >>> (4 * i)) & 0xF;
+            score += rules.faceScore(face);
+            stuck |= (long) ((stuckFaces >>> face) & 1) << i;
+        }
+        return stuck << 32 | score;
+    }
+
+    /**
+     * Rolls and scores a whole turn with a single draw for all the dice.
+     *
+     * @param rules  The rules of the game; must have an outcome table.
+     * @param random The random number generator to roll with.
+     * @return The turn, holding its score and its stuck dice.
+     */
+    public static long rollOneDraw(RuleSet rules, RandomGenerator random) {
+        return rules.outcomeTurn(random.nextInt(rules.outcomeCount()));
+    }
+
+    /**
+     * Gets the score of a turn.
+     *
+     * @param turn A turn returned by one of the roll methods.
+     * @return The points scored in the turn.
+     */
+    public static int score(long turn) {
+        return (int) turn;
+    }
+
+    /**
+     * Gets the stuck dice of a turn.
+     *
+     * @param turn A turn returned by one of the roll methods.
+     * @return A bitmask where bit i is set if die i is stuck.
+     */
+    public static long stuckDice(long turn) {
+        return turn >>> 32;
+    }
+}
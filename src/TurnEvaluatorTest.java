@@ -0,0 +1,142 @@
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+/**
+ * This class contains unit tests for the TurnEvaluator class, checking its turns against dice rolled
+ * one at a time the way StuckInTheMud rolls them.
+ */
+public class TurnEvaluatorTest {
+    private static final RuleSet[] RULES = {RuleSet.DEFAULT, new RuleSet(50, 1, 6), new RuleSet(50, 3),
+            new RuleSet(50, 7, 1, 3, 4), new RuleSet(50, 32, 2, 5)};
+
+    /**
+     * Rolls a turn the way StuckInTheMud does: one nextInt(6) + 1 per die, a stuck face sticking the die
+     * and any other face adding its value.
+     */
+    private static long stuckInTheMudTurn(RuleSet rules, Random random) {
+        int score = 0;
+        long stuck = 0L;
+        for (int i = 0; i < rules.getNumDice(); i++) {
+            int roll = random.nextInt(6) + 1;
+            if (rules.isStuck(roll)) {
+                stuck |= 1L << i;
+            } else {
+                score += roll;
+            }
+        }
+        return stuck << 32 | score;
+    }
+
+    /**
+     * Tests rolling turns one draw per die from a java.util.Random.
+     * Validates that every turn has the score and stuck dice of StuckInTheMud's loop with the same seed,
+     * and that the generators stay in step.
+     */
+    @Test
+    public void testPerDieMatchesStuckInTheMud() {
+        for (RuleSet rules : RULES) {
+            Random expected = new Random(42);
+            Random perDie = new Random(42);
+            Random viaRoll = new Random(42);
+            for (int turn = 0; turn < 10_000; turn++) {
+                long reference = stuckInTheMudTurn(rules, expected);
+                long actual = TurnEvaluator.rollPerDie(rules, perDie);
+                assertEquals(TurnEvaluator.score(reference), TurnEvaluator.score(actual));
+                assertEquals(TurnEvaluator.stuckDice(reference), TurnEvaluator.stuckDice(actual));
+                assertEquals(reference, TurnEvaluator.roll(rules, viaRoll, TurnEvaluator.Mode.PER_DIE));
+            }
+            assertEquals(expected.nextLong(), perDie.nextLong());
+        }
+    }
+
+    /**
+     * Tests rolling the faces of turns and scoring them afterwards.
+     * Validates that it gives the same turns as rolling and scoring at once.
+     */
+    @Test
+    public void testRollFacesThenEvaluate() {
+        for (RuleSet rules : new RuleSet[]{RuleSet.DEFAULT, new RuleSet(50, 16, 1, 6), new RuleSet(50, 5)}) {
+            Random faces = new Random(7);
+            Random perDie = new Random(7);
+            for (int turn = 0; turn < 10_000; turn++) {
+                assertEquals(TurnEvaluator.rollPerDie(rules, perDie),
+                        TurnEvaluator.evaluate(rules, TurnEvaluator.rollFaces(rules, faces)));
+            }
+        }
+    }
+
+    /**
+     * Tests the outcome table ONE_DRAW picks from, against every roll of the dice enumerated one die at a time.
+     * Validates that each turn appears in the table exactly as many times as there are rolls giving it,
+     * so a uniform pick from the table has the distribution of PER_DIE.
+     */
+    @Test
+    public void testOneDrawTableMatchesEnumeration() {
+        for (RuleSet rules : new RuleSet[]{RuleSet.DEFAULT, new RuleSet(50, 1, 6), new RuleSet(50, 3, 1, 2, 3)}) {
+            int numDice = rules.getNumDice();
+            Map<Long, Integer> expected = new HashMap<>();
+            int[] faces = new int[numDice];
+            int rolls = (int) Math.pow(6, numDice);
+            for (int roll = 0; roll < rolls; roll++) {
+                int score = 0;
+                long stuck = 0L;
+                for (int i = 0; i < numDice; i++) {
+                    if (rules.isStuck(faces[i] + 1)) {
+                        stuck |= 1L << i;
+                    } else {
+                        score += faces[i] + 1;
+                    }
+                }
+                expected.merge(stuck << 32 | score, 1, Integer::sum);
+                // count through the rolls like an odometer, the last die turning fastest
+                for (int i = numDice - 1; i >= 0 && ++faces[i] == 6; i--) {
+                    faces[i] = 0;
+                }
+            }
+            assertEquals(rolls, rules.outcomeCount());
+            Map<Long, Integer> table = new HashMap<>();
+            for (int outcome = 0; outcome < rules.outcomeCount(); outcome++) {
+                table.merge(rules.outcomeTurn(outcome), 1, Integer::sum);
+            }
+            assertEquals(expected, table);
+        }
+    }
+
+    /**
+     * Tests rolling turns with a single draw each.
+     * Validates that each turn is the table entry of one nextInt draw, and that rule sets without a table
+     * fall back to one draw per die.
+     */
+    @Test
+    public void testOneDrawPicksFromTable() {
+        Random draws = new Random(3);
+        Random oneDraw = new Random(3);
+        for (int turn = 0; turn < 1000; turn++) {
+            assertEquals(RuleSet.DEFAULT.outcomeTurn(draws.nextInt(RuleSet.DEFAULT.outcomeCount())),
+                    TurnEvaluator.roll(RuleSet.DEFAULT, oneDraw, TurnEvaluator.Mode.ONE_DRAW));
+        }
+        RuleSet manyDice = new RuleSet(50, 8, 2, 5);
+        assertEquals(0, manyDice.outcomeCount());
+        Random perDie = new Random(3);
+        Random fallBack = new Random(3);
+        for (int turn = 0; turn < 1000; turn++) {
+            assertEquals(TurnEvaluator.rollPerDie(manyDice, perDie),
+                    TurnEvaluator.roll(manyDice, fallBack, TurnEvaluator.Mode.ONE_DRAW));
+        }
+    }
+
+    /**
+     * Tests taking turns apart when every die of the largest rule set is stuck.
+     * Validates that all 32 stuck bits come back without spilling into the score.
+     */
+    @Test
+    public void testTurnFormat() {
+        long turn = 0xFFFFFFFFL << 32 | 123;
+        assertEquals(123, TurnEvaluator.score(turn));
+        assertEquals(0xFFFFFFFFL, TurnEvaluator.stuckDice(turn));
+    }
+}
@@ -0,0 +1,432 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.random.RandomGenerator;
+/**
+ * The WinRateEstimator class estimates how often each seat wins a game of Stuck in the Mud to a requested
+ * precision, playing games in batches until a confidence interval of every win rate is narrow enough,
+ * rather than playing a number of games fixed in advance.
+ * Two ways of reducing variance are built in, so that fewer games give the same precision, both by
+ * rolling dice with a CoupledRandom: with antithetic dice, every game is played twice, once with its own
+ * random stream and once with that stream mirrored, and the pair counts as one sample; and with several
+ * rule sets, the variants are played with common random numbers, so sample k of every variant rolls
+ * its dice from the same stream, ranked by each variant's scores. The difference between a variant and
+ * the first one then mostly has the variance of the rules rather than of the dice, and is estimated with
+ * an interval of its own. The streams stay in step when the variants have the same number of dice.
+ * Sample k's stream is made from the seed and k alone, and each batch is split between workers on a
+ * fork/join pool whose counts are added up as whole numbers, so an estimate depends only on its arguments,
+ * never on the number of workers or on thread scheduling.
+ * The intervals use the normal approximation, which is sound for the thousands of samples of a batch;
+ * each interval on its own covers the true value with the requested confidence.
+ */
+public class WinRateEstimator {
+    /**
+     * The number of samples in a batch unless another number is given.
+     */
+    public static final int DEFAULT_BATCH_SAMPLES = 4096;
+    /**
+     * The number of samples played at most unless another number is given.
+     */
+    public static final long DEFAULT_MAX_SAMPLES = 50_000_000L;
+
+    private final ForkJoinPool pool;
+    private final int workers;
+    private final int numPlayers;
+    private final boolean antithetic;
+    private final int batchSamples;
+    private final long maxSamples;
+
+    /**
+     * Constructs a new estimator for games with the given number of players that uses antithetic dice
+     * and the common fork/join pool with one worker per core.
+     *
+     * @param numPlayers The number of players in each game; must be at least 1.
+     */
+    public WinRateEstimator(int numPlayers) {
+        this(ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors(), numPlayers, true,
+                DEFAULT_BATCH_SAMPLES, DEFAULT_MAX_SAMPLES);
+    }
+
+    /**
+     * Constructs a new estimator for games with the given number of players.
+     *
+     * @param pool         The pool the workers run on.
+     * @param workers      The number of workers each batch is split into; must be at least 1.
+     * @param numPlayers   The number of players in each game; must be at least 1.
+     * @param antithetic   Whether each sample is a game and its mirror image rather than a single game.
+     * @param batchSamples The number of samples played between checks of the intervals; must be at least 2.
+     * @param maxSamples   The number of samples after which the estimate stops even if it has not converged.
+     * @throws IllegalArgumentException If any of the numbers is out of range.
+     */
+    public WinRateEstimator(ForkJoinPool pool, int workers, int numPlayers, boolean antithetic,
+                            int batchSamples, long maxSamples) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Invalid number of workers: " + workers);
+        }
+        if (numPlayers < 1) {
+            throw new IllegalArgumentException("Invalid number of players: " + numPlayers);
+        }
+        if (batchSamples < 2 || maxSamples < batchSamples) {
+            throw new IllegalArgumentException("Invalid number of samples: " + batchSamples + ", " + maxSamples);
+        }
+        this.pool = pool;
+        this.workers = workers;
+        this.numPlayers = numPlayers;
+        this.antithetic = antithetic;
+        this.batchSamples = batchSamples;
+        this.maxSamples = maxSamples;
+    }
+
+    /**
+     * Estimates the win rate of every seat under each of the given rule sets, playing batches of samples
+     * until the confidence interval of every win rate, and of every difference from the first rule set,
+     * is at most epsilon either side of its estimate, or until the maximum number of samples is played.
+     *
+     * @param epsilon    The largest acceptable half-width of an interval, between 0 and 1 exclusive.
+     * @param confidence The confidence of each interval, between 0 and 1 exclusive; 0.95 for 95%.
+     * @param seed       The seed every sample's random stream is made from.
+     * @param variants   The rule sets to estimate, at least one; all are played with the same streams.
+     * @return The estimate.
+     * @throws IllegalArgumentException If epsilon or the confidence is out of range, or there are no rule sets.
+     */
+    public Estimate estimate(double epsilon, double confidence, long seed, RuleSet... variants) {
+        if (!(epsilon > 0 && epsilon < 1)) {
+            throw new IllegalArgumentException("Invalid epsilon: " + epsilon);
+        }
+        if (!(confidence > 0 && confidence < 1)) {
+            throw new IllegalArgumentException("Invalid confidence: " + confidence);
+        }
+        if (variants.length == 0) {
+            throw new IllegalArgumentException("No rule sets to estimate");
+        }
+        RuleSet[] rules = variants.clone();
+        double z = normalQuantile(1 - (1 - confidence) / 2);
+        Sums total = new Sums(rules.length * numPlayers);
+        long samples = 0;
+        while (true) {
+            long batch = Math.min(batchSamples, maxSamples - samples);
+            List<Worker> tasks = new ArrayList<>(workers);
+            for (int w = 0; w < workers; w++) {
+                long first = samples + batch * w / workers;
+                long last = samples + batch * (w + 1) / workers;
+                tasks.add(new Worker(rules, numPlayers, antithetic, seed, first, last));
+            }
+            total.add(pool.invoke(new Batch(tasks, rules.length * numPlayers)));
+            samples += batch;
+            Estimate estimate = new Estimate(rules, numPlayers, antithetic ? 2 : 1, samples, z, total, epsilon);
+            if (estimate.isConverged() || samples >= maxSamples) {
+                return estimate;
+            }
+        }
+    }
+
+    /**
+     * The win rates estimated for each rule set and seat, with their confidence intervals.
+     */
+    public static final class Estimate {
+        private final RuleSet[] variants;
+        private final int numPlayers;
+        private final int gamesPerSample;
+        private final long samples;
+        private final double z;
+        private final long[] wins;
+        private final long[] winSquares;
+        private final long[] differences;
+        private final long[] differenceSquares;
+        private final boolean converged;
+
+        Estimate(RuleSet[] variants, int numPlayers, int gamesPerSample, long samples, double z, Sums sums,
+                 double epsilon) {
+            this.variants = variants;
+            this.numPlayers = numPlayers;
+            this.gamesPerSample = gamesPerSample;
+            this.samples = samples;
+            this.z = z;
+            this.wins = sums.wins.clone();
+            this.winSquares = sums.winSquares.clone();
+            this.differences = sums.differences.clone();
+            this.differenceSquares = sums.differenceSquares.clone();
+            this.converged = maxHalfWidth() <= epsilon;
+        }
+
+        /**
+         * Gets the number of rule sets estimated.
+         *
+         * @return The variant count.
+         */
+        public int getVariantCount() {
+            return variants.length;
+        }
+
+        /**
+         * Gets one of the rule sets estimated.
+         *
+         * @param variant The index of the rule set, in the order given.
+         * @return The rule set.
+         */
+        public RuleSet getVariant(int variant) {
+            return variants[variant];
+        }
+
+        /**
+         * Gets the number of samples played for each rule set.
+         *
+         * @return The sample count.
+         */
+        public long getSamples() {
+            return samples;
+        }
+
+        /**
+         * Gets the number of games played over all rule sets: two per sample and rule set with
+         * antithetic dice, one without.
+         *
+         * @return The game count.
+         */
+        public long getGames() {
+            return samples * gamesPerSample * variants.length;
+        }
+
+        /**
+         * Checks if every interval is within epsilon, rather than the maximum number of samples having been reached.
+         *
+         * @return true if the estimate converged, false otherwise.
+         */
+        public boolean isConverged() {
+            return converged;
+        }
+
+        /**
+         * Gets the estimated probability that the player in the given seat wins under the given rule set.
+         *
+         * @param variant The index of the rule set.
+         * @param seat    The seat, in turn order starting at 0.
+         * @return The win rate.
+         */
+        public double getWinRate(int variant, int seat) {
+            return mean(wins[variant * numPlayers + seat]);
+        }
+
+        /**
+         * Gets the half-width of the confidence interval of a win rate.
+         *
+         * @param variant The index of the rule set.
+         * @param seat    The seat, in turn order starting at 0.
+         * @return How far the true win rate may be from the estimate either way.
+         */
+        public double getHalfWidth(int variant, int seat) {
+            int i = variant * numPlayers + seat;
+            return halfWidth(wins[i], winSquares[i]);
+        }
+
+        /**
+         * Gets the estimated difference between a seat's win rate under the given rule set
+         * and under the first rule set, from the same samples of both.
+         *
+         * @param variant The index of the rule set.
+         * @param seat    The seat, in turn order starting at 0.
+         * @return The win rate under the rule set minus the win rate under the first; 0 for the first itself.
+         */
+        public double getDifference(int variant, int seat) {
+            return mean(differences[variant * numPlayers + seat]);
+        }
+
+        /**
+         * Gets the half-width of the confidence interval of a difference between win rates.
+         *
+         * @param variant The index of the rule set.
+         * @param seat    The seat, in turn order starting at 0.
+         * @return How far the true difference may be from the estimate either way.
+         */
+        public double getDifferenceHalfWidth(int variant, int seat) {
+            int i = variant * numPlayers + seat;
+            return halfWidth(differences[i], differenceSquares[i]);
+        }
+
+        private double maxHalfWidth() {
+            double max = 0;
+            for (int i = 0; i < wins.length; i++) {
+                max = Math.max(max, halfWidth(wins[i], winSquares[i]));
+                max = Math.max(max, halfWidth(differences[i], differenceSquares[i]));
+            }
+            return max;
+        }
+
+        /**
+         * Turns the sum of a sample's wins, 0 to gamesPerSample each, into the mean win rate.
+         */
+        private double mean(long sum) {
+            return (double) sum / ((double) samples * gamesPerSample);
+        }
+
+        /**
+         * Gets z times the standard error of the mean of the samples' win rates, from the sums
+         * of their wins and of their wins squared.
+         */
+        private double halfWidth(long sum, long squares) {
+            if (samples < 2) {
+                return Double.POSITIVE_INFINITY;
+            }
+            double mean = (double) sum / samples;
+            double variance = Math.max(0, (squares - mean * sum) / (samples - 1)) / ((double) gamesPerSample * gamesPerSample);
+            return z * Math.sqrt(variance / samples);
+        }
+
+        /**
+         * Provides a string representation of the estimate: each rule set's win rates with their half-widths,
+         * and for the other rule sets the differences from the first.
+         *
+         * @return A string representing the estimate.
+         */
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder("Estimate{samples=").append(samples)
+                    .append(", games=").append(getGames()).append(", converged=").append(converged);
+            for (int v = 0; v < variants.length; v++) {
+                builder.append(", ").append(variants[v]).append("=[");
+                for (int seat = 0; seat < numPlayers; seat++) {
+                    builder.append(seat > 0 ? ", " : "").append(String.format(Locale.ROOT, "%.4f+/-%.4f",
+                            getWinRate(v, seat), getHalfWidth(v, seat)));
+                    if (v > 0) {
+                        builder.append(String.format(Locale.ROOT, " (%+.4f+/-%.4f)",
+                                getDifference(v, seat), getDifferenceHalfWidth(v, seat)));
+                    }
+                }
+                builder.append(']');
+            }
+            return builder.append('}').toString();
+        }
+    }
+
+    /**
+     * The whole-number sums the intervals are worked out from, indexed by rule set and seat.
+     */
+    private static final class Sums {
+        final long[] wins;
+        final long[] winSquares;
+        final long[] differences;
+        final long[] differenceSquares;
+
+        Sums(int size) {
+            wins = new long[size];
+            winSquares = new long[size];
+            differences = new long[size];
+            differenceSquares = new long[size];
+        }
+
+        void add(Sums other) {
+            for (int i = 0; i < wins.length; i++) {
+                wins[i] += other.wins[i];
+                winSquares[i] += other.winSquares[i];
+                differences[i] += other.differences[i];
+                differenceSquares[i] += other.differenceSquares[i];
+            }
+        }
+    }
+
+    /**
+     * Forks every worker of a batch and adds up their sums.
+     */
+    @SuppressWarnings("serial")
+    private static class Batch extends RecursiveTask<Sums> {
+        private final List<Worker> tasks;
+        private final int size;
+
+        Batch(List<Worker> tasks, int size) {
+            this.tasks = tasks;
+            this.size = size;
+        }
+
+        @Override
+        protected Sums compute() {
+            invokeAll(tasks);
+            Sums total = new Sums(size);
+            for (Worker task : tasks) {
+                total.add(task.join());
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Plays a range of samples under every rule set.
+     */
+    @SuppressWarnings("serial")
+    private static class Worker extends RecursiveTask<Sums> {
+        private final RuleSet[] variants;
+        private final int numPlayers;
+        private final boolean antithetic;
+        private final long seed;
+        private final long first;
+        private final long last;
+
+        Worker(RuleSet[] variants, int numPlayers, boolean antithetic, long seed, long first, long last) {
+            this.variants = variants;
+            this.numPlayers = numPlayers;
+            this.antithetic = antithetic;
+            this.seed = seed;
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        protected Sums compute() {
+            Sums sums = new Sums(variants.length * numPlayers);
+            PlayerTable table = new PlayerTable(numPlayers);
+            int[] sampleWins = new int[variants.length * numPlayers];
+            for (long sample = first; sample < last; sample++) {
+                long sampleSeed = BatchEngine.gameSeed(seed, sample);
+                for (int v = 0; v < variants.length; v++) {
+                    int base = v * numPlayers;
+                    sampleWins[base + winner(variants[v], sampleSeed, false, table)]++;
+                    if (antithetic) {
+                        sampleWins[base + winner(variants[v], sampleSeed, true, table)]++;
+                    }
+                }
+                for (int i = 0; i < sampleWins.length; i++) {
+                    long w = sampleWins[i];
+                    long d = w - sampleWins[i % numPlayers];
+                    sums.wins[i] += w;
+                    sums.winSquares[i] += w * w;
+                    sums.differences[i] += d;
+                    sums.differenceSquares[i] += d * d;
+                }
+                Arrays.fill(sampleWins, 0);
+            }
+            return sums;
+        }
+
+        private static int winner(RuleSet rules, long seed, boolean mirrored, PlayerTable table) {
+            RandomGenerator random = new CoupledRandom(new SplittableRandom(seed), rules, mirrored);
+            return new HeadlessEngine(rules, random, TurnEvaluator.Mode.PER_DIE).play(table).getWinner();
+        }
+    }
+
+    /**
+     * Gets the value below which a standard normal variable falls with the given probability, with
+     * Acklam's rational approximation, which is accurate to about 1 part in a billion.
+     */
+    static double normalQuantile(double p) {
+        final double pLow = 0.02425;
+        if (p < pLow) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return (((((-7.784894002430293e-03 * q - 3.223964580411365e-01) * q - 2.400758277161838e+00) * q
+                    - 2.549732539343734e+00) * q + 4.374664141464968e+00) * q + 2.938163982698783e+00)
+                    / ((((7.784695709041462e-03 * q + 3.224671290700398e-01) * q + 2.445134137142996e+00) * q
+                    + 3.754408661907416e+00) * q + 1);
+        }
+        if (p > 1 - pLow) {
+            return -normalQuantile(1 - p);
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((-3.969683028665376e+01 * r + 2.209460984245205e+02) * r - 2.759285104469687e+02) * r
+                + 1.383577518672690e+02) * r - 3.066479806614716e+01) * r + 2.506628277459239e+00) * q
+                / (((((-5.447609879822406e+01 * r + 1.615858368580409e+02) * r - 1.556989798598866e+02) * r
+                + 6.680131188771972e+01) * r - 1.328068155288572e+01) * r + 1);
+    }
+}
@@ -0,0 +1,184 @@
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.random.RandomGenerator;
+
+import static org.junit.Assert.*;
+/**
+ * This class contains unit tests for the WinRateEstimator class and the CoupledRandom dice it rolls,
+ * checking its estimates against the exact win rates of GameSolver.
+ */
+public class WinRateEstimatorTest {
+    /**
+     * A generator that returns the same number for every bounded int, to see what CoupledRandom makes of it.
+     */
+    private static final class FixedRandom implements RandomGenerator {
+        int value;
+        long longValue;
+
+        @Override
+        public long nextLong() {
+            return longValue;
+        }
+
+        @Override
+        public int nextInt(int bound) {
+            return value;
+        }
+    }
+
+    /**
+     * Tests the normal quantile against values from a table.
+     * Validates that it is accurate to 1e-8 in both tails and the middle, and symmetric.
+     */
+    @Test
+    public void testNormalQuantile() {
+        assertEquals(0.0, WinRateEstimator.normalQuantile(0.5), 1e-12);
+        assertEquals(1.6448536270, WinRateEstimator.normalQuantile(0.95), 1e-8);
+        assertEquals(1.9599639845, WinRateEstimator.normalQuantile(0.975), 1e-8);
+        assertEquals(2.5758293035, WinRateEstimator.normalQuantile(0.995), 1e-8);
+        assertEquals(-2.3263478740, WinRateEstimator.normalQuantile(0.01), 1e-8);
+        assertEquals(-4.7534243088, WinRateEstimator.normalQuantile(1e-6), 1e-8);
+        for (double p = 0.001; p < 0.5; p += 0.0123) {
+            assertEquals(-WinRateEstimator.normalQuantile(p), WinRateEstimator.normalQuantile(1 - p), 1e-9);
+        }
+    }
+
+    /**
+     * Tests the dice of a CoupledRandom, plain and mirrored, for every number the other generator can draw.
+     * Validates that plain dice rise in score with the number drawn, so stuck faces come first, that mirrored
+     * dice are the plain dice of the opposite rank, and that other numbers are passed through or reflected.
+     */
+    @Test
+    public void testCoupledRandomRanks() {
+        for (RuleSet rules : new RuleSet[]{RuleSet.DEFAULT, new RuleSet(50, 4, 1, 6), new RuleSet(50, 4)}) {
+            FixedRandom fixed = new FixedRandom();
+            CoupledRandom plain = new CoupledRandom(fixed, rules, false);
+            CoupledRandom mirrored = new CoupledRandom(fixed, rules, true);
+            int[] plainFaces = new int[6];
+            int[] mirroredFaces = new int[6];
+            for (int value = 0; value < 6; value++) {
+                fixed.value = value;
+                plainFaces[value] = plain.nextInt(6) + 1;
+                mirroredFaces[value] = mirrored.nextInt(6) + 1;
+            }
+            int seen = 0;
+            for (int rank = 0; rank < 6; rank++) {
+                seen |= 1 << plainFaces[rank];
+                assertEquals(plainFaces[5 - rank], mirroredFaces[rank]);
+                if (rank > 0) {
+                    assertTrue(rules.faceScore(plainFaces[rank]) >= rules.faceScore(plainFaces[rank - 1]));
+                }
+            }
+            assertEquals("Every face is rolled", 0b1111110, seen);
+
+            fixed.value = 3;
+            fixed.longValue = 12345L;
+            assertEquals(3, plain.nextInt(10));
+            assertEquals(6, mirrored.nextInt(10));
+            assertEquals(12345L, plain.nextLong());
+            assertEquals(~12345L, mirrored.nextLong());
+        }
+    }
+
+    /**
+     * Tests the half-widths of a single rule set played without antithetic dice, where each sample is one
+     * game and a seat's wins are 0 or 1.
+     * Validates that the half-width is z * sqrt(p * (1 - p) / (n - 1)), and that a rule set differs from
+     * itself by exactly 0.
+     */
+    @Test
+    public void testHalfWidthArithmetic() {
+        WinRateEstimator estimator = new WinRateEstimator(ForkJoinPool.commonPool(), 2, 2, false, 1000, 3000);
+        WinRateEstimator.Estimate estimate = estimator.estimate(1e-6, 0.95, 3L, RuleSet.DEFAULT);
+        assertEquals(3000, estimate.getSamples());
+        assertEquals(3000, estimate.getGames());
+        assertFalse(estimate.isConverged());
+        double z = WinRateEstimator.normalQuantile(0.975);
+        assertEquals(1.0, estimate.getWinRate(0, 0) + estimate.getWinRate(0, 1), 1e-12);
+        for (int seat = 0; seat < 2; seat++) {
+            double p = estimate.getWinRate(0, seat);
+            assertEquals(z * Math.sqrt(p * (1 - p) / 2999), estimate.getHalfWidth(0, seat), 1e-12);
+            assertEquals(0.0, estimate.getDifference(0, seat), 0.0);
+            assertEquals(0.0, estimate.getDifferenceHalfWidth(0, seat), 0.0);
+        }
+    }
+
+    /**
+     * Tests the estimates of two rule sets small enough for GameSolver to solve exactly.
+     * Validates that the estimates converge, and that every win rate and difference is within its interval
+     * of the exact value.
+     */
+    @Test
+    public void testEstimateAgainstSolver() {
+        RuleSet first = new RuleSet(30, 3, 2, 5);
+        RuleSet second = new RuleSet(30, 3, 1, 6);
+        GameSolver firstSolver = new GameSolver(first, 2);
+        GameSolver secondSolver = new GameSolver(second, 2);
+        WinRateEstimator estimator = new WinRateEstimator(ForkJoinPool.commonPool(), 2, 2, true, 2048, 1 << 20);
+        WinRateEstimator.Estimate estimate = estimator.estimate(0.01, 0.99, 11L, first, second);
+        assertTrue(estimate.isConverged());
+        assertEquals(estimate.getSamples() * 4, estimate.getGames());
+        for (int seat = 0; seat < 2; seat++) {
+            double exactFirst = firstSolver.winProbability(seat);
+            double exactSecond = secondSolver.winProbability(seat);
+            assertTrue(estimate.getHalfWidth(0, seat) <= 0.01);
+            assertEquals(exactFirst, estimate.getWinRate(0, seat), estimate.getHalfWidth(0, seat));
+            assertEquals(exactSecond, estimate.getWinRate(1, seat), estimate.getHalfWidth(1, seat));
+            assertEquals(exactSecond - exactFirst, estimate.getDifference(1, seat),
+                    estimate.getDifferenceHalfWidth(1, seat));
+        }
+    }
+
+    /**
+     * Tests the same estimate made with one worker and with four.
+     * Validates that the estimates are identical.
+     */
+    @Test
+    public void testWorkerCountIndependence() {
+        RuleSet[] variants = {RuleSet.DEFAULT, new RuleSet(50, 4, 3)};
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            WinRateEstimator.Estimate one = new WinRateEstimator(pool, 1, 3, true, 500, 1500)
+                    .estimate(0.001, 0.95, 21L, variants);
+            WinRateEstimator.Estimate four = new WinRateEstimator(pool, 4, 3, true, 500, 1500)
+                    .estimate(0.001, 0.95, 21L, variants);
+            assertEquals(one.getSamples(), four.getSamples());
+            for (int variant = 0; variant < variants.length; variant++) {
+                for (int seat = 0; seat < 3; seat++) {
+                    assertEquals(one.getWinRate(variant, seat), four.getWinRate(variant, seat), 0.0);
+                    assertEquals(one.getHalfWidth(variant, seat), four.getHalfWidth(variant, seat), 0.0);
+                    assertEquals(one.getDifference(variant, seat), four.getDifference(variant, seat), 0.0);
+                    assertEquals(one.getDifferenceHalfWidth(variant, seat), four.getDifferenceHalfWidth(variant, seat), 0.0);
+                }
+            }
+            assertEquals(one.toString(), four.toString());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Tests estimating with invalid arguments.
+     * Validates that epsilon, the confidence and the rule sets are checked.
+     */
+    @Test
+    public void testInvalidArguments() {
+        WinRateEstimator estimator = new WinRateEstimator(2);
+        double[][] invalid = {{0, 0.95}, {1, 0.95}, {0.01, 0}, {0.01, 1}, {Double.NaN, 0.95}};
+        for (double[] arguments : invalid) {
+            try {
+                estimator.estimate(arguments[0], arguments[1], 1L, RuleSet.DEFAULT);
+                fail("Accepted epsilon " + arguments[0] + " and confidence " + arguments[1]);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+        try {
+            estimator.estimate(0.01, 0.95, 1L);
+            fail("Accepted no rule sets");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}